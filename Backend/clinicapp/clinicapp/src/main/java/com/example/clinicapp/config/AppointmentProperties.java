@@ -0,0 +1,239 @@
+package com.example.clinicapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Appointment scheduling settings (app.appointments.*)
+ *
+ * Each doctor's day is divided into fixed slots of slot-minutes; an appointment occupies
+ * every slot its [start, start + duration) interval touches.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.appointments")
+public class AppointmentProperties {
+
+    /**
+     * Slot length in minutes; must divide a day (1440) evenly
+     */
+    private int slotMinutes = 5;
+
+    /**
+     * Duration assumed for appointments booked without one
+     */
+    private int defaultDurationMinutes = 10;
+
+    /**
+     * Booking locks; (doctor, slot) pairs hash onto this many stripes
+     */
+    private int lockStripes = 256;
+
+    private Availability availability = new Availability();
+    private Reminders reminders = new Reminders();
+    private Search search = new Search();
+    private Roster roster = new Roster();
+    private Series series = new Series();
+    private Holds holds = new Holds();
+    private Board board = new Board();
+
+    public static class Availability {
+        /**
+         * A doctor's day is reloaded from the database once it is older than this,
+         * so bookings made on other nodes are picked up
+         */
+        private Duration maxAge = Duration.ofMinutes(1);
+
+        /**
+         * Upper bound on doctor-days held in memory
+         */
+        private int maxDays = 10000;
+
+        public Duration getMaxAge() { return maxAge; }
+        public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+
+        public int getMaxDays() { return maxDays; }
+        public void setMaxDays(int maxDays) { this.maxDays = maxDays; }
+    }
+
+    public static class Reminders {
+        private boolean enabled = true;
+
+        /**
+         * How long before the appointment each reminder goes out
+         */
+        private List<Duration> offsets = List.of(Duration.ofHours(24), Duration.ofHours(2));
+
+        /**
+         * Appointments starting within this window are held in the timing wheel; must exceed
+         * the largest offset by more than the refresh interval
+         */
+        private Duration horizon = Duration.ofHours(26);
+
+        /**
+         * On load, reminders whose time passed at most this long ago (e.g. during a restart)
+         * still go out
+         */
+        private Duration catchUp = Duration.ofMinutes(15);
+
+        /**
+         * Due reminders claimed and queued per transaction
+         */
+        private int batchSize = 200;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public List<Duration> getOffsets() { return offsets; }
+        public void setOffsets(List<Duration> offsets) { this.offsets = offsets; }
+
+        public Duration getHorizon() { return horizon; }
+        public void setHorizon(Duration horizon) { this.horizon = horizon; }
+
+        public Duration getCatchUp() { return catchUp; }
+        public void setCatchUp(Duration catchUp) { this.catchUp = catchUp; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    }
+
+    public static class Search {
+        /**
+         * Clinic hours searched for free slots (HH:mm)
+         */
+        private String opensAt = "09:00";
+        private String closesAt = "18:00";
+
+        /**
+         * Longest date window one search may cover
+         */
+        private int maxWindowDays = 31;
+
+        /**
+         * Upper bound on slots returned by one search
+         */
+        private int maxResults = 50;
+
+        public String getOpensAt() { return opensAt; }
+        public void setOpensAt(String opensAt) { this.opensAt = opensAt; }
+
+        public String getClosesAt() { return closesAt; }
+        public void setClosesAt(String closesAt) { this.closesAt = closesAt; }
+
+        public int getMaxWindowDays() { return maxWindowDays; }
+        public void setMaxWindowDays(int maxWindowDays) { this.maxWindowDays = maxWindowDays; }
+
+        public int getMaxResults() { return maxResults; }
+        public void setMaxResults(int maxResults) { this.maxResults = maxResults; }
+    }
+
+    public static class Roster {
+        /**
+         * How far ahead rostered doctors' slot calendars are precomputed, and so bookable
+         */
+        private int weeks = 12;
+
+        public int getWeeks() { return weeks; }
+        public void setWeeks(int weeks) { this.weeks = weeks; }
+    }
+
+    public static class Series {
+        /**
+         * What to do when some occurrences of a recurring series are taken or outside the
+         * doctor's roster: FAIL books none of them, SKIP books the rest
+         */
+        public enum OnConflict {
+            FAIL,
+            SKIP
+        }
+
+        private OnConflict onConflict = OnConflict.FAIL;
+
+        /**
+         * Upper bound on occurrences one series may expand to
+         */
+        private int maxOccurrences = 52;
+
+        public OnConflict getOnConflict() { return onConflict; }
+        public void setOnConflict(OnConflict onConflict) { this.onConflict = onConflict; }
+
+        public int getMaxOccurrences() { return maxOccurrences; }
+        public void setMaxOccurrences(int maxOccurrences) { this.maxOccurrences = maxOccurrences; }
+    }
+
+    public static class Holds {
+        /**
+         * How long a slot hold blocks other bookings unless confirmed or released first
+         */
+        private Duration ttl = Duration.ofMinutes(2);
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+    }
+
+    public static class Board {
+        /**
+         * Recent board events kept so reconnecting screens can resume from their Last-Event-ID
+         */
+        private int replayEvents = 1000;
+
+        /**
+         * An event stream is closed after this long; the browser reconnects and resumes
+         */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+
+        /**
+         * Reconnect delay sent to browsers
+         */
+        private Duration retry = Duration.ofSeconds(3);
+
+        /**
+         * Events waiting to be written to one screen before it is dropped as too slow
+         */
+        private int maxPendingEvents = 256;
+
+        public int getReplayEvents() { return replayEvents; }
+        public void setReplayEvents(int replayEvents) { this.replayEvents = replayEvents; }
+
+        public Duration getStreamTimeout() { return streamTimeout; }
+        public void setStreamTimeout(Duration streamTimeout) { this.streamTimeout = streamTimeout; }
+
+        public Duration getRetry() { return retry; }
+        public void setRetry(Duration retry) { this.retry = retry; }
+
+        public int getMaxPendingEvents() { return maxPendingEvents; }
+        public void setMaxPendingEvents(int maxPendingEvents) { this.maxPendingEvents = maxPendingEvents; }
+    }
+
+    public int getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(int slotMinutes) { this.slotMinutes = slotMinutes; }
+
+    public int getDefaultDurationMinutes() { return defaultDurationMinutes; }
+    public void setDefaultDurationMinutes(int defaultDurationMinutes) { this.defaultDurationMinutes = defaultDurationMinutes; }
+
+    public int getLockStripes() { return lockStripes; }
+    public void setLockStripes(int lockStripes) { this.lockStripes = lockStripes; }
+
+    public Availability getAvailability() { return availability; }
+    public void setAvailability(Availability availability) { this.availability = availability; }
+
+    public Reminders getReminders() { return reminders; }
+    public void setReminders(Reminders reminders) { this.reminders = reminders; }
+
+    public Search getSearch() { return search; }
+    public void setSearch(Search search) { this.search = search; }
+
+    public Roster getRoster() { return roster; }
+    public void setRoster(Roster roster) { this.roster = roster; }
+
+    public Series getSeries() { return series; }
+    public void setSeries(Series series) { this.series = series; }
+
+    public Holds getHolds() { return holds; }
+    public void setHolds(Holds holds) { this.holds = holds; }
+
+    public Board getBoard() { return board; }
+    public void setBoard(Board board) { this.board = board; }
+}
@@ -1,6 +1,7 @@
 package com.example.clinicapp.config;
 
 import com.example.clinicapp.service.AuditService;
+import com.example.clinicapp.service.FailedLoginTracker;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -13,13 +14,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * Audit Aspect
  * 
  * Automatically logs all controller method executions for audit trail.
  * Captures method invocations, parameters (sanitized), and execution time.
+ *
+ * Audit metadata (action, resource type, ID / username argument) comes from naming
+ * conventions, resolved once per method into an AuditDescriptor.
  */
 @Aspect
 @Component
@@ -27,9 +34,19 @@ public class AuditAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditAspect.class);
 
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile("password\\s*[:=]\\s*\\S+");
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("token\\s*[:=]\\s*\\S+");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("\\b\\d{10,}\\b"); // Phone numbers
+
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private FailedLoginTracker failedLoginTracker;
+
+    private final Map<Method, AuditDescriptor> resourceDescriptors = new ConcurrentHashMap<>();
+    private final Map<Method, AuditDescriptor> authDescriptors = new ConcurrentHashMap<>();
+
     /**
      * Pointcut for all REST controller methods
      */
@@ -60,32 +77,24 @@ public class AuditAspect {
     @Around("patientControllerMethods() || prescriptionControllerMethods()")
     public Object auditSensitiveOperations(ProceedingJoinPoint joinPoint) throws Throwable {
         long startTime = System.currentTimeMillis();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String resourceType = className.replace("Controller", "").toUpperCase();
-        
-        // Determine action from method name
-        String action = determineAction(methodName);
-        
-        // Extract resource ID if present
-        Long resourceId = extractResourceId(joinPoint.getArgs());
+        AuditDescriptor descriptor = descriptor(resourceDescriptors, joinPoint, AuditDescriptor::forResource);
+        Long resourceId = descriptor.resourceId(joinPoint.getArgs());
         
         try {
             Object result = joinPoint.proceed();
             long duration = System.currentTimeMillis() - startTime;
             
             // Log successful operation
-            String details = String.format("Method: %s, Duration: %dms", methodName, duration);
-            auditService.log(action, resourceType, resourceId, details);
+            auditService.log(descriptor.getAction(), descriptor.getResourceType(), resourceId,
+                descriptor.successDetails(duration));
             
             return result;
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
             
             // Log failed operation
-            String details = String.format("Method: %s, Error: %s, Duration: %dms", 
-                methodName, e.getMessage(), duration);
-            auditService.log(action + "_FAILED", resourceType, resourceId, details);
+            auditService.log(descriptor.getFailedAction(), descriptor.getResourceType(), resourceId,
+                descriptor.failureDetails(e.getMessage(), duration));
             
             throw e;
         }
@@ -96,23 +105,15 @@ public class AuditAspect {
      */
     @Around("authControllerMethods()")
     public Object auditAuthOperations(ProceedingJoinPoint joinPoint) throws Throwable {
-        String methodName = joinPoint.getSignature().getName();
-        String username = extractUsername(joinPoint.getArgs());
-        
-        String action = switch (methodName) {
-            case "login", "loginLegacy" -> "LOGIN";
-            case "logout" -> "LOGOUT";
-            case "register" -> "REGISTER";
-            case "resetPassword" -> "PASSWORD_RESET";
-            default -> "AUTH_" + methodName.toUpperCase();
-        };
+        AuditDescriptor descriptor = descriptor(authDescriptors, joinPoint, AuditDescriptor::forAuth);
+        String username = descriptor.username(joinPoint.getArgs());
         
         try {
             Object result = joinPoint.proceed();
             
             // Log successful auth operation
             if (username != null) {
-                auditService.logAuthEvent(action + "_SUCCESS", username, 
+                auditService.logAuthEvent(descriptor.getSuccessAction(), username, 
                     "Authentication operation successful");
             }
             
@@ -120,8 +121,11 @@ public class AuditAspect {
         } catch (Exception e) {
             // Log failed auth operation
             if (username != null) {
-                auditService.logAuthEvent(action + "_FAILED", username, 
+                auditService.logAuthEvent(descriptor.getFailedAction(), username, 
                     "Error: " + sanitizeErrorMessage(e.getMessage()));
+                if ("LOGIN".equals(descriptor.getAction())) {
+                    failedLoginTracker.recordFailure(username, auditService.getClientIpAddress());
+                }
             }
             
             throw e;
@@ -129,58 +133,13 @@ public class AuditAspect {
     }
 
     /**
-     * Determine action type from method name
-     */
-    private String determineAction(String methodName) {
-        if (methodName.startsWith("get") || methodName.startsWith("find") || 
-            methodName.startsWith("search") || methodName.startsWith("list")) {
-            return "READ";
-        } else if (methodName.startsWith("create") || methodName.startsWith("save") || 
-                   methodName.startsWith("add")) {
-            return "CREATE";
-        } else if (methodName.startsWith("update") || methodName.startsWith("modify") || 
-                   methodName.startsWith("edit")) {
-            return "UPDATE";
-        } else if (methodName.startsWith("delete") || methodName.startsWith("remove")) {
-            return "DELETE";
-        }
-        return "ACCESS";
-    }
-
-    /**
-     * Extract resource ID from method arguments
+     * Cached descriptor of the advised method, resolved on its first call
      */
-    private Long extractResourceId(Object[] args) {
-        for (Object arg : args) {
-            if (arg instanceof Long) {
-                return (Long) arg;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Extract username from login request arguments
-     */
-    private String extractUsername(Object[] args) {
-        for (Object arg : args) {
-            // Check if it's a LoginRequest or similar
-            if (arg != null) {
-                try {
-                    Method getUsername = arg.getClass().getMethod("getUsername");
-                    return (String) getUsername.invoke(arg);
-                } catch (Exception e) {
-                    // Try getEmail if getUsername doesn't exist
-                    try {
-                        Method getEmail = arg.getClass().getMethod("getEmail");
-                        return (String) getEmail.invoke(arg);
-                    } catch (Exception ex) {
-                        // Ignore
-                    }
-                }
-            }
-        }
-        return "unknown";
+    private static AuditDescriptor descriptor(Map<Method, AuditDescriptor> cache, ProceedingJoinPoint joinPoint,
+                                              Function<Method, AuditDescriptor> resolver) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        AuditDescriptor descriptor = cache.get(method);
+        return descriptor != null ? descriptor : cache.computeIfAbsent(method, resolver);
     }
 
     /**
@@ -190,9 +149,8 @@ public class AuditAspect {
         if (message == null) return "Unknown error";
         
         // Remove potential sensitive data patterns
-        return message
-            .replaceAll("password\\s*[:=]\\s*\\S+", "password: [REDACTED]")
-            .replaceAll("token\\s*[:=]\\s*\\S+", "token: [REDACTED]")
-            .replaceAll("\\b\\d{10,}\\b", "[PHONE_REDACTED]"); // Phone numbers
+        String sanitized = PASSWORD_PATTERN.matcher(message).replaceAll("password: [REDACTED]");
+        sanitized = TOKEN_PATTERN.matcher(sanitized).replaceAll("token: [REDACTED]");
+        return PHONE_PATTERN.matcher(sanitized).replaceAll("[PHONE_REDACTED]");
     }
 }
@@ -0,0 +1,143 @@
+package com.example.clinicapp.config;
+
+import com.example.clinicapp.dto.HasUsername;
+
+import java.lang.reflect.Method;
+
+/**
+ * Audit metadata of one controller method, resolved once by AuditAspect and cached by Method.
+ *
+ * Everything that used to be worked out per call (action from the method name, resource type
+ * from the class name, which argument holds the resource ID or username, the details prefix)
+ * is fixed here, so the advice only indexes into the argument array and concatenates.
+ */
+public final class AuditDescriptor {
+
+    private static final String UNKNOWN_USER = "unknown";
+
+    private final String action;
+    private final String failedAction;
+    private final String successAction;
+    private final String resourceType;
+    private final int idArgIndex;
+    private final int usernameArgIndex;
+    private final String successPrefix;
+    private final String failurePrefix;
+
+    private AuditDescriptor(String methodName, String action, String resourceType,
+                            int idArgIndex, int usernameArgIndex) {
+        this.action = action;
+        this.failedAction = action + "_FAILED";
+        this.successAction = action + "_SUCCESS";
+        this.resourceType = resourceType;
+        this.idArgIndex = idArgIndex;
+        this.usernameArgIndex = usernameArgIndex;
+        this.successPrefix = "Method: " + methodName + ", Duration: ";
+        this.failurePrefix = "Method: " + methodName + ", Error: ";
+    }
+
+    /**
+     * Descriptor for a resource operation (patient or prescription)
+     */
+    public static AuditDescriptor forResource(Method method) {
+        String resourceType = method.getDeclaringClass().getSimpleName().replace("Controller", "").toUpperCase();
+        return new AuditDescriptor(method.getName(), actionFromMethodName(method.getName()), resourceType,
+                firstLongParameter(method), -1);
+    }
+
+    /**
+     * Descriptor for an authentication operation
+     */
+    public static AuditDescriptor forAuth(Method method) {
+        String action = switch (method.getName()) {
+            case "login", "loginLegacy" -> "LOGIN";
+            case "logout" -> "LOGOUT";
+            case "register" -> "REGISTER";
+            case "resetPassword" -> "PASSWORD_RESET";
+            default -> "AUTH_" + method.getName().toUpperCase();
+        };
+        int usernameArgIndex = -1;
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (HasUsername.class.isAssignableFrom(types[i])) {
+                usernameArgIndex = i;
+                break;
+            }
+        }
+        return new AuditDescriptor(method.getName(), action, "AUTH", -1, usernameArgIndex);
+    }
+
+    /**
+     * Determine action type from method name
+     */
+    static String actionFromMethodName(String methodName) {
+        if (methodName.startsWith("get") || methodName.startsWith("find") ||
+            methodName.startsWith("search") || methodName.startsWith("list")) {
+            return "READ";
+        } else if (methodName.startsWith("create") || methodName.startsWith("save") ||
+                   methodName.startsWith("add")) {
+            return "CREATE";
+        } else if (methodName.startsWith("update") || methodName.startsWith("modify") ||
+                   methodName.startsWith("edit")) {
+            return "UPDATE";
+        } else if (methodName.startsWith("delete") || methodName.startsWith("remove")) {
+            return "DELETE";
+        }
+        return "ACCESS";
+    }
+
+    private static int firstLongParameter(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Long.class || types[i] == long.class) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getFailedAction() {
+        return failedAction;
+    }
+
+    public String getSuccessAction() {
+        return successAction;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    /**
+     * Resource ID from the resolved argument, or null when the method has none
+     */
+    public Long resourceId(Object[] args) {
+        if (idArgIndex < 0) {
+            return null;
+        }
+        Object value = args[idArgIndex];
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Username from the request body, or "unknown" when the method takes none
+     */
+    public String username(Object[] args) {
+        if (usernameArgIndex < 0 || args[usernameArgIndex] == null) {
+            return UNKNOWN_USER;
+        }
+        return ((HasUsername) args[usernameArgIndex]).getUsername();
+    }
+
+    public String successDetails(long durationMs) {
+        return successPrefix + durationMs + "ms";
+    }
+
+    public String failureDetails(String error, long durationMs) {
+        return failurePrefix + error + ", Duration: " + durationMs + "ms";
+    }
+}
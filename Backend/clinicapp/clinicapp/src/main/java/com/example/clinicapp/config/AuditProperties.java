@@ -0,0 +1,152 @@
+package com.example.clinicapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Period;
+
+/**
+ * Audit pipeline settings (app.audit.*)
+ *
+ * Events are either appended to the local spool first (spool.write-ahead=true) and drained
+ * into audit_logs by the writer thread, or queued in memory and written in batches, with
+ * the spool used only as the SPILL overflow target.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    public enum BackpressurePolicy {
+        BLOCK, // wait up to block-timeout-ms for queue space, then drop
+        DROP,  // drop immediately and count it
+        SPILL  // append to the local spool
+    }
+
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    private long flushIntervalMs = 500;
+    private BackpressurePolicy backpressure = BackpressurePolicy.SPILL;
+    private long blockTimeoutMs = 50;
+    private Spool spool = new Spool();
+    private Retention retention = new Retention();
+    private Query query = new Query();
+
+    public static class Spool {
+        /**
+         * Append every event to the spool before it is written to the database
+         */
+        private boolean writeAhead = false;
+        private String directory;
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+        private int maxSegments = 64;
+
+        public boolean isWriteAhead() { return writeAhead; }
+        public void setWriteAhead(boolean writeAhead) { this.writeAhead = writeAhead; }
+
+        public String getDirectory() { return directory; }
+        public void setDirectory(String directory) { this.directory = directory; }
+
+        /**
+         * Spool directory; defaults to clinicapp-audit-spool under java.io.tmpdir
+         */
+        public Path resolveDirectory() {
+            return directory == null || directory.isBlank()
+                    ? Paths.get(System.getProperty("java.io.tmpdir"), "clinicapp-audit-spool")
+                    : Paths.get(directory);
+        }
+
+        public DataSize getSegmentSize() { return segmentSize; }
+        public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+
+        public int getMaxSegments() { return maxSegments; }
+        public void setMaxSegments(int maxSegments) { this.maxSegments = maxSegments; }
+    }
+
+    public static class Retention {
+
+        public enum PartitionAction {
+            DROP,  // drop expired partitions
+            DETACH // detach them and leave the tables for archiving
+        }
+
+        /**
+         * Purge audit rows older than the retention period
+         */
+        private boolean enabled = false;
+        private Period period = Period.ofYears(6);
+        private PartitionAction partitionAction = PartitionAction.DROP;
+        /**
+         * Monthly partitions kept ahead of the current month
+         */
+        private int premakeMonths = 3;
+        private int chunkSize = 5000;
+        private int maxChunksPerRun = 200;
+        private String cron = "0 30 2 * * *";
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Period getPeriod() { return period; }
+        public void setPeriod(Period period) { this.period = period; }
+
+        public PartitionAction getPartitionAction() { return partitionAction; }
+        public void setPartitionAction(PartitionAction partitionAction) { this.partitionAction = partitionAction; }
+
+        public int getPremakeMonths() { return premakeMonths; }
+        public void setPremakeMonths(int premakeMonths) { this.premakeMonths = premakeMonths; }
+
+        public int getChunkSize() { return chunkSize; }
+        public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+        public int getMaxChunksPerRun() { return maxChunksPerRun; }
+        public void setMaxChunksPerRun(int maxChunksPerRun) { this.maxChunksPerRun = maxChunksPerRun; }
+
+        public String getCron() { return cron; }
+        public void setCron(String cron) { this.cron = cron; }
+    }
+
+    public static class Query {
+        /**
+         * Upper bound on the limit of one /audit/logs page
+         */
+        private int maxPageSize = 500;
+        /**
+         * Rows fetched per round trip while streaming an export; not used on MySQL, where exports
+         * stream row by row
+         */
+        private int exportFetchSize = 500;
+
+        public int getMaxPageSize() { return maxPageSize; }
+        public void setMaxPageSize(int maxPageSize) { this.maxPageSize = maxPageSize; }
+
+        public int getExportFetchSize() { return exportFetchSize; }
+        public void setExportFetchSize(int exportFetchSize) { this.exportFetchSize = exportFetchSize; }
+    }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getFlushIntervalMs() { return flushIntervalMs; }
+    public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+
+    public BackpressurePolicy getBackpressure() { return backpressure; }
+    public void setBackpressure(BackpressurePolicy backpressure) { this.backpressure = backpressure; }
+
+    public long getBlockTimeoutMs() { return blockTimeoutMs; }
+    public void setBlockTimeoutMs(long blockTimeoutMs) { this.blockTimeoutMs = blockTimeoutMs; }
+
+    public Spool getSpool() { return spool; }
+    public void setSpool(Spool spool) { this.spool = spool; }
+
+    public Retention getRetention() { return retention; }
+    public void setRetention(Retention retention) { this.retention = retention; }
+
+    public Query getQuery() { return query; }
+    public void setQuery(Query query) { this.query = query; }
+}
@@ -0,0 +1,56 @@
+package com.example.clinicapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Notification outbox settings (app.notifications.*)
+ *
+ * Appointment changes write their email/SMS into notification_outbox in the same transaction;
+ * the dispatcher claims due rows in batches, sends them, and retries failures with
+ * exponential backoff (initial-backoff doubling up to max-backoff) until max-attempts.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications")
+public class NotificationProperties {
+
+    /**
+     * Rows claimed per dispatcher pass
+     */
+    private int batchSize = 50;
+
+    /**
+     * Claimed rows stay invisible to other dispatchers for this long; a node that dies
+     * mid-batch has its rows picked up again once the lease runs out
+     */
+    private Duration lease = Duration.ofMinutes(5);
+
+    private int maxAttempts = 8;
+    private Duration initialBackoff = Duration.ofSeconds(30);
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /**
+     * Sent rows are purged once older than this
+     */
+    private Duration sentRetention = Duration.ofDays(7);
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public Duration getLease() { return lease; }
+    public void setLease(Duration lease) { this.lease = lease; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public Duration getInitialBackoff() { return initialBackoff; }
+    public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+    public Duration getMaxBackoff() { return maxBackoff; }
+    public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+
+    public Duration getSentRetention() { return sentRetention; }
+    public void setSentRetention(Duration sentRetention) { this.sentRetention = sentRetention; }
+}
@@ -0,0 +1,27 @@
+package com.example.clinicapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * List endpoint paging settings (app.pagination.*)
+ *
+ * /patients, /prescriptions, /invoices, /consults and /appointments/status return
+ * {@link com.example.clinicapp.dto.CursorPage}s; a requested limit is clamped to [1, max-page-size].
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    private int maxPageSize = 200;
+
+    public int getMaxPageSize() { return maxPageSize; }
+    public void setMaxPageSize(int maxPageSize) { this.maxPageSize = maxPageSize; }
+
+    /**
+     * The page size actually served for a requested limit
+     */
+    public int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.clinicapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit policies (app.rate-limit.*)
+ *
+ * Policies are matched in declaration order; the first policy whose path, method and
+ * role constraints match a request is applied. Example:
+ *
+ * app.rate-limit.policies[0].name=patient-search
+ * app.rate-limit.policies[0].path=/patients/search
+ * app.rate-limit.policies[0].methods=POST
+ * app.rate-limit.policies[0].key=USER
+ * app.rate-limit.policies[0].capacity=30
+ * app.rate-limit.policies[0].refill-period=1m
+ *
+ * When no policies are configured the original login policy applies
+ * (POST /auth/login, 5 requests per minute per IP).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    public enum KeyType {
+        IP,   // client IP (X-Forwarded-For aware)
+        USER  // authenticated username, falls back to IP for anonymous requests
+    }
+
+    /**
+     * Upper bound on live buckets; least recently used buckets are evicted beyond it
+     */
+    private int maxBuckets = 10000;
+
+    /**
+     * Buckets idle for longer than this are evicted. Keep it at least as long as the
+     * longest refill period so an evicted bucket would have been full anyway.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private List<Policy> policies = new ArrayList<>();
+
+    public static class Policy {
+        private String name;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private List<String> roles = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        private long capacity;
+        private Long refillTokens;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+
+        public Policy() {}
+
+        public Policy(String name, String path, List<String> methods, KeyType key,
+                      long capacity, Duration refillPeriod) {
+            this.name = name;
+            this.path = path;
+            this.methods = methods;
+            this.key = key;
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public List<String> getRoles() { return roles; }
+        public void setRoles(List<String> roles) { this.roles = roles; }
+
+        public KeyType getKey() { return key; }
+        public void setKey(KeyType key) { this.key = key; }
+
+        public long getCapacity() { return capacity; }
+        public void setCapacity(long capacity) { this.capacity = capacity; }
+
+        /**
+         * Tokens added per refill period; defaults to the capacity
+         */
+        public long getRefillTokens() { return refillTokens != null ? refillTokens : capacity; }
+        public void setRefillTokens(Long refillTokens) { this.refillTokens = refillTokens; }
+
+        public Duration getRefillPeriod() { return refillPeriod; }
+        public void setRefillPeriod(Duration refillPeriod) { this.refillPeriod = refillPeriod; }
+    }
+
+    public int getMaxBuckets() { return maxBuckets; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+
+    public List<Policy> getPolicies() { return policies; }
+    public void setPolicies(List<Policy> policies) { this.policies = policies; }
+
+    /**
+     * Configured policies, or the built-in login policy when none are configured
+     */
+    public List<Policy> getEffectivePolicies() {
+        if (!policies.isEmpty()) {
+            return policies;
+        }
+        return List.of(new Policy("login", "/auth/login", List.of("POST"), KeyType.IP, 5, Duration.ofMinutes(1)));
+    }
+}
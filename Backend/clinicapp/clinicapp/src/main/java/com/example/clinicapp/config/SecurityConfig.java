@@ -3,6 +3,8 @@ package com.example.clinicapp.config;
 import com.example.clinicapp.filter.JwtAuthenticationFilter;
 import com.example.clinicapp.filter.RateLimitFilter;
 import com.example.clinicapp.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -27,6 +29,10 @@ public class SecurityConfig {
     private final RateLimitFilter rateLimitFilter;
     private final CustomUserDetailsService userDetailsService;
 
+    // BCrypt cost factor for new hashes (see app.security.bcrypt.rehash-on-login)
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
                          RateLimitFilter rateLimitFilter,
                          CustomUserDetailsService userDetailsService) {
@@ -37,7 +43,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -90,6 +96,8 @@ public class SecurityConfig {
             )
             
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches finish responses already authorised, e.g. board event streams
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Public endpoints
                 .requestMatchers("/auth/login", "/auth/login/legacy", "/auth/register").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
@@ -99,8 +107,11 @@ public class SecurityConfig {
                 // Admin-only endpoints
                 .requestMatchers(HttpMethod.DELETE, "/patients/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/doctors/**").hasRole("ADMIN")
+                // Slot holds are released by whoever is booking
+                .requestMatchers(HttpMethod.DELETE, "/appointments/holds/**").hasAnyRole("RECEPTIONIST", "DOCTOR", "ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/appointments/**").hasRole("ADMIN")
                 .requestMatchers("/auth/register").hasRole("ADMIN")
+                .requestMatchers("/audit/**").hasRole("ADMIN")
                 
                 // Doctor endpoints
                 .requestMatchers("/prescriptions/create").hasAnyRole("DOCTOR", "ADMIN")
@@ -129,9 +140,9 @@ public class SecurityConfig {
              // All other requests must be authenticated
                 .anyRequest().authenticated()
             )
-            // Add rate limiting filter before JWT filter
-            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            // JWT filter first, then rate limiting so per-user and per-role policies see the caller
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -4,13 +4,22 @@ package com.example.clinicapp.controller;
 
 
 import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.AppointmentSeriesRequest;
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.dto.DoctorDto;
+import com.example.clinicapp.dto.FreeSlot;
+import com.example.clinicapp.dto.SeriesBooking;
+import com.example.clinicapp.dto.SlotHoldDto;
 import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.service.AppointmentBoardStream;
 import com.example.clinicapp.service.AppointmentService;
+import com.example.clinicapp.service.SlotSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,16 +30,44 @@ import jakarta.validation.Valid;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final SlotSearchService slotSearchService;
+    private final AppointmentBoardStream appointmentBoardStream;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, SlotSearchService slotSearchService,
+                                 AppointmentBoardStream appointmentBoardStream) {
         this.appointmentService = appointmentService;
+        this.slotSearchService = slotSearchService;
+        this.appointmentBoardStream = appointmentBoardStream;
     }
 
     @PostMapping("/bookAppointment")
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public Appointment bookAppointment(@Valid @RequestBody Appointment appointment) {
-        return appointmentService.saveAppointment(appointment);
+    public Appointment bookAppointment(@Valid @RequestBody Appointment appointment,
+                                       @RequestParam(value = "holdToken", required = false) String holdToken) {
+        return appointmentService.saveAppointment(appointment, holdToken);
+    }
+
+    // Hold a slot while the booking form is filled in; book with ?holdToken= to confirm it
+    @PostMapping("/holds")
+    @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
+    public SlotHoldDto holdSlot(@RequestParam("time") LocalDateTime time,
+                                @RequestParam(value = "doctorId", required = false) Long doctorId,
+                                @RequestParam(value = "duration", required = false) Integer durationMinutes) {
+        return appointmentService.holdSlot(doctorId, time, durationMinutes);
+    }
+
+    @DeleteMapping("/holds/{token}")
+    @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
+    public void releaseHold(@PathVariable String token) {
+        appointmentService.releaseHold(token);
+    }
+
+    // Recurring series (e.g. weekly physiotherapy), booked in one request and one transaction
+    @PostMapping("/series")
+    @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
+    public SeriesBooking bookSeries(@Valid @RequestBody AppointmentSeriesRequest request) {
+        return appointmentService.bookSeries(request);
     }
 
     
@@ -46,8 +83,20 @@ public class AppointmentController {
     
     @GetMapping("/day")
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public List<AppointmentDto> getAppointmentsForDay(@RequestParam("date") LocalDate date) {
-        return appointmentService.getAppointmentsForDay(date);
+    public List<AppointmentDto> getAppointmentsForDay(@RequestParam("date") LocalDate date,
+                                                      @RequestParam(value = "doctorId", required = false) Long doctorId) {
+        return appointmentService.getAppointmentsForDay(date, doctorId);
+    }
+
+    // Live changes to a day's board as Server-Sent Events, instead of polling /day. Browsers
+    // resume with the Last-Event-ID header; lastEventId does the same for a fresh connection.
+    @GetMapping(value = "/board/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
+    public SseEmitter streamBoard(@RequestParam("date") LocalDate date,
+                                  @RequestParam(value = "doctorId", required = false) Long doctorId,
+                                  @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+                                  @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return appointmentBoardStream.subscribe(date, doctorId, lastEventId != null ? lastEventId : lastEventIdParam);
     }
 
     @PutMapping("/update/{id}")
@@ -64,13 +113,28 @@ public class AppointmentController {
     
     @GetMapping("/availability")
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public boolean checkAvailability(@RequestParam("time") LocalDateTime time) {
-        return appointmentService.isTimeSlotAvailable(time);
+    public boolean checkAvailability(@RequestParam("time") LocalDateTime time,
+                                     @RequestParam(value = "doctorId", required = false) Long doctorId,
+                                     @RequestParam(value = "duration", required = false) Integer durationMinutes) {
+        return appointmentService.isTimeSlotAvailable(doctorId, time, durationMinutes);
+    }
+
+    // Earliest free slots across all doctors, or one specialty, within a date window
+    @GetMapping("/next-free")
+    @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
+    public List<FreeSlot> findNextFreeSlots(@RequestParam(value = "specialty", required = false) String specialty,
+                                            @RequestParam(value = "from", required = false) LocalDate from,
+                                            @RequestParam(value = "to", required = false) LocalDate to,
+                                            @RequestParam(value = "duration", required = false) Integer durationMinutes,
+                                            @RequestParam(defaultValue = "10") int limit) {
+        return slotSearchService.findNextFreeSlots(specialty, from, to, durationMinutes, limit);
     }
 
     @GetMapping("/status")
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public List<Appointment> getAppointmentsByStatus(@RequestParam("status") String status) {
-        return appointmentService.getAppointmentByStatus(status);
+    public CursorPage<AppointmentDto> getAppointmentsByStatus(@RequestParam("status") String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return appointmentService.getAppointmentByStatus(status, cursor, limit);
     }
 }
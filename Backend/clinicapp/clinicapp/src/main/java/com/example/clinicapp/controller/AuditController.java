@@ -0,0 +1,72 @@
+package com.example.clinicapp.controller;
+
+import com.example.clinicapp.dto.AuditLogQuery;
+import com.example.clinicapp.dto.CursorPage;
+import com.example.clinicapp.entity.AuditLog;
+import com.example.clinicapp.service.AuditLogQueryService;
+import com.example.clinicapp.service.AuditLogQueryService.ExportFormat;
+import com.example.clinicapp.service.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+/**
+ * Audit Controller
+ *
+ * Read access to the audit trail for compliance review (admin only).
+ *
+ * Endpoints:
+ * - GET /audit/logs        - Filtered audit rows, newest first, keyset-paginated via cursor
+ * - GET /audit/logs/export - Stream all filtered rows as NDJSON or CSV
+ *
+ * Filters (all optional): username, action, resourceType, resourceId, from, to (ISO date-time)
+ */
+@RestController
+@RequestMapping("/audit")
+public class AuditController {
+
+    @Autowired
+    private AuditLogQueryService auditLogQueryService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @GetMapping("/logs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<AuditLog>> getLogs(
+            @ModelAttribute AuditLogQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<AuditLog> page = auditLogQueryService.findPage(query, cursor, limit);
+        auditService.log("AUDIT_QUERY", "AUDIT_LOG", "Viewed audit logs");
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/logs/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @ModelAttribute AuditLogQuery query,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        auditService.log("AUDIT_EXPORT", "AUDIT_LOG", "Exported audit logs as " + exportFormat);
+
+        StreamingResponseBody body = out -> auditLogQueryService.export(query, exportFormat, out);
+        boolean csv = exportFormat == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"audit-logs." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+}
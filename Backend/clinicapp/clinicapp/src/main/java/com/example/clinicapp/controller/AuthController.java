@@ -171,6 +171,34 @@ public class AuthController {
         return ResponseEntity.ok("Logged out successfully");
     }
 
+    /**
+     * Log out of every session (all devices) for the current user
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<String> logoutAll(HttpServletResponse response) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        authService.revokeAllSessions(authentication.getName(), "LOGOUT_ALL");
+
+        Cookie clearCookie = new Cookie("authToken", "");
+        clearCookie.setHttpOnly(true);
+        clearCookie.setSecure(secureCookie);
+        clearCookie.setPath("/");
+        clearCookie.setMaxAge(0);
+        response.addCookie(clearCookie);
+
+        return ResponseEntity.ok("Logged out of all sessions");
+    }
+
+    /**
+     * Admin: revoke every session of another user (e.g. lost device, suspected compromise)
+     */
+    @PostMapping("/users/{username}/revoke-sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> revokeSessions(@PathVariable String username) {
+        authService.revokeAllSessions(username, "ADMIN_REVOKE");
+        return ResponseEntity.ok("All sessions revoked for user: " + username);
+    }
+
     @PostMapping("/reset-password")
     public ResponseEntity<String> resetPassword(
             @RequestParam String oldPassword,
@@ -195,7 +223,7 @@ public class AuthController {
                 .body("No authentication token found");
         }
 
-        authService.resetPassword(username, oldPassword, newPassword, token);
+        authService.resetPassword(username, oldPassword, newPassword);
         
         // CMS-004: Clear the cookie on password reset (force re-login)
         Cookie clearCookie = new Cookie("authToken", "");
@@ -1,6 +1,8 @@
 package com.example.clinicapp.controller;
 
 import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.CursorPage;
+import com.example.clinicapp.entity.AppointmentStatus;
 import com.example.clinicapp.service.AppointmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -26,12 +28,14 @@ public class ConsultController {
 
     /**
      * Get all completed appointments (consults)
-     * Returns list of appointments with status "Completed"
+     * Returns one page of appointments with status "Completed", most recent first
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public ResponseEntity<List<AppointmentDto>> getAllConsults() {
-        List<AppointmentDto> consults = appointmentService.getCompletedAppointments();
+    public ResponseEntity<CursorPage<AppointmentDto>> getAllConsults(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<AppointmentDto> consults = appointmentService.getCompletedAppointments(cursor, limit);
         return ResponseEntity.ok(consults);
     }
 
@@ -41,8 +45,12 @@ public class ConsultController {
      */
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public ResponseEntity<List<AppointmentDto>> getConsultsByPatientId(@PathVariable Long patientId) {
-        List<AppointmentDto> consults = appointmentService.getCompletedAppointmentsByPatientId(patientId);
+    public ResponseEntity<CursorPage<AppointmentDto>> getConsultsByPatientId(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<AppointmentDto> consults =
+                appointmentService.getCompletedAppointmentsByPatientId(patientId, cursor, limit);
         return ResponseEntity.ok(consults);
     }
 
@@ -55,7 +63,7 @@ public class ConsultController {
         // Reuse existing method and convert to DTO
         var appointment = appointmentService.getAppointmentById(id);
         // Check if it's a completed appointment
-        if (!"completed".equalsIgnoreCase(appointment.getStatus())) {
+        if (appointment.getStatus() != AppointmentStatus.COMPLETED) {
             return ResponseEntity.notFound().build();
         }
         // Convert to DTO manually for single entity
@@ -1,7 +1,6 @@
 package com.example.clinicapp.controller;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -16,8 +15,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.dto.InvoiceDto;
 import com.example.clinicapp.entity.Invoice;
 import com.example.clinicapp.service.InvoiceService;
@@ -59,22 +60,30 @@ public class InvoiceController {
 
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN', 'RECEPTIONIST')")
-    public ResponseEntity<List<Invoice>> getInvoicesByPatient(@PathVariable Long patientId) {
-        List<Invoice> invoices = invoiceService.getInvoicesByPatientId(patientId);
+    public ResponseEntity<CursorPage<Invoice>> getInvoicesByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<Invoice> invoices = invoiceService.getInvoicesByPatientId(patientId, cursor, limit);
         return ResponseEntity.ok(invoices);
     }
 
     @GetMapping("/doctor/{doctorId}")
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
-    public ResponseEntity<List<Invoice>> getInvoicesByDoctor(@PathVariable Long doctorId) {
-        List<Invoice> invoices = invoiceService.getInvoicesByDoctorId(doctorId);
+    public ResponseEntity<CursorPage<Invoice>> getInvoicesByDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<Invoice> invoices = invoiceService.getInvoicesByDoctorId(doctorId, cursor, limit);
         return ResponseEntity.ok(invoices);
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
-    public ResponseEntity<List<Invoice>> getAllInvoices() {
-        List<Invoice> invoices = invoiceService.getAllInvoices();
+    public ResponseEntity<CursorPage<Invoice>> getAllInvoices(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<Invoice> invoices = invoiceService.getAllInvoices(cursor, limit);
         return ResponseEntity.ok(invoices);
     }
 
@@ -1,5 +1,6 @@
 package com.example.clinicapp.controller;
 
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.dto.PatientSearchRequest;
 import com.example.clinicapp.entity.Patient;
 import com.example.clinicapp.service.PatientService;
@@ -9,7 +10,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -24,8 +24,10 @@ public class PatientController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
-    public List<Patient> getAllPatients() {
-        return patientService.getAllPatients();
+    public CursorPage<Patient> getAllPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return patientService.getPatients(cursor, limit);
     }
 
     @GetMapping("/{id}")
@@ -1,7 +1,6 @@
 package com.example.clinicapp.controller;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
@@ -15,8 +14,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.dto.PrescriptionDto;
 import com.example.clinicapp.entity.Prescription;
 import com.example.clinicapp.service.PrescriptionService;
@@ -61,15 +62,21 @@ public class PrescriptionController {
 
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('DOCTOR', 'RECEPTIONIST', 'ADMIN')")
-    public ResponseEntity<List<Prescription>> getPrescriptionsByPatient(@PathVariable Long patientId) {
-        List<Prescription> prescriptions = prescriptionService.getPrescriptionsByPatientId(patientId);
+    public ResponseEntity<CursorPage<Prescription>> getPrescriptionsByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<Prescription> prescriptions = prescriptionService.getPrescriptionsByPatientId(patientId, cursor, limit);
         return ResponseEntity.ok(prescriptions);
     }
 
     @GetMapping("/doctor/{doctorId}")
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
-    public ResponseEntity<List<Prescription>> getPrescriptionsByDoctor(@PathVariable Long doctorId) {
-        List<Prescription> prescriptions = prescriptionService.getPrescriptionsByDoctorId(doctorId);
+    public ResponseEntity<CursorPage<Prescription>> getPrescriptionsByDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<Prescription> prescriptions = prescriptionService.getPrescriptionsByDoctorId(doctorId, cursor, limit);
         return ResponseEntity.ok(prescriptions);
     }
 
@@ -91,8 +98,10 @@ public class PrescriptionController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
-    public ResponseEntity<List<Prescription>> getAllPrescriptions() {
-        List<Prescription> prescriptions = prescriptionService.getAllPrescriptions();
+    public ResponseEntity<CursorPage<Prescription>> getAllPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<Prescription> prescriptions = prescriptionService.getAllPrescriptions(cursor, limit);
         return ResponseEntity.ok(prescriptions);
     }
 }
\ No newline at end of file
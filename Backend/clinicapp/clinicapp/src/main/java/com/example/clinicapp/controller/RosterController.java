@@ -0,0 +1,54 @@
+package com.example.clinicapp.controller;
+
+import com.example.clinicapp.dto.RosterDto;
+import com.example.clinicapp.service.RosterService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/doctors/{doctorId}/roster")
+public class RosterController {
+
+    private final RosterService rosterService;
+
+    public RosterController(RosterService rosterService) {
+        this.rosterService = rosterService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('RECEPTIONIST', 'DOCTOR', 'ADMIN')")
+    public RosterDto getRoster(@PathVariable Long doctorId) {
+        return rosterService.getRoster(doctorId);
+    }
+
+    // Replace slot length, working hours and breaks
+    @PutMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public RosterDto updateRoster(@PathVariable Long doctorId, @RequestBody RosterDto rosterDto) {
+        return rosterService.updateRoster(doctorId, rosterDto);
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteRoster(@PathVariable Long doctorId) {
+        rosterService.deleteRoster(doctorId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/leave")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RosterDto addLeave(@PathVariable Long doctorId,
+                              @RequestParam("date") LocalDate date,
+                              @RequestParam(value = "reason", required = false) String reason) {
+        return rosterService.addLeave(doctorId, date, reason);
+    }
+
+    @DeleteMapping("/leave/{date}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RosterDto removeLeave(@PathVariable Long doctorId, @PathVariable LocalDate date) {
+        return rosterService.removeLeave(doctorId, date);
+    }
+}
@@ -2,12 +2,14 @@ package com.example.clinicapp.dto;
 
 import java.time.LocalDateTime;
 
+import com.example.clinicapp.entity.AppointmentStatus;
+
 public class AppointmentDto {
 
     private Long id;
     private String patientName;
     private String patientEmail;
-    private String status;
+    private AppointmentStatus status;
     private String details;
     private LocalDateTime appointmentTime;
 
@@ -30,7 +32,7 @@ public class AppointmentDto {
     // Constructors
     public AppointmentDto() {}
 
-    public AppointmentDto(Long id, String patientName, String patientEmail, String status,
+    public AppointmentDto(Long id, String patientName, String patientEmail, AppointmentStatus status,
                          String details, LocalDateTime appointmentTime,
                          Long patientId, Integer patientAge, String patientGender, String patientPhone,
                          Long doctorId, String doctorName, String doctorSpecialty,
@@ -78,11 +80,11 @@ public class AppointmentDto {
         this.patientEmail = patientEmail;
     }
 
-    public String getStatus() {
+    public AppointmentStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(AppointmentStatus status) {
         this.status = status;
     }
 
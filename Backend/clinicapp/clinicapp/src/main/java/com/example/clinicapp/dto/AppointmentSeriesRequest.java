@@ -0,0 +1,63 @@
+package com.example.clinicapp.dto;
+
+import com.example.clinicapp.config.AppointmentProperties.Series.OnConflict;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentSeries.Frequency;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * A recurring series to book: the first appointment, repeated every interval days or weeks
+ * until count occurrences or the until date, whichever comes first. Weekly series repeat on
+ * daysOfWeek (the first appointment's day when empty), at the first appointment's time.
+ */
+public class AppointmentSeriesRequest {
+
+    @Valid
+    @NotNull(message = "The first appointment is mandatory")
+    private Appointment appointment;
+
+    @NotNull(message = "Frequency is mandatory")
+    private Frequency frequency;
+
+    @Min(value = 1, message = "Interval must be at least 1")
+    private Integer interval = 1;
+
+    @Min(value = 1, message = "Count must be at least 1")
+    private Integer count;
+
+    private LocalDate until;
+
+    private Set<DayOfWeek> daysOfWeek;
+
+    // Null means the configured default (app.appointments.series.on-conflict)
+    private OnConflict onConflict;
+
+    public AppointmentSeriesRequest() {}
+
+    public Appointment getAppointment() { return appointment; }
+    public void setAppointment(Appointment appointment) { this.appointment = appointment; }
+
+    public Frequency getFrequency() { return frequency; }
+    public void setFrequency(Frequency frequency) { this.frequency = frequency; }
+
+    public Integer getInterval() { return interval; }
+    public void setInterval(Integer interval) { this.interval = interval; }
+
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+
+    public LocalDate getUntil() { return until; }
+    public void setUntil(LocalDate until) { this.until = until; }
+
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+
+    public OnConflict getOnConflict() { return onConflict; }
+    public void setOnConflict(OnConflict onConflict) { this.onConflict = onConflict; }
+}
@@ -0,0 +1,20 @@
+package com.example.clinicapp.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A change to one day's appointment board, pushed to the screens showing that day.
+ * REMOVED: the appointment left the day or doctor (cancelled or moved). RESYNC: the events
+ * since the screen's Last-Event-ID are no longer held, so it should reload the day.
+ */
+public record BoardEvent(long id, Type type, LocalDate date, Long doctorId, Long appointmentId,
+                         AppointmentDto appointment, Long prescriptionId) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        REMOVED,
+        PRESCRIPTION,
+        RESYNC
+    }
+}
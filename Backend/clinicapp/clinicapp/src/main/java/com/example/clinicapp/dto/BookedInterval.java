@@ -0,0 +1,13 @@
+package com.example.clinicapp.dto;
+
+import com.example.clinicapp.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of an appointment the slot index needs to mark a doctor's schedule, read by a
+ * projection query
+ */
+public record BookedInterval(Long doctorId, LocalDateTime start, Integer durationMinutes,
+                             AppointmentStatus status) {
+}
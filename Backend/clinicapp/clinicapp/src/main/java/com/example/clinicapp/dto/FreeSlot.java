@@ -0,0 +1,10 @@
+package com.example.clinicapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bookable [start, end) range on one doctor's schedule, as returned by the next-free-slot search
+ */
+public record FreeSlot(Long doctorId, String doctorName, String specialty,
+                       LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,10 @@
+package com.example.clinicapp.dto;
+
+/**
+ * Request bodies that name the account they act on; AuditAspect reads the username
+ * through this interface instead of looking up getters reflectively.
+ */
+public interface HasUsername {
+
+    String getUsername();
+}
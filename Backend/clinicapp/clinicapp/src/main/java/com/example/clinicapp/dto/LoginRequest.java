@@ -2,7 +2,7 @@ package com.example.clinicapp.dto;
 
 import jakarta.validation.constraints.NotBlank;
 
-public class LoginRequest {
+public class LoginRequest implements HasUsername {
     
     @NotBlank(message = "Username is required")
     private String username;
@@ -1,5 +1,7 @@
 package com.example.clinicapp.dto;
 
+import com.example.clinicapp.entity.PrescriptionStatus;
+
 import java.util.List;
 
 public class PrescriptionDto {
@@ -29,6 +31,9 @@ public class PrescriptionDto {
     // Referred To
     private List<ReferralDto> referredTo; // Added
 
+    // Lifecycle status; left unchanged when null
+    private PrescriptionStatus status;
+
     // Default constructor
     public PrescriptionDto() {}
 
@@ -161,6 +166,14 @@ public class PrescriptionDto {
     public void setReferredTo(List<ReferralDto> referredTo) {
         this.referredTo = referredTo;
     }
+
+    public PrescriptionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PrescriptionStatus status) {
+        this.status = status;
+    }
     
     public Long getAppointmentId() {
         return appointmentId;
@@ -4,7 +4,7 @@ import jakarta.validation.constraints.*;
 import java.util.HashSet;
 import java.util.Set;
 
-public class RegisterRequest {
+public class RegisterRequest implements HasUsername {
     
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
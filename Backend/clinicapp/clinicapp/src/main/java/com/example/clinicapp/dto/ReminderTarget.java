@@ -0,0 +1,12 @@
+package com.example.clinicapp.dto;
+
+import com.example.clinicapp.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of an appointment the reminder engine needs, read by a projection query
+ */
+public record ReminderTarget(Long appointmentId, LocalDateTime appointmentTime,
+                             AppointmentStatus status, String patientEmail) {
+}
@@ -0,0 +1,63 @@
+package com.example.clinicapp.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A doctor's roster: slot length, weekly working hours and breaks, and upcoming leave days.
+ * Leave days are read-only here; they are added and removed through the leave endpoints.
+ */
+public class RosterDto {
+
+    private Long doctorId;
+    private Integer slotMinutes;
+    private List<Hours> workingHours = new ArrayList<>();
+    private List<Hours> breaks = new ArrayList<>();
+    private List<LocalDate> leaveDays = new ArrayList<>();
+
+    /**
+     * A weekly [start, end) period on one day of the week
+     */
+    public static class Hours {
+        private DayOfWeek dayOfWeek;
+        private LocalTime start;
+        private LocalTime end;
+
+        public Hours() {}
+
+        public Hours(DayOfWeek dayOfWeek, LocalTime start, LocalTime end) {
+            this.dayOfWeek = dayOfWeek;
+            this.start = start;
+            this.end = end;
+        }
+
+        public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+        public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
+        public LocalTime getStart() { return start; }
+        public void setStart(LocalTime start) { this.start = start; }
+
+        public LocalTime getEnd() { return end; }
+        public void setEnd(LocalTime end) { this.end = end; }
+    }
+
+    public RosterDto() {}
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public Integer getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
+
+    public List<Hours> getWorkingHours() { return workingHours; }
+    public void setWorkingHours(List<Hours> workingHours) { this.workingHours = workingHours; }
+
+    public List<Hours> getBreaks() { return breaks; }
+    public void setBreaks(List<Hours> breaks) { this.breaks = breaks; }
+
+    public List<LocalDate> getLeaveDays() { return leaveDays; }
+    public void setLeaveDays(List<LocalDate> leaveDays) { this.leaveDays = leaveDays; }
+}
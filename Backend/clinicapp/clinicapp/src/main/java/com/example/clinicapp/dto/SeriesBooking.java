@@ -0,0 +1,13 @@
+package com.example.clinicapp.dto;
+
+import com.example.clinicapp.entity.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The outcome of booking a recurring series: the occurrences booked, and those skipped because
+ * they were taken or outside the doctor's roster
+ */
+public record SeriesBooking(Long seriesId, List<Appointment> booked, List<LocalDateTime> skipped) {
+}
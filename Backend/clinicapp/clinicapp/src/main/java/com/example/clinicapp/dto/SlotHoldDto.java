@@ -0,0 +1,10 @@
+package com.example.clinicapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A slot hold handed to the client: pass the token when booking the held slot, or release it
+ */
+public record SlotHoldDto(String token, Long doctorId, LocalDateTime start, LocalDateTime end,
+                          LocalDateTime expiresAt) {
+}
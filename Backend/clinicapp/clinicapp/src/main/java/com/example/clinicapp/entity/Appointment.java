@@ -4,10 +4,14 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -15,6 +19,8 @@ import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -22,7 +28,11 @@ import jakarta.validation.constraints.Size;
 
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_doctor_time", columnList = "doctor_id, appointmentTime"),
+    @Index(name = "idx_appointments_status_time", columnList = "status, appointmentTime DESC"),
+    @Index(name = "idx_appointments_patient_status_time", columnList = "patient_id, status, appointmentTime DESC")
+})
 public class Appointment {
 
     @Id
@@ -50,8 +60,15 @@ public class Appointment {
     @Future(message = "Appointment time must be in the future")
     private LocalDateTime appointmentTime;
 
-    @NotBlank(message = "Status is mandatory")
-    private String status;
+    // Null means the configured default (app.appointments.default-duration-minutes)
+    @Min(value = 1, message = "Duration must be at least 1 minute")
+    @Max(value = 480, message = "Duration must not exceed 480 minutes")
+    private Integer durationMinutes;
+
+    @NotNull(message = "Status is mandatory")
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private AppointmentStatus status;
 
     @Size(max = 500, message = "Details must not exceed 500 characters")
     private String details;
@@ -59,6 +76,10 @@ public class Appointment {
     @Email(message = "Email should be valid") 
     private String patientEmail;
 
+    // Set on occurrences of a recurring series (AppointmentSeries)
+    @Column(name = "series_id")
+    private Long seriesId;
+
 
     public Appointment() {}
 
@@ -66,7 +87,7 @@ public class Appointment {
 		String patientName,
 			Doctor doctor, Patient patient, Prescription prescription,
 			LocalDateTime appointmentTime,
-			String status,
+			AppointmentStatus status,
 			String details,
 			String patientEmail) {
 		
@@ -131,11 +152,19 @@ public class Appointment {
 		this.appointmentTime = appointmentTime;
 	}
 
-	public String getStatus() {
+	public Integer getDurationMinutes() {
+		return durationMinutes;
+	}
+
+	public void setDurationMinutes(Integer durationMinutes) {
+		this.durationMinutes = durationMinutes;
+	}
+
+	public AppointmentStatus getStatus() {
 		return status;
 	}
 
-	public void setStatus(String status) {
+	public void setStatus(AppointmentStatus status) {
 		this.status = status;
 	}
 
@@ -155,6 +184,14 @@ public class Appointment {
 		this.patientEmail = patientEmail;
 	}
 
+	public Long getSeriesId() {
+		return seriesId;
+	}
+
+	public void setSeriesId(Long seriesId) {
+		this.seriesId = seriesId;
+	}
+
 	
 
 }
@@ -0,0 +1,61 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Claim for one reminder of one appointment.
+ *
+ * The node that fires a reminder inserts this row in the same transaction as the
+ * notification it queues; the unique (appointment_id, offset_minutes, appointment_time)
+ * constraint makes that claim exclusive across nodes. The appointment time is part of the
+ * key so a rescheduled appointment is reminded again for its new time.
+ */
+@Entity
+@Table(name = "appointment_reminders", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_appointment_reminders_claim",
+            columnNames = {"appointment_id", "offset_minutes", "appointment_time"})
+})
+public class AppointmentReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "offset_minutes", nullable = false)
+    private Integer offsetMinutes;
+
+    @Column(name = "appointment_time", nullable = false)
+    private LocalDateTime appointmentTime;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    public AppointmentReminder() {}
+
+    public AppointmentReminder(Long appointmentId, Integer offsetMinutes, LocalDateTime appointmentTime,
+                               LocalDateTime sentAt) {
+        this.appointmentId = appointmentId;
+        this.offsetMinutes = offsetMinutes;
+        this.appointmentTime = appointmentTime;
+        this.sentAt = sentAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+
+    public Integer getOffsetMinutes() { return offsetMinutes; }
+    public void setOffsetMinutes(Integer offsetMinutes) { this.offsetMinutes = offsetMinutes; }
+
+    public LocalDateTime getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(LocalDateTime appointmentTime) { this.appointmentTime = appointmentTime; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+}
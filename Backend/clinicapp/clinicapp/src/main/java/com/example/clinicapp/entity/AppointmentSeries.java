@@ -0,0 +1,76 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A recurring series of appointments booked in one request; each occurrence is an ordinary
+ * {@link Appointment} carrying the series id
+ */
+@Entity
+@Table(name = "appointment_series")
+public class AppointmentSeries {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Frequency frequency;
+
+    // Every n days or weeks
+    @Column(name = "repeat_interval", nullable = false)
+    private Integer repeatInterval;
+
+    @Column(name = "first_occurrence", nullable = false)
+    private LocalDateTime firstOccurrence;
+
+    // Occurrences actually booked, after any skipped for conflicts
+    @Column(name = "occurrence_count", nullable = false)
+    private Integer occurrenceCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public AppointmentSeries() {}
+
+    public AppointmentSeries(Long doctorId, Frequency frequency, Integer repeatInterval,
+                             LocalDateTime firstOccurrence, Integer occurrenceCount) {
+        this.doctorId = doctorId;
+        this.frequency = frequency;
+        this.repeatInterval = repeatInterval;
+        this.firstOccurrence = firstOccurrence;
+        this.occurrenceCount = occurrenceCount;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public Frequency getFrequency() { return frequency; }
+    public void setFrequency(Frequency frequency) { this.frequency = frequency; }
+
+    public Integer getRepeatInterval() { return repeatInterval; }
+    public void setRepeatInterval(Integer repeatInterval) { this.repeatInterval = repeatInterval; }
+
+    public LocalDateTime getFirstOccurrence() { return firstOccurrence; }
+    public void setFirstOccurrence(LocalDateTime firstOccurrence) { this.firstOccurrence = firstOccurrence; }
+
+    public Integer getOccurrenceCount() { return occurrenceCount; }
+    public void setOccurrenceCount(Integer occurrenceCount) { this.occurrenceCount = occurrenceCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,55 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One slot claimed by an appointment on a doctor's schedule.
+ *
+ * An appointment inserts one row per slot it covers in the same transaction as the
+ * appointment itself; the unique (doctor_id, slot_start) constraint is the final arbiter
+ * against double bookings across nodes. Appointments without a doctor use doctor_id 0.
+ */
+@Entity
+@Table(name = "appointment_slots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_appointment_slots_doctor_slot", columnNames = {"doctor_id", "slot_start"})
+}, indexes = {
+    @Index(name = "idx_appointment_slots_appointment", columnList = "appointment_id")
+})
+public class AppointmentSlot {
+
+    public static final long UNASSIGNED_DOCTOR = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    public AppointmentSlot() {}
+
+    public AppointmentSlot(Long doctorId, LocalDateTime slotStart, Long appointmentId) {
+        this.doctorId = doctorId != null ? doctorId : UNASSIGNED_DOCTOR;
+        this.slotStart = slotStart;
+        this.appointmentId = appointmentId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public LocalDateTime getSlotStart() { return slotStart; }
+    public void setSlotStart(LocalDateTime slotStart) { this.slotStart = slotStart; }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+}
@@ -0,0 +1,91 @@
+package com.example.clinicapp.entity;
+
+import com.example.clinicapp.exception.InvalidStatusTransitionException;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Appointment lifecycle, stored by name and exchanged in JSON by label ("Booked", ...).
+ *
+ * PENDING <-> BOOKED -> COMPLETED; PENDING and BOOKED may be CANCELLED.
+ * COMPLETED and CANCELLED are final.
+ */
+public enum AppointmentStatus {
+    PENDING("Pending"),
+    BOOKED("Booked"),
+    COMPLETED("Completed"),
+    CANCELLED("Cancelled");
+
+    private static final Map<AppointmentStatus, Set<AppointmentStatus>> TRANSITIONS = new EnumMap<>(AppointmentStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(BOOKED, COMPLETED, CANCELLED));
+        TRANSITIONS.put(BOOKED, EnumSet.of(PENDING, COMPLETED, CANCELLED));
+        TRANSITIONS.put(COMPLETED, EnumSet.noneOf(AppointmentStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(AppointmentStatus.class));
+    }
+
+    private final String label;
+
+    AppointmentStatus(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Whether the appointment occupies its slots on the doctor's schedule
+     */
+    public boolean holdsSlot() {
+        return this != CANCELLED;
+    }
+
+    public boolean canTransitionTo(AppointmentStatus target) {
+        return this == target || TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * The target status, or InvalidStatusTransitionException when it is not reachable from this one
+     */
+    public AppointmentStatus transitionTo(AppointmentStatus target) {
+        if (!canTransitionTo(target)) {
+            throw new InvalidStatusTransitionException("Appointment", this, target);
+        }
+        return target;
+    }
+
+    /**
+     * Parse a label or name, case-insensitively; legacy "Confirmed"/"Scheduled" mean BOOKED
+     */
+    @JsonCreator
+    public static AppointmentStatus from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+        switch (normalized) {
+            case "CONFIRMED", "SCHEDULED" -> {
+                return BOOKED;
+            }
+            case "CANCELED" -> {
+                return CANCELLED;
+            }
+            default -> {
+                try {
+                    return valueOf(normalized);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown appointment status: " + value);
+                }
+            }
+        }
+    }
+}
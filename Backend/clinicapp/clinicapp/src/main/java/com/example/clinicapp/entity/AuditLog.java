@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
     @Index(name = "idx_audit_username", columnList = "username"),
     @Index(name = "idx_audit_timestamp", columnList = "timestamp"),
     @Index(name = "idx_audit_action", columnList = "action"),
-    @Index(name = "idx_audit_resource", columnList = "resourceType, resourceId")
+    @Index(name = "idx_audit_resource", columnList = "resourceType, resourceId"),
+    // Keyset pagination on (timestamp, id), alone or after a user filter
+    @Index(name = "idx_audit_timestamp_id", columnList = "timestamp, id"),
+    @Index(name = "idx_audit_username_timestamp", columnList = "username, timestamp, id")
 })
 public class AuditLog {
 
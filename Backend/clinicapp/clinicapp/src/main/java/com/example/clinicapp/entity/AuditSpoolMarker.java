@@ -0,0 +1,45 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Replay marker for an audit spool.
+ *
+ * Updated in the same transaction as the audit_logs rows drained from the spool, so after
+ * a crash the drainer resumes exactly where the last committed batch ended: no audit
+ * record is lost or inserted twice. One row per spool directory (identified by its id file).
+ * Written with plain JDBC by AuditWriter; mapped here so the table is created with the schema.
+ */
+@Entity
+@Table(name = "audit_spool_markers")
+public class AuditSpoolMarker {
+
+    @Id
+    @Column(name = "spool_id", length = 36)
+    private String spoolId;
+
+    @Column(name = "segment_number", nullable = false)
+    private Long segmentNumber;
+
+    @Column(name = "segment_offset", nullable = false)
+    private Long segmentOffset;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public AuditSpoolMarker() {}
+
+    // Getters and Setters
+    public String getSpoolId() { return spoolId; }
+    public void setSpoolId(String spoolId) { this.spoolId = spoolId; }
+
+    public Long getSegmentNumber() { return segmentNumber; }
+    public void setSegmentNumber(Long segmentNumber) { this.segmentNumber = segmentNumber; }
+
+    public Long getSegmentOffset() { return segmentOffset; }
+    public void setSegmentOffset(Long segmentOffset) { this.segmentOffset = segmentOffset; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
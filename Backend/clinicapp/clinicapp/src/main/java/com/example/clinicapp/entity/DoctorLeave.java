@@ -0,0 +1,46 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * A whole day a rostered doctor does not work
+ */
+@Entity
+@Table(name = "doctor_leaves", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_doctor_leaves_doctor_date", columnNames = {"doctor_id", "leave_date"})
+})
+public class DoctorLeave {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "leave_date", nullable = false)
+    private LocalDate leaveDate;
+
+    private String reason;
+
+    public DoctorLeave() {}
+
+    public DoctorLeave(Long doctorId, LocalDate leaveDate, String reason) {
+        this.doctorId = doctorId;
+        this.leaveDate = leaveDate;
+        this.reason = reason;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public LocalDate getLeaveDate() { return leaveDate; }
+    public void setLeaveDate(LocalDate leaveDate) { this.leaveDate = leaveDate; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,54 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A doctor's roster header: the bookable slot length and a version bumped on every change to
+ * the doctor's weekly hours or leave, which tells every node's {@link com.example.clinicapp.service.RosterCalendar}
+ * to regenerate that doctor's calendar. Doctors without a roster are not restricted.
+ */
+@Entity
+@Table(name = "doctor_rosters", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_doctor_rosters_doctor", columnNames = {"doctor_id"})
+})
+public class DoctorRoster {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    // Appointments start on multiples of this many minutes
+    @Column(name = "slot_minutes", nullable = false)
+    private Integer slotMinutes;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    public DoctorRoster() {}
+
+    public DoctorRoster(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public Integer getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
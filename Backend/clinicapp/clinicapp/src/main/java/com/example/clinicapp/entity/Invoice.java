@@ -8,9 +8,12 @@ import java.util.List;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -19,7 +22,11 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_status_date", columnList = "status, invoiceDate DESC"),
+    @Index(name = "idx_invoices_patient_id", columnList = "patient_id, id DESC"),
+    @Index(name = "idx_invoices_doctor_id", columnList = "doctor_id, id DESC")
+})
 public class Invoice {
 
     @Id
@@ -62,7 +69,9 @@ public class Invoice {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    private String status = "GENERATED";
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private InvoiceStatus status = InvoiceStatus.GENERATED;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -170,11 +179,11 @@ public class Invoice {
         this.notes = notes;
     }
 
-    public String getStatus() {
+    public InvoiceStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(InvoiceStatus status) {
         this.status = status;
     }
 
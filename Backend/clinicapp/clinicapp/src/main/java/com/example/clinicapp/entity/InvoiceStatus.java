@@ -0,0 +1,22 @@
+package com.example.clinicapp.entity;
+
+import com.example.clinicapp.exception.InvalidStatusTransitionException;
+
+/**
+ * Invoice lifecycle: GENERATED -> VOID (soft delete). VOID is final.
+ */
+public enum InvoiceStatus {
+    GENERATED,
+    VOID;
+
+    public boolean canTransitionTo(InvoiceStatus target) {
+        return this == target || (this == GENERATED && target == VOID);
+    }
+
+    public InvoiceStatus transitionTo(InvoiceStatus target) {
+        if (!canTransitionTo(target)) {
+            throw new InvalidStatusTransitionException("Invoice", this, target);
+        }
+        return target;
+    }
+}
@@ -8,9 +8,12 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -20,7 +23,11 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+    @Index(name = "idx_prescriptions_status_issued", columnList = "status, issuedAt DESC"),
+    @Index(name = "idx_prescriptions_patient_id", columnList = "patient_id, id DESC"),
+    @Index(name = "idx_prescriptions_doctor_id", columnList = "doctor_id, id DESC")
+})
 public class Prescription {
 
     @Id
@@ -43,7 +50,9 @@ public class Prescription {
     
     private LocalDateTime issuedAt;
     private LocalDateTime lastUpdated; 
-    private String status = "DRAFT"; 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private PrescriptionStatus status = PrescriptionStatus.DRAFT;
 
     // === VITALS (Embedded as individual columns) ===
     private String temperature;
@@ -144,11 +153,11 @@ public class Prescription {
         this.lastUpdated = lastUpdated;
     }
 
-    public String getStatus() {
+    public PrescriptionStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(PrescriptionStatus status) {
         this.status = status;
     }
     
@@ -0,0 +1,36 @@
+package com.example.clinicapp.entity;
+
+import com.example.clinicapp.exception.InvalidStatusTransitionException;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prescription lifecycle: DRAFT -> FINALIZED, and either may be CANCELLED. CANCELLED is final.
+ */
+public enum PrescriptionStatus {
+    DRAFT,
+    FINALIZED,
+    CANCELLED;
+
+    private static final Map<PrescriptionStatus, Set<PrescriptionStatus>> TRANSITIONS = new EnumMap<>(PrescriptionStatus.class);
+
+    static {
+        TRANSITIONS.put(DRAFT, EnumSet.of(FINALIZED, CANCELLED));
+        TRANSITIONS.put(FINALIZED, EnumSet.of(CANCELLED));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(PrescriptionStatus.class));
+    }
+
+    public boolean canTransitionTo(PrescriptionStatus target) {
+        return this == target || TRANSITIONS.get(this).contains(target);
+    }
+
+    public PrescriptionStatus transitionTo(PrescriptionStatus target) {
+        if (!canTransitionTo(target)) {
+            throw new InvalidStatusTransitionException("Prescription", this, target);
+        }
+        return target;
+    }
+}
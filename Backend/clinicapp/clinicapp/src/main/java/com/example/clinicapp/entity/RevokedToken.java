@@ -3,9 +3,13 @@ package com.example.clinicapp.entity;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+/**
+ * A revoked JWT, stored as the hex SHA-256 of the token (see {@link com.example.clinicapp.util.TokenHashUtil})
+ * and kept only until the token's own expiry.
+ */
 @Entity
 @Table(name = "revoked_tokens", indexes = {
-    @Index(name = "idx_token", columnList = "token")
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
 })
 public class RevokedToken {
     
@@ -13,8 +17,8 @@ public class RevokedToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(unique = true, nullable = false, length = 500)
-    private String token;
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
     
     @Column(nullable = false)
     private LocalDateTime revokedAt;
@@ -31,8 +35,8 @@ public class RevokedToken {
     // Constructors
     public RevokedToken() {}
     
-    public RevokedToken(String token, LocalDateTime expiresAt, String username, String reason) {
-        this.token = token;
+    public RevokedToken(String tokenHash, LocalDateTime expiresAt, String username, String reason) {
+        this.tokenHash = tokenHash;
         this.revokedAt = LocalDateTime.now();
         this.expiresAt = expiresAt;
         this.username = username;
@@ -43,8 +47,8 @@ public class RevokedToken {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
-    public String getToken() { return token; }
-    public void setToken(String token) { this.token = token; }
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
     
     public LocalDateTime getRevokedAt() { return revokedAt; }
     public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
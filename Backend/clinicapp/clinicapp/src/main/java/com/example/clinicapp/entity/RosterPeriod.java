@@ -0,0 +1,70 @@
+package com.example.clinicapp.entity;
+
+import jakarta.persistence.*;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * One weekly [startTime, endTime) period of a doctor's roster: working hours, or a break
+ * carved out of them
+ */
+@Entity
+@Table(name = "roster_periods", indexes = {
+    @Index(name = "idx_roster_periods_doctor", columnList = "doctor_id")
+})
+public class RosterPeriod {
+
+    public enum Kind {
+        WORK,
+        BREAK
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 9)
+    private DayOfWeek dayOfWeek;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 5)
+    private Kind kind;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    public RosterPeriod() {}
+
+    public RosterPeriod(Long doctorId, DayOfWeek dayOfWeek, Kind kind, LocalTime startTime, LocalTime endTime) {
+        this.doctorId = doctorId;
+        this.dayOfWeek = dayOfWeek;
+        this.kind = kind;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+}
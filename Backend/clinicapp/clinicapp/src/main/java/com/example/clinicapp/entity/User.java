@@ -9,6 +9,7 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 public class User {
     
     @Id
@@ -47,6 +48,10 @@ public class User {
     @Column(name = "account_enabled")
     private Boolean accountEnabled = true;
     
+    // Embedded in issued tokens; bumping it invalidates every session of the user
+    @Column(name = "token_epoch")
+    private Long tokenEpoch = 0L;
+    
     // Constructors
     public User() {}
     
@@ -85,4 +90,7 @@ public class User {
     
     public Boolean getAccountEnabled() { return accountEnabled; }
     public void setAccountEnabled(Boolean accountEnabled) { this.accountEnabled = accountEnabled; }
+    
+    public Long getTokenEpoch() { return tokenEpoch; }
+    public void setTokenEpoch(Long tokenEpoch) { this.tokenEpoch = tokenEpoch; }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.clinicapp.entity;
+
+import com.example.clinicapp.service.UserSecurityStateCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops a user's cached security state when a change to the User row commits,
+ * so locks, disables and epoch bumps apply to the next request. Changes to the
+ * roles alone are seen by UserRolesChangeListener.
+ *
+ * The cache is resolved lazily: it depends on UserRepository, which is built
+ * on the same EntityManagerFactory that instantiates this listener.
+ */
+public class UserChangeListener {
+
+    private final ObjectProvider<UserSecurityStateCache> userSecurityStateCache;
+
+    public UserChangeListener(ObjectProvider<UserSecurityStateCache> userSecurityStateCache) {
+        this.userSecurityStateCache = userSecurityStateCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        UserSecurityStateCache cache = userSecurityStateCache.getIfAvailable();
+        if (cache != null) {
+            cache.invalidateAfterCommit(user.getUsername());
+        }
+    }
+}
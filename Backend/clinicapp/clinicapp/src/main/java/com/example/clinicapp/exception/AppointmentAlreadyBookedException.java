@@ -1,6 +1,10 @@
 package com.example.clinicapp.exception;
 
-public class AppointmentAlreadyBookedException extends RuntimeException {
+/**
+ * The requested time overlaps an existing appointment of the same doctor.
+ * An IllegalStateException so callers of the original "slot already booked" check still match.
+ */
+public class AppointmentAlreadyBookedException extends IllegalStateException {
     public AppointmentAlreadyBookedException(String message) {
         super(message);
     }
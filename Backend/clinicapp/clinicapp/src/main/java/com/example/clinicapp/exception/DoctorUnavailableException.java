@@ -0,0 +1,10 @@
+package com.example.clinicapp.exception;
+
+/**
+ * The requested time falls outside the doctor's rostered working hours (or off their slot grid)
+ */
+public class DoctorUnavailableException extends RuntimeException {
+    public DoctorUnavailableException(String message) {
+        super(message);
+    }
+}
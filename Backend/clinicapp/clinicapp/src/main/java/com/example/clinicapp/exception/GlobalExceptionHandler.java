@@ -1,7 +1,9 @@
 package com.example.clinicapp.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -51,11 +53,42 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, "Prescription not found", ex.getMessage(), request);
     }
 
+    @ExceptionHandler(AppointmentAlreadyBookedException.class)
+    public ResponseEntity<Map<String, Object>> handleAppointmentAlreadyBooked(AppointmentAlreadyBookedException ex, WebRequest request) {
+        return buildErrorResponse(HttpStatus.CONFLICT, "Time slot unavailable", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(DoctorUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleDoctorUnavailable(DoctorUnavailableException ex, WebRequest request) {
+        return buildErrorResponse(HttpStatus.CONFLICT, "Doctor not available", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidStatusTransition(InvalidStatusTransitionException ex, WebRequest request) {
+        return buildErrorResponse(HttpStatus.CONFLICT, "Invalid status change", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottled(LoginThrottledException ex, WebRequest request) {
+        ResponseEntity<Map<String, Object>> response =
+                buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service busy", ex.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Invalid request", ex.getMessage(), request);
     }
 
+    // Malformed bodies, including unknown status values rejected by the status enums
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnreadableMessage(HttpMessageNotReadableException ex, WebRequest request) {
+        Throwable cause = ex.getMostSpecificCause();
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, "Invalid request", cause.getMessage(), request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex, WebRequest request) {
         return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", ex.getMessage(), request);
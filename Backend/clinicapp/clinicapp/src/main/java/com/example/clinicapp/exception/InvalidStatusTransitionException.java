@@ -0,0 +1,10 @@
+package com.example.clinicapp.exception;
+
+/**
+ * A status change the resource's state machine does not allow (e.g. reopening a completed appointment)
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+    public InvalidStatusTransitionException(String resource, Enum<?> from, Enum<?> to) {
+        super(resource + " cannot move from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.clinicapp.exception;
+
+/**
+ * Thrown when the password verification pool is saturated and a login is shed
+ * instead of queueing on the request thread. Mapped to 503 with Retry-After.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
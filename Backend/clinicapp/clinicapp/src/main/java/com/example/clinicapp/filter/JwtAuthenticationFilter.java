@@ -1,8 +1,10 @@
 package com.example.clinicapp.filter;
 
-import com.example.clinicapp.repository.RevokedTokenRepository;
 import com.example.clinicapp.service.CustomUserDetailsService;
+import com.example.clinicapp.service.RevokedTokenIndex;
+import com.example.clinicapp.service.UserSecurityStateCache;
 import com.example.clinicapp.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -11,6 +13,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,6 +23,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -33,7 +37,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private CustomUserDetailsService userDetailsService;
 
     @Autowired
-    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @Autowired
+    private UserSecurityStateCache userSecurityStateCache;
+
+    // Build the Authentication from verified claims instead of loading the user per request
+    @Value("${app.security.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -52,18 +63,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 boolean isPublicEndpoint = requestURI.startsWith("/auth/login") ||
                                           requestURI.startsWith("/auth/register");
 
-                if (!isPublicEndpoint && revokedTokenRepository.existsByToken(jwt)) {
+                if (!isPublicEndpoint && revokedTokenIndex.isRevoked(jwt)) {
                     logger.warn("Attempt to use revoked token for URI: {}", requestURI);
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("Token has been revoked");
                     return;
                 }
 
-                String username = jwtUtil.extractUsername(jwt);
+                Claims claims = jwtUtil.extractAllClaims(jwt);
+                String username = claims.getSubject();
                 logger.debug("Extracted username from JWT: {}", username);
 
+                // All of the user's sessions are revoked once their token epoch moves on
+                if (!isPublicEndpoint && username != null && !isCurrentEpoch(username, claims)) {
+                    logger.warn("Attempt to use token from a revoked session epoch for user: {}", username);
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("Session has been revoked");
+                    return;
+                }
+
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = statelessAuth
+                            ? userDetailsService.loadUserFromClaims(username, claims.get("roles", List.class))
+                            : userDetailsService.loadUserByUsername(username);
                     logger.debug("Loaded user details for: {}, authorities: {}", username, userDetails.getAuthorities());
 
                     if (jwtUtil.validateToken(jwt, userDetails)) {
@@ -94,6 +116,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isCurrentEpoch(String username, Claims claims) {
+        UserSecurityStateCache.UserSecurityState state = userSecurityStateCache.get(username);
+        // Missing users are rejected later by the user details lookup
+        return state == null || state.tokenEpoch() == JwtUtil.extractTokenEpoch(claims);
+    }
+
     /**
      * CMS-004: Extract JWT from request
      * 
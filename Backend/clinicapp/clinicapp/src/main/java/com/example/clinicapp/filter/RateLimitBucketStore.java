@@ -0,0 +1,101 @@
+package com.example.clinicapp.filter;
+
+import com.example.clinicapp.config.RateLimitProperties;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded store of rate limit buckets with access-time eviction.
+ *
+ * Replaces the unbounded per-IP map that was only ever cleared wholesale (which let
+ * every client through at once). Idle buckets are swept on a schedule, and when the
+ * store is over its bound the least recently used buckets are evicted first, so hot
+ * (possibly abusive) keys keep their state.
+ */
+@Component
+public class RateLimitBucketStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitBucketStore.class);
+
+    private static final class Entry {
+        private final Bucket bucket;
+        private volatile long lastAccessNanos;
+
+        private Entry(Bucket bucket, long now) {
+            this.bucket = bucket;
+            this.lastAccessNanos = now;
+        }
+    }
+
+    private final Map<String, Entry> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+
+    public RateLimitBucketStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("ratelimit.buckets", buckets, Map::size)
+                .description("Live rate limit buckets")
+                .register(meterRegistry);
+    }
+
+    public Bucket resolve(String key, Supplier<Bucket> bucketFactory) {
+        long now = System.nanoTime();
+        Entry entry = buckets.get(key);
+        if (entry == null) {
+            entry = buckets.computeIfAbsent(key, k -> new Entry(bucketFactory.get(), now));
+            if (buckets.size() > properties.getMaxBuckets()) {
+                evictLeastRecentlyUsed();
+            }
+        }
+        entry.lastAccessNanos = now;
+        return entry.bucket;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drop buckets that have been idle longer than the idle timeout
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        buckets.values().removeIf(entry -> entry.lastAccessNanos < cutoff);
+    }
+
+    /**
+     * Over the bound: evict idle buckets, then the least recently used tenth
+     */
+    private synchronized void evictLeastRecentlyUsed() {
+        int maxBuckets = properties.getMaxBuckets();
+        if (buckets.size() <= maxBuckets) {
+            return;
+        }
+        evictIdle();
+        int excess = buckets.size() - maxBuckets;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<Map.Entry<String, Long>> byAccess = new ArrayList<>(buckets.size());
+        buckets.forEach((key, entry) -> byAccess.add(Map.entry(key, entry.lastAccessNanos)));
+        byAccess.sort(Map.Entry.comparingByValue());
+
+        int toEvict = Math.min(byAccess.size(), Math.max(excess, maxBuckets / 10));
+        for (int i = 0; i < toEvict; i++) {
+            buckets.remove(byAccess.get(i).getKey());
+        }
+        logger.info("Rate limit store over {} buckets; evicted {} least recently used", maxBuckets, toEvict);
+    }
+}
@@ -1,49 +1,86 @@
 package com.example.clinicapp.filter;
 
+import com.example.clinicapp.config.RateLimitProperties;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * CMS-007: Rate Limiting Filter
- * 
- * Prevents brute force attacks by limiting login attempts to 5 per minute per IP address.
- * Uses Bucket4j token bucket algorithm for efficient rate limiting.
+ *
+ * Applies the configured {@link RateLimitProperties} policies using Bucket4j token buckets.
+ * Policies can target a path pattern, HTTP methods and roles, and are keyed per client IP
+ * or per authenticated user. Runs after JwtAuthenticationFilter so role-based policies see
+ * the caller's authorities. Per-policy accept/reject counts are exported as ratelimit.requests.
  */
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    // Cache of rate limiters per IP address
-    private final Map<String, Bucket> bucketCache = new ConcurrentHashMap<>();
-
-    // Configuration: 5 requests per minute
-    private static final int REQUESTS_PER_MINUTE = 5;
-    private static final Duration REFILL_DURATION = Duration.ofMinutes(1);
+    private final RateLimitBucketStore bucketStore;
+    private final List<CompiledPolicy> policies;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     /**
-     * Creates a new rate limit bucket for an IP address.
-     * Allows 5 requests, refills 5 tokens every minute.
+     * A policy with its bucket configuration and counters resolved once at startup
      */
-    private Bucket createNewBucket() {
-        Bandwidth limit = Bandwidth.classic(
-            REQUESTS_PER_MINUTE,
-            Refill.intervally(REQUESTS_PER_MINUTE, REFILL_DURATION)
-        );
-        return Bucket.builder()
-            .addLimit(limit)
-            .build();
+    private static final class CompiledPolicy {
+        private final RateLimitProperties.Policy policy;
+        private final Set<String> methods;
+        private final Set<String> roles;
+        private final Bandwidth bandwidth;
+        private final Counter accepted;
+        private final Counter rejected;
+
+        private CompiledPolicy(RateLimitProperties.Policy policy, MeterRegistry meterRegistry) {
+            this.policy = policy;
+            this.methods = policy.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.roles = policy.getRoles().stream()
+                    .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                    .collect(Collectors.toUnmodifiableSet());
+            this.bandwidth = Bandwidth.builder()
+                    .capacity(policy.getCapacity())
+                    .refillIntervally(policy.getRefillTokens(), policy.getRefillPeriod())
+                    .build();
+            this.accepted = Counter.builder("ratelimit.requests")
+                    .tag("policy", policy.getName())
+                    .tag("outcome", "accepted")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("ratelimit.requests")
+                    .tag("policy", policy.getName())
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry);
+        }
+    }
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           RateLimitBucketStore bucketStore,
+                           MeterRegistry meterRegistry) {
+        this.bucketStore = bucketStore;
+        this.policies = properties.getEffectivePolicies().stream()
+                .map(policy -> new CompiledPolicy(policy, meterRegistry))
+                .collect(Collectors.toUnmodifiableList());
     }
 
     /**
@@ -55,12 +92,12 @@ public class RateLimitFilter extends OncePerRequestFilter {
             // Return the first IP in the chain (original client)
             return xForwardedFor.split(",")[0].trim();
         }
-        
+
         String xRealIP = request.getHeader("X-Real-IP");
         if (xRealIP != null && !xRealIP.isEmpty()) {
             return xRealIP;
         }
-        
+
         return request.getRemoteAddr();
     }
 
@@ -69,42 +106,76 @@ public class RateLimitFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        // Only apply rate limiting to login endpoint
-        if (request.getRequestURI().equals("/auth/login") && request.getMethod().equals("POST")) {
-            String clientIP = getClientIP(request);
-            
-            // Get or create bucket for this IP
-            Bucket bucket = bucketCache.computeIfAbsent(clientIP, k -> createNewBucket());
-
-            // Try to consume a token
-            if (bucket.tryConsume(1)) {
-                // Request allowed - proceed
-                filterChain.doFilter(request, response);
-            } else {
-                // Rate limit exceeded
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\": \"Too many login attempts. Please try again in 1 minute.\"}");
-                
-                // Log the rate limit hit for security monitoring
-                logger.warn("Rate limit exceeded for IP: " + clientIP + " on login endpoint");
-            }
-        } else {
-            // Not a login request - proceed normally
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        CompiledPolicy compiled = findPolicy(request, authentication);
+        if (compiled == null) {
             filterChain.doFilter(request, response);
+            return;
         }
+
+        String clientKey = resolveClientKey(compiled.policy.getKey(), request, authentication);
+        Bucket bucket = bucketStore.resolve(compiled.policy.getName() + ":" + clientKey,
+                () -> Bucket.builder().addLimit(compiled.bandwidth).build());
+
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            compiled.accepted.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        compiled.rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": \"Too many requests. Please try again in "
+                + retryAfterSeconds + " seconds.\"}");
+
+        // Log the rate limit hit for security monitoring
+        logger.warn("Rate limit '" + compiled.policy.getName() + "' exceeded for " + clientKey
+                + " on " + request.getMethod() + " " + request.getRequestURI());
     }
 
-    /**
-     * Clean up old buckets periodically to prevent memory leaks.
-     * In production, consider using a scheduled task or Redis for distributed rate limiting.
-     */
-    public void cleanupOldBuckets() {
-        // Simple cleanup - remove buckets older than 10 minutes
-        // In production, use proper expiration with a scheduled task
-        if (bucketCache.size() > 10000) {
-            bucketCache.clear();
-            logger.info("Cleared rate limit bucket cache due to size limit");
+    private CompiledPolicy findPolicy(HttpServletRequest request, Authentication authentication) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        for (CompiledPolicy compiled : policies) {
+            if (!compiled.methods.isEmpty() && !compiled.methods.contains(method)) {
+                continue;
+            }
+            if (!pathMatcher.match(compiled.policy.getPath(), path)) {
+                continue;
+            }
+            if (!compiled.roles.isEmpty() && !hasAnyRole(authentication, compiled.roles)) {
+                continue;
+            }
+            return compiled;
+        }
+        return null;
+    }
+
+    private boolean hasAnyRole(Authentication authentication, Set<String> roles) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (roles.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String resolveClientKey(RateLimitProperties.KeyType keyType,
+                                    HttpServletRequest request,
+                                    Authentication authentication) {
+        if (keyType == RateLimitProperties.KeyType.USER
+                && authentication != null
+                && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getPrincipal())) {
+            return "user:" + authentication.getName();
         }
+        return "ip:" + getClientIP(request);
     }
 }
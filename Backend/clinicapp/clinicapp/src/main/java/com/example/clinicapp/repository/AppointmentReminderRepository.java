@@ -0,0 +1,24 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.AppointmentReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppointmentReminderRepository extends JpaRepository<AppointmentReminder, Long> {
+
+    // Claims already taken for a batch of due reminders (by this or another node)
+    List<AppointmentReminder> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    // Claims for past appointments are no longer needed for deduplication
+    @Modifying
+    @Query("DELETE FROM AppointmentReminder r WHERE r.appointmentTime < :cutoff")
+    int deleteByAppointmentTimeBefore(@Param("cutoff") LocalDateTime cutoff);
+}
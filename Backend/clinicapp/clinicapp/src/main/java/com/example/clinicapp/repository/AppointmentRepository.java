@@ -1,28 +1,82 @@
 package com.example.clinicapp.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.dto.ReminderTarget;
 import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentStatus;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long>{
 	List<Appointment> findByAppointmentTimeBetween(LocalDateTime start, LocalDateTime end);
 
-	// Case-insensitive status lookup
-	List<Appointment> findByStatusIgnoreCase(String status);
+	// Day board: AppointmentDto rows built by one joined query instead of per-row patient/doctor/prescription loads
+	String DAY_BOARD_SELECT = "SELECT new com.example.clinicapp.dto.AppointmentDto("
+			+ "a.id, a.patientName, a.patientEmail, a.status, a.details, a.appointmentTime, "
+			+ "p.id, p.age, p.gender, p.phoneNumber, "
+			+ "d.id, d.name, d.specialty, d.email, d.contactNumber, rx.id) "
+			+ "FROM Appointment a LEFT JOIN a.patient p LEFT JOIN a.doctor d LEFT JOIN a.prescription rx ";
 
-	// For Consults: Find completed appointments by patient ID (case-insensitive)
-	@Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND LOWER(a.status) = LOWER(:status)")
-	List<Appointment> findByPatient_IdAndStatusIgnoreCase(@Param("patientId") Long patientId, @Param("status") String status);
+	@Query(DAY_BOARD_SELECT
+			+ "WHERE a.appointmentTime >= :start AND a.appointmentTime < :end "
+			+ "ORDER BY a.appointmentTime, a.id")
+	List<AppointmentDto> findDayBoard(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	@Query(DAY_BOARD_SELECT
+			+ "WHERE a.doctor.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end "
+			+ "ORDER BY a.appointmentTime, a.id")
+	List<AppointmentDto> findDayBoardByDoctor(@Param("doctorId") Long doctorId,
+			@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	// Status lists: keyset pages, most recent first, read as range scans of idx_appointments_status_time
+	// (and idx_appointments_patient_status_time). The plain time bound drives the scan; the OR breaks ties.
+	@Query(DAY_BOARD_SELECT
+			+ "WHERE a.status = :status "
+			+ "AND a.appointmentTime <= :beforeTime AND (a.appointmentTime < :beforeTime OR a.id < :beforeId) "
+			+ "ORDER BY a.appointmentTime DESC, a.id DESC")
+	List<AppointmentDto> findBoardPageByStatus(@Param("status") AppointmentStatus status,
+			@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") long beforeId, Pageable pageable);
+
+	@Query(DAY_BOARD_SELECT
+			+ "WHERE a.patient.id = :patientId AND a.status = :status "
+			+ "AND a.appointmentTime <= :beforeTime AND (a.appointmentTime < :beforeTime OR a.id < :beforeId) "
+			+ "ORDER BY a.appointmentTime DESC, a.id DESC")
+	List<AppointmentDto> findBoardPageByPatientAndStatus(@Param("patientId") Long patientId,
+			@Param("status") AppointmentStatus status,
+			@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") long beforeId, Pageable pageable);
+
+	// Reminder engine: the upcoming window (a range scan of idx_appointments_status_time per status)
+	// and a re-check of due appointments before their reminders are claimed
+	String REMINDER_TARGET_SELECT = "SELECT new com.example.clinicapp.dto.ReminderTarget("
+			+ "a.id, a.appointmentTime, a.status, a.patientEmail) FROM Appointment a ";
+
+	@Query(REMINDER_TARGET_SELECT
+			+ "WHERE a.status IN :statuses AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+	List<ReminderTarget> findReminderTargets(@Param("statuses") Collection<AppointmentStatus> statuses,
+			@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	@Query(REMINDER_TARGET_SELECT + "WHERE a.id IN :ids")
+	List<ReminderTarget> findReminderTargetsByIds(@Param("ids") Collection<Long> ids);
+
+	// Slot index bulk load: every doctor's appointments in a window in one range scan of idx_appointments_doctor_time
+	@Query("SELECT new com.example.clinicapp.dto.BookedInterval(a.doctor.id, a.appointmentTime, a.durationMinutes, a.status) "
+			+ "FROM Appointment a WHERE a.doctor.id IN :doctorIds AND a.appointmentTime >= :from AND a.appointmentTime < :to")
+	List<BookedInterval> findBookedIntervals(@Param("doctorIds") Collection<Long> doctorIds,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+	// Slot index load of the schedule shared by appointments without a doctor
+	@Query("SELECT new com.example.clinicapp.dto.BookedInterval(d.id, a.appointmentTime, a.durationMinutes, a.status) "
+			+ "FROM Appointment a LEFT JOIN a.doctor d WHERE d IS NULL AND a.appointmentTime >= :from AND a.appointmentTime < :to")
+	List<BookedInterval> findUnassignedBookedIntervals(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
 	// For Consults: Find all appointments by patient ID
 	List<Appointment> findByPatient_Id(Long patientId);
-
-	// For Consults: Find completed appointments ordered by time (most recent first, case-insensitive)
-	@Query("SELECT a FROM Appointment a WHERE LOWER(a.status) = LOWER(:status) ORDER BY a.appointmentTime DESC")
-	List<Appointment> findByStatusIgnoreCaseOrderByAppointmentTimeDesc(@Param("status") String status);
 }
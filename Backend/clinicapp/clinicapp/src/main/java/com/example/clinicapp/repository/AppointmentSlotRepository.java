@@ -0,0 +1,18 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.AppointmentSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentSlotRepository
+        extends JpaRepository<AppointmentSlot, Long>, AppointmentSlotRepositoryCustom {
+
+    // Single bulk DELETE of an appointment's claimed slots
+    @Modifying
+    @Query("DELETE FROM AppointmentSlot s WHERE s.appointmentId = :appointmentId")
+    int deleteByAppointmentId(@Param("appointmentId") Long appointmentId);
+}
@@ -0,0 +1,13 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.AppointmentSlot;
+
+import java.util.List;
+
+public interface AppointmentSlotRepositoryCustom {
+
+    /**
+     * Insert slot claims as one JDBC batch, after flushing pending entity writes
+     */
+    void insertAll(List<AppointmentSlot> slots);
+}
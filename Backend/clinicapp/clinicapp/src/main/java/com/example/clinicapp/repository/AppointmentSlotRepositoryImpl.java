@@ -0,0 +1,43 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.AppointmentSlot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Slot claims go through JdbcTemplate rather than saveAll: AppointmentSlot has IDENTITY ids,
+ * for which Hibernate inserts row by row. Nothing reads the generated ids back. On MySQL the
+ * batch becomes one multi-row insert only with rewriteBatchedStatements=true on the JDBC URL.
+ */
+public class AppointmentSlotRepositoryImpl implements AppointmentSlotRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO appointment_slots (doctor_id, slot_start, appointment_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AppointmentSlotRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<AppointmentSlot> slots) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        // The appointments the slots point at are written first, as saveAllAndFlush did
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INSERT_SQL, slots, slots.size(), (ps, slot) -> {
+            ps.setLong(1, slot.getDoctorId());
+            ps.setTimestamp(2, Timestamp.valueOf(slot.getSlotStart()));
+            ps.setLong(3, slot.getAppointmentId());
+        });
+    }
+}
@@ -50,6 +50,11 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     long countFailedLoginsByUsernameSince(@Param("username") String username,
                                            @Param("since") LocalDateTime since);
 
+    // Failed logins since a point in time, projected to (username, ipAddress, timestamp)
+    @Query("SELECT a.username, a.ipAddress, a.timestamp FROM AuditLog a " +
+           "WHERE a.action = 'LOGIN_FAILED' AND a.timestamp > :since")
+    List<Object[]> findFailedLoginsSince(@Param("since") LocalDateTime since);
+
     // Security monitoring: Suspicious activity detection
     @Query("SELECT a FROM AuditLog a WHERE a.username = :username " +
            "AND a.timestamp > :since ORDER BY a.timestamp DESC")
@@ -68,6 +73,5 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
            "AND a.resourceId = :patientId ORDER BY a.timestamp DESC")
     List<AuditLog> findAllPatientAccess(@Param("patientId") Long patientId);
 
-    // Delete old audit logs (for cleanup, if configured)
-    void deleteByTimestampBefore(LocalDateTime before);
+    // Old audit logs are purged by AuditRetentionService (partition drops / chunked deletes)
 }
@@ -0,0 +1,26 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.DoctorLeave;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DoctorLeaveRepository extends JpaRepository<DoctorLeave, Long> {
+
+    // Upcoming leave; all of it, so calendars rolling forward past their first window still see it
+    List<DoctorLeave> findByDoctorIdAndLeaveDateGreaterThanEqual(Long doctorId, LocalDate from);
+
+    List<DoctorLeave> findByLeaveDateGreaterThanEqual(LocalDate from);
+
+    boolean existsByDoctorIdAndLeaveDate(Long doctorId, LocalDate leaveDate);
+
+    @Modifying
+    @Query("DELETE FROM DoctorLeave l WHERE l.doctorId = :doctorId AND l.leaveDate = :leaveDate")
+    int deleteByDoctorIdAndLeaveDate(@Param("doctorId") Long doctorId, @Param("leaveDate") LocalDate leaveDate);
+}
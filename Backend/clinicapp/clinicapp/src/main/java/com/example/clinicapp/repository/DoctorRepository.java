@@ -4,9 +4,12 @@ import com.example.clinicapp.entity.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByName(String name);
+
+    List<Doctor> findBySpecialtyIgnoreCase(String specialty);
 }
@@ -0,0 +1,13 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.DoctorRoster;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DoctorRosterRepository extends JpaRepository<DoctorRoster, Long> {
+
+    Optional<DoctorRoster> findByDoctorId(Long doctorId);
+}
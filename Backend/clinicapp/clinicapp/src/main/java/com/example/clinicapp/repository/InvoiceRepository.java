@@ -3,11 +3,13 @@ package com.example.clinicapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.clinicapp.entity.Invoice;
+import com.example.clinicapp.entity.InvoiceStatus;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
@@ -25,9 +27,18 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT COUNT(i) FROM Invoice i WHERE i.invoiceNumber LIKE :prefix%")
     Long countByInvoiceNumberPrefix(@Param("prefix") String prefix);
 
-    // Find all invoices ordered by date descending
-    List<Invoice> findAllByOrderByInvoiceDateDesc();
+    // Keyset pages, newest first (ids follow invoice creation)
+    @Query("SELECT i FROM Invoice i WHERE i.id < :beforeId ORDER BY i.id DESC")
+    List<Invoice> findPageBefore(@Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("SELECT i FROM Invoice i WHERE i.patient.id = :patientId AND i.id < :beforeId ORDER BY i.id DESC")
+    List<Invoice> findPageByPatientBefore(@Param("patientId") Long patientId,
+            @Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("SELECT i FROM Invoice i WHERE i.doctor.id = :doctorId AND i.id < :beforeId ORDER BY i.id DESC")
+    List<Invoice> findPageByDoctorBefore(@Param("doctorId") Long doctorId,
+            @Param("beforeId") long beforeId, Pageable pageable);
 
     // Find invoices by status
-    List<Invoice> findByStatus(String status);
+    List<Invoice> findByStatus(InvoiceStatus status);
 }
@@ -0,0 +1,9 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.OutboxNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+}
@@ -3,7 +3,10 @@ package com.example.clinicapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.clinicapp.entity.Prescription;
 
@@ -13,4 +16,16 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
     List<Prescription> findByDoctorId(Long doctorId);
     
     List<Prescription> findByPatientId(Long patientId);
+
+    // Keyset pages, newest first
+    @Query("SELECT rx FROM Prescription rx WHERE rx.id < :beforeId ORDER BY rx.id DESC")
+    List<Prescription> findPageBefore(@Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("SELECT rx FROM Prescription rx WHERE rx.patient.id = :patientId AND rx.id < :beforeId ORDER BY rx.id DESC")
+    List<Prescription> findPageByPatientBefore(@Param("patientId") Long patientId,
+            @Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("SELECT rx FROM Prescription rx WHERE rx.doctor.id = :doctorId AND rx.id < :beforeId ORDER BY rx.id DESC")
+    List<Prescription> findPageByDoctorBefore(@Param("doctorId") Long doctorId,
+            @Param("beforeId") long beforeId, Pageable pageable);
 }
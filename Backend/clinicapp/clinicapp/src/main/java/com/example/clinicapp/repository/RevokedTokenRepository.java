@@ -2,12 +2,24 @@ package com.example.clinicapp.repository;
 
 import com.example.clinicapp.entity.RevokedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
-    boolean existsByToken(String token);
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    boolean existsByTokenHash(String tokenHash);
+
+    // Single bulk DELETE (the derived deleteBy loads and removes rows one at a time)
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    // Revocation index: warm-up and incremental sync
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime dateTime);
+    List<RevokedToken> findByRevokedAtAfter(LocalDateTime dateTime);
 }
\ No newline at end of file
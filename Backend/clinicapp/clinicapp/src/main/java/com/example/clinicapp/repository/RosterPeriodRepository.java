@@ -0,0 +1,21 @@
+package com.example.clinicapp.repository;
+
+import com.example.clinicapp.entity.RosterPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RosterPeriodRepository extends JpaRepository<RosterPeriod, Long> {
+
+    List<RosterPeriod> findByDoctorId(Long doctorId);
+
+    // Replacing a doctor's weekly hours: one statement instead of loading and deleting each period
+    @Modifying
+    @Query("DELETE FROM RosterPeriod p WHERE p.doctorId = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
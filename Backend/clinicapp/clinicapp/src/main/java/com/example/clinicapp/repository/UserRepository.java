@@ -2,6 +2,9 @@ package com.example.clinicapp.repository;
 
 import com.example.clinicapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Invalidates all of the user's tokens in one row update (see JwtUtil "epoch" claim)
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = COALESCE(u.tokenEpoch, 0) + 1 WHERE u.username = :username")
+    int incrementTokenEpoch(@Param("username") String username);
 }
\ No newline at end of file
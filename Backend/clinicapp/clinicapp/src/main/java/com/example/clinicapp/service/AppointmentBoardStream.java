@@ -0,0 +1,409 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.BoardEvent;
+import com.example.clinicapp.dto.BoardEvent.Type;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live appointment board updates over Server-Sent Events, so screens stop polling /appointments/day.
+ *
+ * Each screen subscribes to one day, optionally one doctor. Streams are servlet-async
+ * {@link SseEmitter}s, so an idle connection holds no thread. Changes are published after
+ * commit and sequenced by one sender thread, which also replays missed events and sends
+ * heartbeats; request threads only enqueue. The sender never writes to a connection: each
+ * screen has its own queue, drained on the delivery pool, and a screen that falls more than
+ * app.appointments.board.max-pending-events behind is dropped, so one slow client cannot hold
+ * up the others. Event ids grow across restarts (they start from the boot time), and the last
+ * app.appointments.board.replay-events events are kept so a reconnecting browser resumes from
+ * its Last-Event-ID. When that is no longer possible it gets a RESYNC event and reloads the
+ * day. Events reach the screens connected to this node.
+ */
+@Service
+public class AppointmentBoardStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentBoardStream.class);
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final LocalDate date;
+        private final Long doctorId;
+
+        // Events not yet written, counting the one being written
+        private final Queue<SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, LocalDate date, Long doctorId) {
+            this.emitter = emitter;
+            this.date = date;
+            this.doctorId = doctorId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        LocalDate date() {
+            return date;
+        }
+
+        boolean wants(Published published) {
+            BoardEvent event = published.event();
+            if (!date.equals(event.date())) {
+                return false;
+            }
+            if (doctorId == null) {
+                return !published.doctorColumnOnly();
+            }
+            return doctorId.equals(event.doctorId());
+        }
+    }
+
+    /**
+     * An event as kept for delivery. doctorColumnOnly: it concerns only screens filtered to its
+     * doctor, as when an appointment moves to another doctor on the same day
+     */
+    private record Published(BoardEvent event, boolean doctorColumnOnly) {
+    }
+
+    private final Executor sender;
+    private final Executor delivery;
+    private final long streamTimeoutMillis;
+    private final long retryMillis;
+    private final int replayEvents;
+    private final int maxPendingEvents;
+
+    private final Map<LocalDate, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Recent events in id order, and the last id issued; guarded by recent
+    private final Deque<Published> recent = new ArrayDeque<>();
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    private final Counter eventsCounter;
+    private final Counter slowSubscribersCounter;
+
+    @Autowired
+    public AppointmentBoardStream(AppointmentProperties appointmentProperties, MeterRegistry meterRegistry) {
+        this(appointmentProperties, meterRegistry,
+                Executors.newSingleThreadExecutor(daemonThreads("board-events")),
+                // A write stuck on one slow client ties up only that client's drain
+                Executors.newCachedThreadPool(daemonThreads("board-delivery")));
+    }
+
+    /**
+     * With the given sender, which must run tasks one at a time, in order, and the given
+     * delivery executor, which writes to the screens
+     */
+    public AppointmentBoardStream(AppointmentProperties appointmentProperties, MeterRegistry meterRegistry,
+                                  Executor sender, Executor delivery) {
+        AppointmentProperties.Board board = appointmentProperties.getBoard();
+        this.sender = sender;
+        this.delivery = delivery;
+        this.streamTimeoutMillis = board.getStreamTimeout().toMillis();
+        this.retryMillis = board.getRetry().toMillis();
+        this.replayEvents = board.getReplayEvents();
+        this.maxPendingEvents = board.getMaxPendingEvents();
+
+        this.eventsCounter = Counter.builder("appointments.board.events")
+                .description("Appointment board changes published to live screens")
+                .register(meterRegistry);
+        this.slowSubscribersCounter = Counter.builder("appointments.board.slow.subscribers")
+                .description("Screens dropped for falling too far behind the board events")
+                .register(meterRegistry);
+        Gauge.builder("appointments.board.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Screens subscribed to live appointment board updates on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of changes to the day's board (one doctor's column when doctorId is set),
+     * first replaying what was missed since lastEventId
+     */
+    public SseEmitter subscribe(LocalDate date, Long doctorId, String lastEventId) {
+        SseEmitter emitter = newEmitter(streamTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, date, doctorId);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+        Long resumeAfter = parseEventId(lastEventId);
+
+        // On the sender thread, so no event is missed or sent twice between replay and registration
+        enqueue(() -> {
+            deliver(subscriber, SseEmitter.event().reconnectTime(retryMillis).comment("connected"));
+            if (resumeAfter != null) {
+                for (Published published : missedSince(resumeAfter, subscriber)) {
+                    deliver(subscriber, toSse(published.event()));
+                }
+            }
+            if (!subscriber.closed) {
+                subscribers.computeIfAbsent(date, day -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+        });
+        return emitter;
+    }
+
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // ==================== PUBLISHING ====================
+
+    public void created(AppointmentDto appointment) {
+        publish(Type.CREATED, appointment.getAppointmentTime(), appointment.getDoctorId(), appointment.getId(),
+                appointment, null, false);
+    }
+
+    /**
+     * The appointment changed; screens of the day and doctor it was on before are told it left.
+     * When only the doctor changed, screens of the whole day just get the update
+     */
+    public void updated(AppointmentDto appointment, LocalDateTime previousTime, Long previousDoctorId) {
+        if (previousTime != null) {
+            boolean sameDay = sameDay(previousTime, appointment.getAppointmentTime());
+            if (!sameDay || !Objects.equals(previousDoctorId, appointment.getDoctorId())) {
+                publish(Type.REMOVED, previousTime, previousDoctorId, appointment.getId(), null, null, sameDay);
+            }
+        }
+        publish(Type.UPDATED, appointment.getAppointmentTime(), appointment.getDoctorId(), appointment.getId(),
+                appointment, null, false);
+    }
+
+    public void removed(Long appointmentId, LocalDateTime time, Long doctorId) {
+        publish(Type.REMOVED, time, doctorId, appointmentId, null, null, false);
+    }
+
+    public void prescriptionSaved(Long prescriptionId, Long appointmentId, LocalDateTime time, Long doctorId) {
+        publish(Type.PRESCRIPTION, time, doctorId, appointmentId, null, prescriptionId, false);
+    }
+
+    private void publish(Type type, LocalDateTime time, Long doctorId, Long appointmentId,
+                         AppointmentDto appointment, Long prescriptionId, boolean doctorColumnOnly) {
+        if (time == null) {
+            return;
+        }
+        LocalDate date = time.toLocalDate();
+        enqueue(() -> {
+            Published published;
+            synchronized (recent) {
+                published = new Published(
+                        new BoardEvent(++lastId, type, date, doctorId, appointmentId, appointment, prescriptionId),
+                        doctorColumnOnly);
+                recent.addLast(published);
+                if (recent.size() > replayEvents) {
+                    recent.removeFirst();
+                }
+            }
+            eventsCounter.increment();
+            for (Subscriber subscriber : subscribers.getOrDefault(date, Set.of())) {
+                if (subscriber.wants(published)) {
+                    deliver(subscriber, toSse(published.event()));
+                }
+            }
+        });
+    }
+
+    // ==================== DELIVERY ====================
+
+    /**
+     * Keep idle streams from being closed by proxies, and find the ones whose client went away
+     */
+    @Scheduled(fixedDelayString = "${app.appointments.board.heartbeat-ms:15000}")
+    public void heartbeat() {
+        enqueue(() -> subscribers.values().forEach(daySubscribers -> daySubscribers.forEach(
+                subscriber -> deliver(subscriber, SseEmitter.event().comment("heartbeat")))));
+    }
+
+    /**
+     * Screens currently subscribed on this node
+     */
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(daySubscribers -> daySubscribers.forEach(subscriber -> subscriber.emitter().complete()));
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        if (delivery instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * The subscriber's events after lastEventId, or a single RESYNC when some are no longer held
+     * or there are more than its queue takes
+     */
+    private List<Published> missedSince(long lastEventId, Subscriber subscriber) {
+        synchronized (recent) {
+            if (lastEventId == lastId) {
+                return List.of();
+            }
+            Published resync = new Published(
+                    new BoardEvent(lastId, Type.RESYNC, subscriber.date(), null, null, null, null), false);
+            Published oldest = recent.peekFirst();
+            if (lastEventId > lastId || oldest == null || oldest.event().id() > lastEventId + 1) {
+                return List.of(resync);
+            }
+            List<Published> missed = new ArrayList<>();
+            for (Published published : recent) {
+                if (published.event().id() > lastEventId && subscriber.wants(published)) {
+                    missed.add(published);
+                }
+            }
+            // Less one for the "connected" comment ahead of them
+            return missed.size() < maxPendingEvents ? missed : List.of(resync);
+        }
+    }
+
+    // Publishing is best effort: a change must not fail because the sender is shutting down
+    private void enqueue(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Board event dropped: sender is shut down");
+        }
+    }
+
+    private static SseEventBuilder toSse(BoardEvent event) {
+        // A builder per send: building one appends to it
+        return SseEmitter.event().id(String.valueOf(event.id())).data(event, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Queue the event for the subscriber and make sure its queue is being drained. A subscriber
+     * already max-pending-events behind is dropped instead; its browser reconnects and resumes
+     */
+    private void deliver(Subscriber subscriber, SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (subscriber.pending.incrementAndGet() > maxPendingEvents) {
+            logger.warn("Dropping board subscriber for {}: more than {} events behind",
+                    subscriber.date(), maxPendingEvents);
+            slowSubscribersCounter.increment();
+            close(subscriber);
+            try {
+                subscriber.emitter().complete();
+            } catch (IllegalStateException e) {
+                logger.debug("Board subscriber for {} already completed", subscriber.date());
+            }
+            return;
+        }
+        subscriber.outbox.add(event);
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            delivery.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            logger.debug("Board event dropped: delivery is shut down");
+        }
+    }
+
+    // Writes the subscriber's queued events in order; at most one drain per subscriber runs at a time
+    private void drain(Subscriber subscriber) {
+        SseEventBuilder event;
+        while (!subscriber.closed && (event = subscriber.outbox.poll()) != null) {
+            send(subscriber, event);
+            subscriber.pending.decrementAndGet();
+        }
+        subscriber.draining.set(false);
+        // An event queued after the last poll but before draining was cleared
+        if (!subscriber.closed && !subscriber.outbox.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // The subscriber is dropped when the client has gone away
+    private void send(Subscriber subscriber, SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping board subscriber for {}: {}", subscriber.date(), e.getMessage());
+            // The container completes the emitter when the connection fails
+            close(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.outbox.clear();
+        unregister(subscriber);
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.date(), (day, daySubscribers) -> {
+            daySubscribers.remove(subscriber);
+            return daySubscribers.isEmpty() ? null : daySubscribers;
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Not one of ours: treat as missing everything
+            return 0L;
+        }
+    }
+
+    private static boolean sameDay(LocalDateTime a, LocalDateTime b) {
+        return b != null && a.toLocalDate().equals(b.toLocalDate());
+    }
+}
@@ -1,55 +1,353 @@
 package com.example.clinicapp.service;
 
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.config.AppointmentProperties.Series.OnConflict;
+import com.example.clinicapp.config.PaginationProperties;
 import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.AppointmentSeriesRequest;
+import com.example.clinicapp.dto.CursorPage;
+import com.example.clinicapp.dto.SeriesBooking;
+import com.example.clinicapp.dto.SlotHoldDto;
 import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentSeries;
+import com.example.clinicapp.entity.AppointmentSlot;
+import com.example.clinicapp.entity.AppointmentStatus;
 import com.example.clinicapp.entity.Doctor;
 import com.example.clinicapp.entity.Patient;
 import com.example.clinicapp.entity.Prescription;
+import com.example.clinicapp.exception.AppointmentAlreadyBookedException;
+import com.example.clinicapp.exception.DoctorUnavailableException;
 import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.repository.AppointmentSeriesRepository;
+import com.example.clinicapp.repository.AppointmentSlotRepository;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import com.example.clinicapp.service.SlotAvailabilityIndex.SlotKey;
+import com.example.clinicapp.service.SlotHoldRegistry.Hold;
+import com.example.clinicapp.util.CursorCodec;
+import com.example.clinicapp.util.KeysetCursors;
+import com.example.clinicapp.util.KeysetCursors.TimeAndId;
+import com.example.clinicapp.util.StripedLocks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
 
+    private static final String SLOT_CONSTRAINT = "uk_appointment_slots_doctor_slot";
+
     private final AppointmentRepository appointmentRepository;
-    private final EmailService emailService;
+    private final NotificationOutbox notificationOutbox;
     private final MobileService mobileService;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AppointmentSlotRepository appointmentSlotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLocks bookingLocks;
+    private final PaginationProperties paginationProperties;
+    private final ReminderScheduler reminderScheduler;
+    private final RosterCalendar rosterCalendar;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final AppointmentProperties.Series seriesProperties;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final AppointmentBoardStream appointmentBoardStream;
 
     @Autowired
-    public AppointmentService(AppointmentRepository appointmentRepository, EmailService emailService,MobileService mobileService) {
+    public AppointmentService(AppointmentRepository appointmentRepository, NotificationOutbox notificationOutbox,MobileService mobileService,
+                              SlotAvailabilityIndex slotAvailabilityIndex,
+                              AppointmentSlotRepository appointmentSlotRepository,
+                              PlatformTransactionManager transactionManager,
+                              AppointmentProperties appointmentProperties,
+                              PaginationProperties paginationProperties,
+                              ReminderScheduler reminderScheduler,
+                              RosterCalendar rosterCalendar,
+                              AppointmentSeriesRepository appointmentSeriesRepository,
+                              SlotHoldRegistry slotHoldRegistry,
+                              AppointmentBoardStream appointmentBoardStream) {
         this.appointmentRepository = appointmentRepository;
-        this.emailService = emailService;
+        this.notificationOutbox = notificationOutbox;
         this.mobileService=mobileService;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.appointmentSlotRepository = appointmentSlotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookingLocks = new StripedLocks(appointmentProperties.getLockStripes());
+        this.paginationProperties = paginationProperties;
+        this.reminderScheduler = reminderScheduler;
+        this.rosterCalendar = rosterCalendar;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.seriesProperties = appointmentProperties.getSeries();
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.appointmentBoardStream = appointmentBoardStream;
     }
     
     // Saving appointments
     public Appointment saveAppointment(Appointment appointment) {
-        List<Appointment> existingAppointments = appointmentRepository.findByAppointmentTimeBetween(
-                appointment.getAppointmentTime().minusMinutes(1),
-                appointment.getAppointmentTime().plusMinutes(1)
-        );
-        if (!existingAppointments.isEmpty()) {
-            throw new IllegalStateException("The time slot is already booked");
-        }
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        return saveAppointment(appointment, null);
+    }
+
+    // Saving an appointment whose slots may be held under holdToken; the hold ends once booked
+    public Appointment saveAppointment(Appointment appointment, String holdToken) {
+        Booking booking = slotAvailabilityIndex.bookingOf(appointment);
+        requireWorking(booking);
+        List<SlotKey> slots = slotAvailabilityIndex.slotsOf(booking);
+
+        // Check and insert under the slots' locks; the slot constraint settles races with other nodes
+        Appointment savedAppointment = bookingLocks.withLocks(slots, () -> {
+            if (!slotAvailabilityIndex.isAvailable(booking)) {
+                throw new AppointmentAlreadyBookedException("The time slot is already booked");
+            }
+            requireNotHeld(slots, holdToken);
+            Appointment saved = claimInTransaction(List.of(booking), () -> {
+                Appointment inserted = appointmentRepository.save(appointment);
+                claimSlots(inserted.getId(), slots);
+                // Queue email notification for new appointment; sent after commit by NotificationDispatcher
+                notificationOutbox.email(
+                        inserted.getPatientEmail(),
+                        "Appointment Confirmation",
+                        "Your appointment has been successfully booked for " + inserted.getAppointmentTime(),
+                        inserted.getId()
+                );
+                return inserted;
+            });
+            slotAvailabilityIndex.book(booking);
+            slotHoldRegistry.confirm(holdToken);
+            return saved;
+        });
+        reminderScheduler.onScheduled(savedAppointment);
+        appointmentBoardStream.created(convertToDto(savedAppointment));
 
-        // Send email notification for new appointment
-        emailService.sendEmail(
-                appointment.getPatientEmail(),
-                "Appointment Confirmation",
-                "Your appointment has been successfully booked for " + appointment.getAppointmentTime()
-        );
        //mobileService.MobileNotification(appointment.getContact(),appointment.getPatientName(),"Appointment is Confirmed");
         return savedAppointment;
     }
 
+    /**
+     * Run the write in one transaction; a slot constraint violation becomes AppointmentAlreadyBookedException
+     */
+    private <T> T claimInTransaction(Collection<Booking> bookings, Supplier<T> write) {
+        try {
+            return transactionTemplate.execute(status -> write.get());
+        } catch (DataIntegrityViolationException e) {
+            if (!isSlotConflict(e)) {
+                throw e;
+            }
+            // Another node took a slot: this node's view of the days is stale
+            for (Booking booking : bookings) {
+                LocalDateTime end = booking.end();
+                for (LocalDate day = booking.start().toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+                    slotAvailabilityIndex.invalidate(booking.doctorId(), day);
+                }
+            }
+            throw new AppointmentAlreadyBookedException("The time slot is already booked");
+        }
+    }
+
+    // ==================== RECURRING SERIES ====================
+
+    /**
+     * Book every occurrence of a recurring series in one go. All occurrences are checked in one
+     * pass over days preloaded with a single query, under the locks of all their slots; the
+     * series, its appointments and their slots are then inserted in one JDBC-batched
+     * transaction with one confirmation email. Occurrences that are taken or outside the
+     * doctor's roster fail the whole series, or are skipped, as onConflict says.
+     */
+    public SeriesBooking bookSeries(AppointmentSeriesRequest request) {
+        Appointment template = request.getAppointment();
+        OnConflict onConflict = request.getOnConflict() != null ? request.getOnConflict() : seriesProperties.getOnConflict();
+        Long doctorId = template.getDoctor() != null ? template.getDoctor().getId() : null;
+        int duration = slotAvailabilityIndex.durationOf(template.getDurationMinutes());
+        List<Booking> bookings = occurrencesOf(request).stream()
+                .map(time -> new Booking(doctorId, time, duration))
+                .collect(Collectors.toList());
+
+        if (doctorId != null) {
+            slotAvailabilityIndex.preload(List.of(doctorId), bookings.get(0).start().toLocalDate(),
+                    bookings.get(bookings.size() - 1).end().toLocalDate());
+        }
+        Set<SlotKey> lockedSlots = new HashSet<>();
+        bookings.forEach(booking -> lockedSlots.addAll(slotAvailabilityIndex.slotsOf(booking)));
+
+        SeriesBooking result = bookingLocks.withLocks(lockedSlots, () -> {
+            List<Booking> free = new ArrayList<>();
+            List<LocalDateTime> skipped = new ArrayList<>();
+            for (Booking booking : bookings) {
+                if (rosterCalendar.isWorking(booking) && slotAvailabilityIndex.isAvailable(booking)
+                        && !slotHoldRegistry.isHeld(slotAvailabilityIndex.slotsOf(booking), null)) {
+                    free.add(booking);
+                } else {
+                    skipped.add(booking.start());
+                }
+            }
+            if (free.isEmpty() || (!skipped.isEmpty() && onConflict == OnConflict.FAIL)) {
+                throw new AppointmentAlreadyBookedException(skipped.size() + " of " + bookings.size()
+                        + " occurrences are unavailable: " + skipped);
+            }
+            SeriesBooking saved = claimInTransaction(free, () -> {
+                AppointmentSeries series = appointmentSeriesRepository.save(new AppointmentSeries(doctorId,
+                        request.getFrequency(), intervalOf(request), free.get(0).start(), free.size()));
+                List<Appointment> inserted = appointmentRepository.saveAll(free.stream()
+                        .map(booking -> occurrenceOf(template, booking.start(), series.getId()))
+                        .collect(Collectors.toList()));
+                List<AppointmentSlot> slots = new ArrayList<>();
+                for (int i = 0; i < inserted.size(); i++) {
+                    for (SlotKey slot : slotAvailabilityIndex.slotsOf(free.get(i))) {
+                        slots.add(new AppointmentSlot(slot.doctorId(), slot.slotStart(), inserted.get(i).getId()));
+                    }
+                }
+                appointmentSlotRepository.insertAll(slots);
+                // One email for the whole series
+                notificationOutbox.email(
+                        template.getPatientEmail(),
+                        "Appointment Series Confirmation",
+                        "Your appointments have been successfully booked for "
+                                + inserted.stream().map(a -> a.getAppointmentTime().toString()).collect(Collectors.joining(", ")),
+                        inserted.get(0).getId()
+                );
+                return new SeriesBooking(series.getId(), inserted, skipped);
+            });
+            free.forEach(slotAvailabilityIndex::book);
+            return saved;
+        });
+        for (Appointment booked : result.booked()) {
+            reminderScheduler.onScheduled(booked);
+            appointmentBoardStream.created(convertToDto(booked));
+        }
+        return result;
+    }
+
+    /**
+     * Start times of the series in time order, from the first appointment's time
+     */
+    private List<LocalDateTime> occurrencesOf(AppointmentSeriesRequest request) {
+        LocalDateTime first = request.getAppointment().getAppointmentTime();
+        if (request.getCount() == null && request.getUntil() == null) {
+            throw new IllegalArgumentException("A series needs a count or an until date");
+        }
+        if (request.getCount() != null && request.getCount() < 1) {
+            throw new IllegalArgumentException("A series needs at least one occurrence");
+        }
+        int maxOccurrences = seriesProperties.getMaxOccurrences();
+        if (request.getCount() != null && request.getCount() > maxOccurrences) {
+            throw new IllegalArgumentException("A series is limited to " + maxOccurrences + " occurrences");
+        }
+        int count = request.getCount() != null ? request.getCount() : maxOccurrences + 1;
+        LocalDate firstDay = first.toLocalDate();
+        LocalDate until = request.getUntil() != null ? request.getUntil() : LocalDate.MAX;
+        if (until.isBefore(firstDay)) {
+            throw new IllegalArgumentException("The series ends before it starts");
+        }
+        int interval = intervalOf(request);
+
+        List<LocalDate> days = new ArrayList<>();
+        if (request.getFrequency() == AppointmentSeries.Frequency.DAILY) {
+            for (LocalDate day = firstDay; days.size() < count && !day.isAfter(until); day = day.plusDays(interval)) {
+                days.add(day);
+            }
+        } else {
+            // Weekdays of every interval-th week, counted from the first appointment's week
+            EnumSet<DayOfWeek> weekdays = request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty()
+                    ? EnumSet.of(first.getDayOfWeek())
+                    : EnumSet.copyOf(request.getDaysOfWeek());
+            LocalDate week = firstDay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            while (days.size() < count && !week.isAfter(until)) {
+                for (DayOfWeek weekday : weekdays) {
+                    LocalDate day = week.plusDays(weekday.ordinal());
+                    if (!day.isBefore(firstDay) && !day.isAfter(until) && days.size() < count) {
+                        days.add(day);
+                    }
+                }
+                week = week.plusWeeks(interval);
+            }
+        }
+        if (days.isEmpty()) {
+            throw new IllegalArgumentException("The series has no occurrences before its until date");
+        }
+        if (days.size() > maxOccurrences) {
+            throw new IllegalArgumentException("A series is limited to " + maxOccurrences + " occurrences");
+        }
+        return days.stream().map(day -> day.atTime(first.toLocalTime())).collect(Collectors.toList());
+    }
+
+    private static int intervalOf(AppointmentSeriesRequest request) {
+        return request.getInterval() != null ? request.getInterval() : 1;
+    }
+
+    // One occurrence of a series: the first appointment's details at another time
+    private static Appointment occurrenceOf(Appointment template, LocalDateTime time, Long seriesId) {
+        Appointment occurrence = new Appointment(null, template.getPatientName(), template.getDoctor(),
+                template.getPatient(), null, time, template.getStatus(), template.getDetails(),
+                template.getPatientEmail());
+        occurrence.setDurationMinutes(template.getDurationMinutes());
+        occurrence.setSeriesId(seriesId);
+        return occurrence;
+    }
+
+    // Slots held for another booking in progress cannot be taken until the hold ends
+    private void requireNotHeld(Collection<SlotKey> slots, String holdToken) {
+        if (slotHoldRegistry.isHeld(slots, holdToken)) {
+            throw new AppointmentAlreadyBookedException("The time slot is held for another booking");
+        }
+    }
+
+    // Rostered doctors can only be booked on their slots within working hours
+    private void requireWorking(Booking booking) {
+        if (!rosterCalendar.isWorking(booking)) {
+            throw new DoctorUnavailableException("The doctor is not available at " + booking.start()
+                    + " for " + booking.durationMinutes() + " minutes");
+        }
+    }
+
+    // Queue email notification for updated appointment, inside the update's transaction
+    private void queueUpdateNotification(Appointment updated) {
+        notificationOutbox.email(
+                updated.getPatientEmail(),
+                "Appointment Updated",
+                "Your appointment has been updated to " + updated.getAppointmentTime(),
+                updated.getId()
+        );
+    }
+
+    private void claimSlots(Long appointmentId, List<SlotKey> slots) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        appointmentSlotRepository.insertAll(slots.stream()
+                .map(slot -> new AppointmentSlot(slot.doctorId(), slot.slotStart(), appointmentId))
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean isSlotConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(SLOT_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Whether the appointment should hold slots on its doctor's schedule
+    private static boolean holdsSlots(Appointment appointment) {
+        return appointment.getAppointmentTime() != null
+                && SlotAvailabilityIndex.holdsSlot(appointment.getStatus());
+    }
+
     
     public Appointment getAppointmentById(Long id) {
         return appointmentRepository.findById(id)
@@ -60,12 +358,16 @@ public class AppointmentService {
 
     // Checking the appointment status for the day
     public List<AppointmentDto> getAppointmentsForDay(LocalDate date) {
+        return getAppointmentsForDay(date, null);
+    }
+
+    // Day board, optionally for one doctor: a single joined projection query, no entity loading
+    public List<AppointmentDto> getAppointmentsForDay(LocalDate date, Long doctorId) {
         LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<Appointment> appointments = appointmentRepository.findByAppointmentTimeBetween(startOfDay, endOfDay);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        LocalDateTime startOfNextDay = date.plusDays(1).atStartOfDay();
+        return doctorId != null
+                ? appointmentRepository.findDayBoardByDoctor(doctorId, startOfDay, startOfNextDay)
+                : appointmentRepository.findDayBoard(startOfDay, startOfNextDay);
     }
 
     // Convert Appointment entity to AppointmentDto
@@ -115,19 +417,71 @@ public class AppointmentService {
         Appointment existingAppointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found!"));
 
+        Booking previous = slotAvailabilityIndex.bookingOf(existingAppointment);
+        boolean previouslyHeld = holdsSlots(existingAppointment);
         existingAppointment.setAppointmentTime(updatedAppointment.getAppointmentTime());
         existingAppointment.setDetails(updatedAppointment.getDetails());
+        if (updatedAppointment.getDurationMinutes() != null) {
+            existingAppointment.setDurationMinutes(updatedAppointment.getDurationMinutes());
+        }
         if (updatedAppointment.getStatus() != null) {
-            existingAppointment.setStatus(updatedAppointment.getStatus());
+            AppointmentStatus currentStatus = existingAppointment.getStatus();
+            existingAppointment.setStatus(currentStatus != null
+                    ? currentStatus.transitionTo(updatedAppointment.getStatus())
+                    : updatedAppointment.getStatus());
+        }
+        Booking current = slotAvailabilityIndex.bookingOf(existingAppointment);
+        boolean held = holdsSlots(existingAppointment);
+        if (held && !current.equals(previous)) {
+            requireWorking(current);
         }
-        Appointment updated = appointmentRepository.save(existingAppointment);
 
-        // Send email notification for updated appointment
-        emailService.sendEmail(
-                updated.getPatientEmail(),
-                "Appointment Updated",
-                "Your appointment has been updated to " + updated.getAppointmentTime()
-        );
+        Appointment updated;
+        if (current.equals(previous) && held == previouslyHeld) {
+            updated = transactionTemplate.execute(status -> {
+                Appointment written = appointmentRepository.save(existingAppointment);
+                queueUpdateNotification(written);
+                return written;
+            });
+        } else {
+            // Moved, resized or cancelled: swap the claimed slots under the locks of both ranges
+            List<SlotKey> previousSlots = previouslyHeld ? slotAvailabilityIndex.slotsOf(previous) : List.of();
+            List<SlotKey> currentSlots = held ? slotAvailabilityIndex.slotsOf(current) : List.of();
+            Set<SlotKey> lockedSlots = new HashSet<>(previousSlots);
+            lockedSlots.addAll(currentSlots);
+
+            updated = bookingLocks.withLocks(lockedSlots, () -> {
+                if (previouslyHeld) {
+                    slotAvailabilityIndex.release(previous);
+                }
+                Appointment saved;
+                try {
+                    if (held && !slotAvailabilityIndex.isAvailable(current)) {
+                        throw new AppointmentAlreadyBookedException("The time slot is already booked");
+                    }
+                    requireNotHeld(currentSlots, null);
+                    saved = claimInTransaction(List.of(current), () -> {
+                        Appointment written = appointmentRepository.save(existingAppointment);
+                        appointmentSlotRepository.deleteByAppointmentId(appointmentId);
+                        claimSlots(appointmentId, currentSlots);
+                        queueUpdateNotification(written);
+                        return written;
+                    });
+                } catch (RuntimeException e) {
+                    if (previouslyHeld) {
+                        slotAvailabilityIndex.book(previous);
+                    }
+                    throw e;
+                }
+                if (held) {
+                    slotAvailabilityIndex.book(current);
+                }
+                return saved;
+            });
+        }
+        reminderScheduler.onScheduled(updated);
+        appointmentBoardStream.updated(convertToDto(updated), previous.start(), previous.doctorId());
+
         //mobileService.MobileNotification(updatedAppointment.getContact(),updatedAppointment.getPatientName(),"Appointment is Updated. Now scheduled appointment time is : "+updatedAppointment.getAppointmentTime());
         return updated;
     }
@@ -138,45 +492,105 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found!"));
 
-        appointmentRepository.deleteById(appointmentId);
+        transactionTemplate.executeWithoutResult(status -> {
+            appointmentSlotRepository.deleteByAppointmentId(appointmentId);
+            appointmentRepository.deleteById(appointmentId);
+            // Queue email notification for canceled appointment
+            notificationOutbox.email(
+                    appointment.getPatientEmail(),
+                    "Appointment Cancellation",
+                    "Your appointment scheduled for " + appointment.getAppointmentTime() + " has been canceled.",
+                    appointmentId
+            );
+        });
+        if (holdsSlots(appointment)) {
+            slotAvailabilityIndex.release(slotAvailabilityIndex.bookingOf(appointment));
+        }
+        reminderScheduler.onRemoved(appointmentId);
+        appointmentBoardStream.removed(appointmentId, appointment.getAppointmentTime(),
+                appointment.getDoctor() != null ? appointment.getDoctor().getId() : null);
 
-        // Send email notification for canceled appointment
-        emailService.sendEmail(
-                appointment.getPatientEmail(),
-                "Appointment Cancellation",
-                "Your appointment scheduled for " + appointment.getAppointmentTime() + " has been canceled."
-        );
         //mobileService.MobileNotification(appointment.getContact(),appointment.getPatientName(),"Appointment is Cancelled");
     }
 
-    // Check time slot availability
+    // Check time slot availability (appointments without a doctor, default duration)
     public boolean isTimeSlotAvailable(LocalDateTime time) {
-        List<Appointment> existingAppointments = appointmentRepository.findByAppointmentTimeBetween(
-                time.minusMinutes(1), time.plusMinutes(1));
-        return existingAppointments.isEmpty();
+        return isTimeSlotAvailable(null, time, null);
+    }
+
+    // Check whether a doctor is working and free for the given duration starting at time
+    public boolean isTimeSlotAvailable(Long doctorId, LocalDateTime time, Integer durationMinutes) {
+        Booking booking = new Booking(doctorId, time, slotAvailabilityIndex.durationOf(durationMinutes));
+        return rosterCalendar.isWorking(booking) && slotAvailabilityIndex.isAvailable(booking)
+                && !slotHoldRegistry.isHeld(slotAvailabilityIndex.slotsOf(booking), null);
+    }
+
+    // ==================== SLOT HOLDS ====================
+
+    /**
+     * Hold a free slot while its booking is filled in; in-memory only, so cheap enough for every
+     * slot click. Other bookings of the slot are refused until the hold is confirmed by
+     * saveAppointment, released, or expires.
+     */
+    public SlotHoldDto holdSlot(Long doctorId, LocalDateTime time, Integer durationMinutes) {
+        if (time == null || !time.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Only future slots can be held");
+        }
+        Booking booking = new Booking(doctorId, time, slotAvailabilityIndex.durationOf(durationMinutes));
+        requireWorking(booking);
+        List<SlotKey> slots = slotAvailabilityIndex.slotsOf(booking);
+
+        // Under the booking locks, so a hold and a booking of the same slot cannot both succeed
+        Hold hold = bookingLocks.withLocks(slots, () -> {
+            if (!slotAvailabilityIndex.isAvailable(booking)) {
+                throw new AppointmentAlreadyBookedException("The time slot is already booked");
+            }
+            Hold created = slotHoldRegistry.tryHold(booking, slots);
+            if (created == null) {
+                throw new AppointmentAlreadyBookedException("The time slot is held for another booking");
+            }
+            return created;
+        });
+        return new SlotHoldDto(hold.token(), doctorId, booking.start(), booking.end(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.expiresAtMillis()), ZoneId.systemDefault()));
     }
 
-    // Get appointments by status
-    public List<Appointment> getAppointmentByStatus(String status) {
-        return appointmentRepository.findByStatusIgnoreCase(status);
+    // Release a hold that is no longer wanted
+    public void releaseHold(String token) {
+        if (!slotHoldRegistry.release(token)) {
+            throw new IllegalArgumentException("Slot hold not found or already ended: " + token);
+        }
+    }
+
+    // Get appointments by status - one page, most recent first
+    public CursorPage<AppointmentDto> getAppointmentByStatus(String status, String cursor, int limit) {
+        AppointmentStatus parsed = AppointmentStatus.from(status);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Status is mandatory");
+        }
+        int pageSize = paginationProperties.pageSize(limit);
+        TimeAndId before = KeysetCursors.beforeTimeAndId(cursor);
+        return boardPage(appointmentRepository.findBoardPageByStatus(
+                parsed, before.time(), before.id(), KeysetCursors.rows(pageSize)), pageSize);
     }
 
     // ==================== CONSULTS METHODS ====================
 
-    // Get all completed appointments (consults) - ordered by most recent first
-    public List<AppointmentDto> getCompletedAppointments() {
-        List<Appointment> completed = appointmentRepository.findByStatusIgnoreCaseOrderByAppointmentTimeDesc("Completed");
-        return completed.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // Get completed appointments (consults) - one page, most recent first
+    public CursorPage<AppointmentDto> getCompletedAppointments(String cursor, int limit) {
+        return getAppointmentByStatus(AppointmentStatus.COMPLETED.name(), cursor, limit);
     }
 
-    // Get completed appointments by patient ID
-    public List<AppointmentDto> getCompletedAppointmentsByPatientId(Long patientId) {
-        List<Appointment> completed = appointmentRepository.findByPatient_IdAndStatusIgnoreCase(patientId, "Completed");
-        return completed.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // Get completed appointments by patient ID - one page, most recent first
+    public CursorPage<AppointmentDto> getCompletedAppointmentsByPatientId(Long patientId, String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        TimeAndId before = KeysetCursors.beforeTimeAndId(cursor);
+        return boardPage(appointmentRepository.findBoardPageByPatientAndStatus(patientId,
+                AppointmentStatus.COMPLETED, before.time(), before.id(), KeysetCursors.rows(pageSize)), pageSize);
+    }
+
+    private static CursorPage<AppointmentDto> boardPage(List<AppointmentDto> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize, dto -> CursorCodec.encode(dto.getAppointmentTime(), dto.getId()));
     }
 
     // Get all appointments by patient ID (for history)
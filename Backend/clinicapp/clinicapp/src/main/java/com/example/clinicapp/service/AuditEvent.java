@@ -0,0 +1,22 @@
+package com.example.clinicapp.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable audit record captured on the request thread.
+ *
+ * Everything that depends on the request (user, IP, method, user agent) is resolved
+ * before the event is handed to {@link AuditWriter}, whose thread has no request context.
+ */
+public record AuditEvent(String username,
+                         String action,
+                         String resourceType,
+                         Long resourceId,
+                         String ipAddress,
+                         String method,
+                         String userAgent,
+                         String details,
+                         LocalDateTime timestamp,
+                         Integer responseStatus,
+                         Long durationMs) {
+}
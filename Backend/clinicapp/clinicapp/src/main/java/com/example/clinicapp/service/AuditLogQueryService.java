@@ -0,0 +1,273 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AuditProperties;
+import com.example.clinicapp.dto.AuditLogQuery;
+import com.example.clinicapp.dto.CursorPage;
+import com.example.clinicapp.entity.AuditLog;
+import com.example.clinicapp.util.CursorCodec;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded reads of audit_logs.
+ *
+ * Listings are keyset-paginated on (timestamp, id), newest first, so every page costs the
+ * same regardless of depth. Exports stream rows from a forward-only JDBC cursor with a
+ * fixed fetch size straight to the response, keeping memory constant for any row count.
+ * MySQL Connector/J ignores a positive fetch size and buffers the whole result unless the
+ * URL sets useCursorFetch=true, so on MySQL exports stream row by row instead
+ * (fetch size Integer.MIN_VALUE).
+ */
+@Service
+public class AuditLogQueryService {
+
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+
+    private static final String COLUMNS = "id, username, action, resource_type, resource_id, ip_address, " +
+            "timestamp, details, method, user_agent, response_status, duration_ms";
+    private static final String[] CSV_HEADER = {"id", "username", "action", "resourceType", "resourceId",
+            "ipAddress", "timestamp", "details", "method", "userAgent", "responseStatus", "durationMs"};
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPageSize;
+    private final int exportFetchSize;
+    private volatile JdbcTemplate exportTemplate;
+
+    public AuditLogQueryService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                AuditProperties auditProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPageSize = auditProperties.getQuery().getMaxPageSize();
+        this.exportFetchSize = auditProperties.getQuery().getExportFetchSize();
+        // PostgreSQL only honours the fetch size inside a transaction (autocommit off)
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * One page of matching audit rows, newest first, after the given cursor (null for the first page)
+     */
+    public CursorPage<AuditLog> findPage(AuditLogQuery query, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM audit_logs");
+        appendFilters(sql, args, query);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            Timestamp timestamp;
+            long id;
+            try {
+                timestamp = Timestamp.valueOf(LocalDateTime.parse(parts[0]));
+                id = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            // The plain timestamp bound lets the planner prune partitions; the row comparison breaks ties
+            sql.append(args.isEmpty() ? " WHERE " : " AND ")
+               .append("timestamp <= ? AND (timestamp, id) < (?, ?)");
+            args.add(timestamp);
+            args.add(timestamp);
+            args.add(id);
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<AuditLog> rows = jdbcTemplate.query(sql.toString(), AUDIT_LOG_MAPPER, args.toArray());
+        return CursorPage.of(rows, pageSize, log -> CursorCodec.encode(log.getTimestamp(), log.getId()));
+    }
+
+    /**
+     * Stream every matching row to the output in the given format, newest first.
+     * Returns the number of rows written.
+     */
+    public long export(AuditLogQuery query, ExportFormat format, OutputStream out) throws IOException {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM audit_logs");
+        appendFilters(sql, args, query);
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = format == ExportFormat.NDJSON ? JSON_FACTORY.createGenerator(writer) : null;
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(writer, CSV_HEADER);
+        }
+        long[] count = {0};
+        JdbcTemplate template = exportTemplate();
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    template.query(sql.toString(), rs -> {
+                        try {
+                            if (json != null) {
+                                writeJson(json, rs);
+                            } else {
+                                writeCsv(writer, rs);
+                            }
+                        } catch (IOException e) {
+                            // Client went away: abandon the cursor
+                            throw new UncheckedIOException(e);
+                        }
+                        count[0]++;
+                    }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * Template for exports, with the fetch size that makes the database's driver stream
+     */
+    private JdbcTemplate exportTemplate() {
+        JdbcTemplate template = exportTemplate;
+        if (template == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            template = new JdbcTemplate(jdbcTemplate.getDataSource());
+            // Connector/J streams a result set only with this fetch size
+            template.setFetchSize("MySQL".equals(product) ? Integer.MIN_VALUE : exportFetchSize);
+            exportTemplate = template;
+        }
+        return template;
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> args, AuditLogQuery query) {
+        List<String> conditions = new ArrayList<>();
+        if (query.getUsername() != null && !query.getUsername().isBlank()) {
+            conditions.add("username = ?");
+            args.add(query.getUsername());
+        }
+        if (query.getAction() != null && !query.getAction().isBlank()) {
+            conditions.add("action = ?");
+            args.add(query.getAction());
+        }
+        if (query.getResourceType() != null && !query.getResourceType().isBlank()) {
+            conditions.add("resource_type = ?");
+            args.add(query.getResourceType());
+        }
+        if (query.getResourceId() != null) {
+            conditions.add("resource_id = ?");
+            args.add(query.getResourceId());
+        }
+        if (query.getFrom() != null) {
+            conditions.add("timestamp >= ?");
+            args.add(Timestamp.valueOf(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            conditions.add("timestamp < ?");
+            args.add(Timestamp.valueOf(query.getTo()));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static final RowMapper<AuditLog> AUDIT_LOG_MAPPER = (rs, rowNum) -> {
+        AuditLog log = new AuditLog();
+        log.setId(rs.getLong("id"));
+        log.setUsername(rs.getString("username"));
+        log.setAction(rs.getString("action"));
+        log.setResourceType(rs.getString("resource_type"));
+        log.setResourceId(rs.getObject("resource_id", Long.class));
+        log.setIpAddress(rs.getString("ip_address"));
+        log.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        log.setDetails(rs.getString("details"));
+        log.setMethod(rs.getString("method"));
+        log.setUserAgent(rs.getString("user_agent"));
+        log.setResponseStatus(rs.getObject("response_status", Integer.class));
+        log.setDurationMs(rs.getObject("duration_ms", Long.class));
+        return log;
+    };
+
+    private static void writeJson(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong("id"));
+        json.writeStringField("username", rs.getString("username"));
+        json.writeStringField("action", rs.getString("action"));
+        json.writeStringField("resourceType", rs.getString("resource_type"));
+        writeNullableNumber(json, "resourceId", rs.getObject("resource_id", Long.class));
+        json.writeStringField("ipAddress", rs.getString("ip_address"));
+        json.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+        json.writeStringField("details", rs.getString("details"));
+        json.writeStringField("method", rs.getString("method"));
+        json.writeStringField("userAgent", rs.getString("user_agent"));
+        writeNullableNumber(json, "responseStatus", rs.getObject("response_status", Long.class));
+        writeNullableNumber(json, "durationMs", rs.getObject("duration_ms", Long.class));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeNullableNumber(JsonGenerator json, String field, Long value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeCsv(Writer writer, ResultSet rs) throws IOException, SQLException {
+        writeCsvRow(writer, new String[] {
+                rs.getString("id"),
+                rs.getString("username"),
+                rs.getString("action"),
+                rs.getString("resource_type"),
+                rs.getString("resource_id"),
+                rs.getString("ip_address"),
+                rs.getTimestamp("timestamp").toLocalDateTime().toString(),
+                rs.getString("details"),
+                rs.getString("method"),
+                rs.getString("user_agent"),
+                rs.getString("response_status"),
+                rs.getString("duration_ms")
+        });
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AuditProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition maintenance and retention for audit_logs.
+ *
+ * On PostgreSQL with audit_logs partitioned by month (see V6__partition_audit_logs.sql),
+ * upcoming monthly partitions are created ahead of time and partitions wholly older than
+ * the retention period are dropped or detached. Rows the partitions do not cover (the
+ * default partition, or a database where audit_logs is a plain table) are deleted in
+ * bounded chunks, each in its own transaction, so no purge holds locks on millions of rows.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRetentionService.class);
+
+    private static final String TABLE = "audit_logs";
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+            "WHERE c.relname = ? AND pg_table_is_visible(c.oid)";
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? AND pg_table_is_visible(p.oid)";
+    // Ids first, then a delete by id list: MySQL rejects LIMIT in an IN subquery and a
+    // subquery on the delete's own table (error 1093)
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id FROM audit_logs WHERE timestamp < ? ORDER BY id LIMIT ?";
+    // The timestamp bound lets PostgreSQL prune partitions for the delete itself
+    private static final String DELETE_CHUNK_SQL = "DELETE FROM audit_logs WHERE timestamp < ? AND id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties.Retention retention;
+    private volatile Boolean partitioned;
+
+    public AuditRetentionService(JdbcTemplate jdbcTemplate, AuditProperties auditProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = auditProperties.getRetention();
+    }
+
+    /**
+     * Create missing partitions as soon as the application is up, so inserts for the
+     * current month never fall into the default partition
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            ensurePartitions(YearMonth.now());
+        } catch (DataAccessException e) {
+            logger.warn("Could not create audit partitions: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.audit.retention.cron:0 30 2 * * *}")
+    public void runMaintenance() {
+        try {
+            ensurePartitions(YearMonth.now());
+            if (retention.isEnabled()) {
+                purge(LocalDate.now().minus(retention.getPeriod()).atStartOfDay());
+            }
+        } catch (DataAccessException e) {
+            logger.error("Audit retention run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Create partitions for the given month and the configured number of months ahead.
+     * No-op unless audit_logs is a partitioned PostgreSQL table.
+     */
+    public void ensurePartitions(YearMonth from) {
+        if (!isPartitioned()) {
+            return;
+        }
+        for (int i = 0; i <= retention.getPremakeMonths(); i++) {
+            YearMonth month = from.plusMonths(i);
+            String sql = String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(month), TABLE, month.atDay(1), month.plusMonths(1).atDay(1));
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (DataAccessException e) {
+                // Typically rows for that month already sit in the default partition
+                logger.warn("Could not create audit partition {}: {}", partitionName(month), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove audit rows older than the cutoff: whole partitions first, then chunked deletes
+     * for whatever is left. Returns the number of rows deleted by the chunked phase.
+     */
+    public long purge(LocalDateTime cutoff) {
+        if (isPartitioned()) {
+            List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, TABLE);
+            for (String partition : partitions) {
+                Optional<YearMonth> month = partitionMonth(partition);
+                if (month.isPresent() && !month.get().plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                    removePartition(partition);
+                }
+            }
+        }
+        return deleteInChunks(cutoff);
+    }
+
+    private void removePartition(String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+        if (retention.getPartitionAction() == AuditProperties.Retention.PartitionAction.DROP) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            logger.info("Dropped expired audit partition {}", partition);
+        } else {
+            logger.info("Detached expired audit partition {}", partition);
+        }
+    }
+
+    private long deleteInChunks(LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        long deleted = 0;
+        for (int chunk = 0; chunk < retention.getMaxChunksPerRun(); chunk++) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, Long.class, before, retention.getChunkSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            Object[] args = new Object[ids.size() + 1];
+            args[0] = before;
+            for (int i = 0; i < ids.size(); i++) {
+                args[i + 1] = ids.get(i);
+            }
+            // Each update runs in its own transaction
+            deleted += jdbcTemplate.update(
+                    String.format(DELETE_CHUNK_SQL, String.join(",", Collections.nCopies(ids.size(), "?"))), args);
+            if (ids.size() < retention.getChunkSize()) {
+                break;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Purged {} audit log rows older than {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            Integer count = "PostgreSQL".equals(product)
+                    ? jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Integer.class, TABLE)
+                    : null;
+            result = count != null && count > 0;
+            partitioned = result;
+        }
+        return result;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> partitionMonth(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.clinicapp.service;
 
+import com.example.clinicapp.dto.AuditLogQuery;
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.entity.AuditLog;
-import com.example.clinicapp.repository.AuditLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -14,13 +14,13 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Audit Service
  * 
  * Provides centralized audit logging for HIPAA §164.312(b) compliance.
- * Logs all security-relevant events asynchronously to avoid performance impact.
+ * Logs all security-relevant events asynchronously (batched by {@link AuditWriter})
+ * to avoid performance impact.
  */
 @Service
 public class AuditService {
@@ -28,34 +28,34 @@ public class AuditService {
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditWriter auditWriter;
+
+    @Autowired
+    private FailedLoginTracker failedLoginTracker;
+
+    @Autowired
+    private AuditLogQueryService auditLogQueryService;
 
     /**
-     * Log an audit event asynchronously
+     * Log an audit event. Request context is captured here, on the calling thread;
+     * the database write happens in batches on the audit writer thread.
      */
-    @Async
     public void log(String action, String resourceType, Long resourceId, String details) {
         try {
-            String username = getCurrentUsername();
-            String ipAddress = getClientIpAddress();
-            String method = getHttpMethod();
-            String userAgent = getUserAgent();
-
-            AuditLog auditLog = AuditLog.builder()
-                .username(username)
-                .action(action)
-                .resourceType(resourceType)
-                .resourceId(resourceId)
-                .ipAddress(ipAddress)
-                .method(method)
-                .details(details)
-                .userAgent(userAgent)
-                .build();
-
-            auditLogRepository.save(auditLog);
-            logger.debug("Audit log saved: {} - {} - {}", action, resourceType, username);
+            auditWriter.submit(new AuditEvent(
+                getCurrentUsername(),
+                action,
+                resourceType,
+                resourceId,
+                getClientIpAddress(),
+                getHttpMethod(),
+                getUserAgent(),
+                details,
+                LocalDateTime.now(),
+                null,
+                null));
         } catch (Exception e) {
-            logger.error("Failed to save audit log: {}", e.getMessage());
+            logger.error("Failed to queue audit log: {}", e.getMessage());
         }
     }
 
@@ -71,20 +71,18 @@ public class AuditService {
      */
     public void logAuthEvent(String action, String username, String details) {
         try {
-            String ipAddress = getClientIpAddress();
-            String userAgent = getUserAgent();
-
-            AuditLog auditLog = AuditLog.builder()
-                .username(username)
-                .action(action)
-                .resourceType("AUTH")
-                .ipAddress(ipAddress)
-                .method("POST")
-                .details(details)
-                .userAgent(userAgent)
-                .build();
-
-            auditLogRepository.save(auditLog);
+            auditWriter.submit(new AuditEvent(
+                username,
+                action,
+                "AUTH",
+                null,
+                getClientIpAddress(),
+                "POST",
+                getUserAgent(),
+                details,
+                LocalDateTime.now(),
+                null,
+                null));
             logger.info("Auth event logged: {} for user {}", action, username);
         } catch (Exception e) {
             logger.error("Failed to log auth event: {}", e.getMessage());
@@ -94,7 +92,6 @@ public class AuditService {
     /**
      * Log patient data access (HIPAA requirement)
      */
-    @Async
     public void logPatientAccess(Long patientId, String action, String details) {
         log(action, "PATIENT", patientId, details);
     }
@@ -102,35 +99,37 @@ public class AuditService {
     /**
      * Log prescription access
      */
-    @Async
     public void logPrescriptionAccess(Long prescriptionId, String action, String details) {
         log(action, "PRESCRIPTION", prescriptionId, details);
     }
 
     /**
-     * Get audit trail for a patient (for compliance reporting)
+     * Get audit trail for a patient (for compliance reporting), one page at a time
      */
-    public List<AuditLog> getPatientAuditTrail(Long patientId) {
-        return auditLogRepository.findAllPatientAccess(patientId);
+    public CursorPage<AuditLog> getPatientAuditTrail(Long patientId, String cursor, int limit) {
+        AuditLogQuery query = new AuditLogQuery();
+        query.setResourceType("PATIENT");
+        query.setResourceId(patientId);
+        return auditLogQueryService.findPage(query, cursor, limit);
     }
 
     /**
-     * Get user activity for security review
+     * Get user activity for security review, one page at a time
      */
-    public List<AuditLog> getUserActivity(String username, LocalDateTime since) {
-        return auditLogRepository.findRecentActivityByUsername(username, since);
+    public CursorPage<AuditLog> getUserActivity(String username, LocalDateTime since, String cursor, int limit) {
+        AuditLogQuery query = new AuditLogQuery();
+        query.setUsername(username);
+        query.setFrom(since);
+        return auditLogQueryService.findPage(query, cursor, limit);
     }
 
     /**
-     * Check for suspicious activity (multiple failed logins)
+     * Check for suspicious activity (multiple failed logins in the last hour).
+     * Answered from the in-memory {@link FailedLoginTracker} windows.
      */
     public boolean isSuspiciousActivity(String username, String ipAddress) {
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        
-        long failedByUsername = auditLogRepository.countFailedLoginsByUsernameSince(
-            username, oneHourAgo);
-        long failedByIp = auditLogRepository.countFailedLoginsByIpSince(
-            ipAddress, oneHourAgo);
+        long failedByUsername = failedLoginTracker.countByUsername(username);
+        long failedByIp = failedLoginTracker.countByIp(ipAddress);
 
         // Flag as suspicious if > 5 failed attempts
         return failedByUsername > 5 || failedByIp > 10;
@@ -145,7 +144,10 @@ public class AuditService {
         return "anonymous";
     }
 
-    private String getClientIpAddress() {
+    /**
+     * Client IP of the current request (first X-Forwarded-For hop, then X-Real-IP)
+     */
+    public String getClientIpAddress() {
         try {
             ServletRequestAttributes attrs = 
                 (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -0,0 +1,420 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AuditProperties;
+import com.example.clinicapp.config.AuditProperties.BackpressurePolicy;
+import com.example.clinicapp.util.AuditSpool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batched, asynchronous writer for audit_logs.
+ *
+ * Request threads hand {@link AuditEvent}s to a bounded lock-free queue; a single writer
+ * thread drains it and inserts with JDBC batches, flushing when a batch fills up or the
+ * flush interval passes. Each batch commits as one transaction. When the queue is full the
+ * configured backpressure policy applies: BLOCK waits briefly for space, DROP discards the
+ * event (counted), SPILL appends it to the local {@link AuditSpool}.
+ *
+ * With app.audit.spool.write-ahead=true every event goes to the spool first, so a slow or
+ * unavailable database never blocks a request or loses a record. The writer drains the
+ * spool in batches, committing each batch together with the spool's replay marker
+ * (audit_spool_markers), so a crash between insert and marker update cannot duplicate rows.
+ */
+@Service
+public class AuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    static final String INSERT_SQL = "INSERT INTO audit_logs " +
+            "(username, action, resource_type, resource_id, ip_address, timestamp, details, method, " +
+            "user_agent, response_status, duration_ms) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_MARKER_SQL =
+            "SELECT segment_number, segment_offset FROM audit_spool_markers WHERE spool_id = ?";
+    private static final String UPDATE_MARKER_SQL =
+            "UPDATE audit_spool_markers SET segment_number = ?, segment_offset = ?, updated_at = ? WHERE spool_id = ?";
+    private static final String INSERT_MARKER_SQL =
+            "INSERT INTO audit_spool_markers (segment_number, segment_offset, updated_at, spool_id) VALUES (?, ?, ?, ?)";
+
+    // Back off spool draining while the database keeps failing
+    private static final long DRAIN_RETRY_BACKOFF_MILLIS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BackpressurePolicy backpressurePolicy;
+    private final long blockTimeoutNanos;
+    private final boolean writeAhead;
+    private final AuditSpool spool;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    // ConcurrentLinkedQueue is unbounded; the counter enforces the bound without locking
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    // Records appended to the spool since the last drain (approximate, only used to wake the writer)
+    private final AtomicInteger spooled = new AtomicInteger();
+
+    private volatile Thread writerThread;
+    private volatile boolean running;
+
+    // Drain state, only touched under drainLock
+    private final Object drainLock = new Object();
+    private AuditSpool.Position drainCursor;
+    private long nextDrainMillis;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter spooledCounter;
+    private final Counter failedCounter;
+    private final Counter corruptCounter;
+    private final Timer batchTimer;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       AuditProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacity = properties.getQueueCapacity();
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        this.backpressurePolicy = properties.getBackpressure();
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getBlockTimeoutMs());
+        this.spool = openSpool(properties.getSpool());
+        this.writeAhead = spool != null && properties.getSpool().isWriteAhead();
+
+        this.writtenCounter = outcomeCounter(meterRegistry, "written");
+        this.droppedCounter = outcomeCounter(meterRegistry, "dropped");
+        this.spooledCounter = outcomeCounter(meterRegistry, "spooled");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.corruptCounter = Counter.builder("audit.spool.corrupt")
+                .description("Spool records skipped because of a checksum or decode failure")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.batch.latency")
+                .description("Time to insert one batch of audit events")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.depth", queued, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        if (spool != null) {
+            Gauge.builder("audit.spool.segments", spool, AuditSpool::segmentCount)
+                    .description("Audit spool segments on disk")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static AuditSpool openSpool(AuditProperties.Spool settings) {
+        try {
+            return new AuditSpool(settings.resolveDirectory(),
+                    (int) settings.getSegmentSize().toBytes(),
+                    settings.getMaxSegments());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Audit spool unavailable at {}; continuing without it: {}",
+                    settings.resolveDirectory(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("audit.events")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        logger.info("Audit writer started: capacity {}, batch size {}, backpressure {}, write-ahead spool {}",
+                capacity, batchSize, backpressurePolicy, writeAhead);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Anything still queued (writer not started, or join timed out)
+        flush();
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * Hand an event to the writer. Never blocks longer than the BLOCK timeout.
+     */
+    public void submit(AuditEvent event) {
+        if (writeAhead && appendToSpool(event)) {
+            if (spooled.incrementAndGet() >= batchSize) {
+                wakeWriter();
+            }
+            return;
+        }
+        // Spool full or failing: fall back to the in-memory queue
+        if (tryEnqueue(event)) {
+            return;
+        }
+
+        switch (backpressurePolicy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (System.nanoTime() < deadline) {
+                    wakeWriter();
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                    if (tryEnqueue(event)) {
+                        return;
+                    }
+                }
+                droppedCounter.increment();
+                logger.warn("Audit queue full after waiting; dropped {} event", event.action());
+            }
+            case DROP -> droppedCounter.increment();
+            case SPILL -> {
+                if (!appendToSpool(event)) {
+                    droppedCounter.increment();
+                    logger.warn("Audit queue and spool full; dropped {} event", event.action());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write everything currently queued or spooled, in batches, on the calling thread
+     */
+    public void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        AuditEvent event;
+        while ((event = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(event);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+        drainSpool();
+    }
+
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    private boolean tryEnqueue(AuditEvent event) {
+        int depth = queued.incrementAndGet();
+        if (depth > capacity) {
+            queued.decrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        if (depth >= batchSize) {
+            wakeWriter();
+        }
+        return true;
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void runWriter() {
+        while (running || !queue.isEmpty()) {
+            if (running && queued.get() < batchSize && spooled.get() < batchSize) {
+                // Woken early by a full batch, otherwise flush on the interval
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                logger.error("Audit writer iteration failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void writeBatch(List<AuditEvent> batch) {
+        try {
+            // All or nothing, so a batch that fails part way can be spooled again without duplicates
+            transactionTemplate.executeWithoutResult(status -> batchTimer.record(() -> insert(batch)));
+            writtenCounter.increment(batch.size());
+        } catch (DataAccessException | TransactionException e) {
+            // Database trouble is not backpressure: keep the events if the spool can take them
+            int kept = 0;
+            for (AuditEvent event : batch) {
+                if (appendToSpool(event)) {
+                    kept++;
+                }
+            }
+            failedCounter.increment(batch.size() - kept);
+            logger.warn("Audit batch of {} failed ({}); {} spooled for retry", batch.size(), e.getMessage(), kept);
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setString(1, event.username());
+            ps.setString(2, event.action());
+            ps.setString(3, event.resourceType());
+            if (event.resourceId() != null) {
+                ps.setLong(4, event.resourceId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, event.ipAddress());
+            ps.setTimestamp(6, Timestamp.valueOf(event.timestamp()));
+            ps.setString(7, event.details());
+            ps.setString(8, event.method());
+            ps.setString(9, event.userAgent());
+            if (event.responseStatus() != null) {
+                ps.setInt(10, event.responseStatus());
+            } else {
+                ps.setNull(10, Types.INTEGER);
+            }
+            if (event.durationMs() != null) {
+                ps.setLong(11, event.durationMs());
+            } else {
+                ps.setNull(11, Types.BIGINT);
+            }
+        });
+    }
+
+    private boolean appendToSpool(AuditEvent event) {
+        if (spool == null) {
+            return false;
+        }
+        try {
+            if (spool.append(objectMapper.writeValueAsBytes(event))) {
+                spooledCounter.increment();
+                return true;
+            }
+        } catch (IOException e) {
+            logger.error("Failed to append audit event to spool: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Replay spooled events into audit_logs. Each batch is inserted in the same transaction
+     * as the replay marker, so the marker always points just past the last committed row.
+     */
+    private void drainSpool() {
+        if (spool == null) {
+            return;
+        }
+        synchronized (drainLock) {
+            long now = System.currentTimeMillis();
+            if (now < nextDrainMillis) {
+                return;
+            }
+            try {
+                if (drainCursor == null) {
+                    drainCursor = loadMarker();
+                }
+                spool.force();
+                spooled.set(0);
+                while (true) {
+                    AuditSpool.ReadResult result = spool.read(drainCursor, batchSize);
+                    if (result.corruptSegments() > 0) {
+                        corruptCounter.increment(result.corruptSegments());
+                        logger.error("Skipped {} corrupt audit spool segment tail(s) before {}",
+                                result.corruptSegments(), result.next());
+                    }
+                    if (result.records().isEmpty() && result.next().equals(drainCursor)) {
+                        break;
+                    }
+
+                    List<AuditEvent> events = decode(result.records());
+                    AuditSpool.Position next = result.next();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (!events.isEmpty()) {
+                            batchTimer.record(() -> insert(events));
+                        }
+                        saveMarker(next);
+                    });
+                    writtenCounter.increment(events.size());
+                    drainCursor = next;
+                    spool.release(next.segment());
+                }
+            } catch (DataAccessException | TransactionException | IOException | UncheckedIOException e) {
+                nextDrainMillis = now + DRAIN_RETRY_BACKOFF_MILLIS;
+                logger.warn("Audit spool drain failed, will retry: {}", e.getMessage());
+            }
+        }
+    }
+
+    private List<AuditEvent> decode(List<byte[]> records) {
+        List<AuditEvent> events = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            try {
+                events.add(objectMapper.readValue(record, AuditEvent.class));
+            } catch (IOException e) {
+                corruptCounter.increment();
+                logger.error("Skipping undecodable audit spool record: {}", e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private AuditSpool.Position loadMarker() {
+        List<AuditSpool.Position> markers = jdbcTemplate.query(SELECT_MARKER_SQL,
+                (rs, rowNum) -> new AuditSpool.Position(rs.getLong(1), rs.getLong(2)),
+                spool.getSpoolId());
+        if (!markers.isEmpty() && spool.contains(markers.get(0))) {
+            return markers.get(0);
+        }
+        // No marker yet, or its segment was already drained and released
+        return spool.start();
+    }
+
+    private void saveMarker(AuditSpool.Position position) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = jdbcTemplate.update(UPDATE_MARKER_SQL,
+                position.segment(), position.offset(), now, spool.getSpoolId());
+        if (updated == 0) {
+            jdbcTemplate.update(INSERT_MARKER_SQL,
+                    position.segment(), position.offset(), now, spool.getSpoolId());
+        }
+    }
+}
@@ -10,8 +10,11 @@ import com.example.clinicapp.repository.RoleRepository;
 import com.example.clinicapp.repository.RevokedTokenRepository;
 import com.example.clinicapp.repository.UserRepository;
 import com.example.clinicapp.util.JwtUtil;
+import com.example.clinicapp.util.TokenHashUtil;
+import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +42,16 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final PasswordVerificationService passwordVerificationService;
+    private final UserSecurityStateCache userSecurityStateCache;
+
+    // Adaptive BCrypt cost: re-hash on login when the stored cost differs from the target
+    @Value("${app.security.bcrypt.rehash-on-login:false}")
+    private boolean rehashOnLogin;
+
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
 
     public AuthService(UserRepository userRepository,
                        RoleRepository roleRepository,
@@ -45,7 +59,10 @@ public class AuthService {
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
                        JwtUtil jwtUtil,
-                       CustomUserDetailsService userDetailsService) {
+                       CustomUserDetailsService userDetailsService,
+                       RevokedTokenIndex revokedTokenIndex,
+                       PasswordVerificationService passwordVerificationService,
+                       UserSecurityStateCache userSecurityStateCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.revokedTokenRepository = revokedTokenRepository;
@@ -53,6 +70,9 @@ public class AuthService {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.passwordVerificationService = passwordVerificationService;
+        this.userSecurityStateCache = userSecurityStateCache;
     }
 
     @Transactional
@@ -98,13 +118,23 @@ public class AuthService {
         logger.info("User attempting to authenticate: {}", loginRequest.getUsername());
 
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()));
+            // BCrypt runs on the bounded verification pool, not the request thread
+            passwordVerificationService.verify(() -> {
+                authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                loginRequest.getUsername(),
+                                loginRequest.getPassword()));
+                if (rehashOnLogin) {
+                    rehashIfCostChanged(loginRequest.getUsername(), loginRequest.getPassword());
+                }
+                return null;
+            });
 
             UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-            String token = jwtUtil.generateToken(userDetails);
+            long tokenEpoch = userRepository.findByUsername(loginRequest.getUsername())
+                    .map(User::getTokenEpoch)
+                    .orElse(0L);
+            String token = jwtUtil.generateToken(userDetails, tokenEpoch);
             
             logger.info("User authenticated successfully: {}", loginRequest.getUsername());
             return token;
@@ -115,18 +145,80 @@ public class AuthService {
         }
     }
 
+    /**
+     * Re-hash a just-verified password when its BCrypt cost differs from the configured target
+     */
+    private void rehashIfCostChanged(String username, String rawPassword) {
+        userRepository.findByUsername(username).ifPresent(user -> {
+            int storedCost = bcryptCost(user.getPassword());
+            if (storedCost > 0 && storedCost != bcryptStrength) {
+                user.setPassword(passwordEncoder.encode(rawPassword));
+                userRepository.save(user);
+                logger.info("Re-hashed password for user {} from cost {} to {}", username, storedCost, bcryptStrength);
+            }
+        });
+    }
+
+    /**
+     * Cost factor of a BCrypt hash ($2a$10$...), or -1 if the hash is not BCrypt
+     */
+    static int bcryptCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(costStart, costStart + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     @Transactional
     public void logout(String token, String username) {
         if (token != null && username != null) {
-            LocalDateTime expiryDate = LocalDateTime.now().plusHours(24); // Token validity period
-            RevokedToken revokedToken = new RevokedToken(token, expiryDate, username, "LOGOUT");
-            revokedTokenRepository.save(revokedToken);
+            revokeToken(token, username, "LOGOUT");
             logger.info("User logged out: {}", username);
         }
     }
 
+    /**
+     * Persist a revocation keyed by the token's SHA-256, expiring with the token itself.
+     * Tokens that no longer parse (already expired or invalid) are rejected anyway and are not stored.
+     */
+    private void revokeToken(String token, String username, String reason) {
+        LocalDateTime expiryDate;
+        try {
+            expiryDate = LocalDateTime.ofInstant(jwtUtil.extractExpiration(token).toInstant(), ZoneId.systemDefault());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Not revoking unusable token for {}: {}", username, e.getMessage());
+            return;
+        }
+        RevokedToken revokedToken = new RevokedToken(TokenHashUtil.sha256Hex(token), expiryDate, username, reason);
+        revokedTokenRepository.save(revokedToken);
+        revokedTokenIndex.revoke(token, expiryDate);
+    }
+
+    /**
+     * Log a user out of every session by bumping their token epoch: one row update,
+     * however many tokens are outstanding
+     */
     @Transactional
-    public void resetPassword(String username, String oldPassword, String newPassword, String currentToken) {
+    public void revokeAllSessions(String username, String reason) {
+        if (userRepository.incrementTokenEpoch(username) == 0) {
+            throw new RuntimeException("User not found");
+        }
+        // Bulk update bypasses the entity listener; dropping the entry before commit would let
+        // a concurrent request cache the old epoch again
+        userSecurityStateCache.invalidateAfterCommit(username);
+        logger.info("All sessions revoked for user: {} ({})", username, reason);
+    }
+
+    @Transactional
+    public void resetPassword(String username, String oldPassword, String newPassword) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -136,16 +228,10 @@ public class AuthService {
             throw new RuntimeException("Current password is incorrect");
         }
 
-        // Revoke current token
-        if (currentToken != null) {
-            LocalDateTime expiryDate = LocalDateTime.now().plusHours(24);
-            RevokedToken revokedToken = new RevokedToken(
-                    currentToken, expiryDate, username, "PASSWORD_RESET");
-            revokedTokenRepository.save(revokedToken);
-        }
-
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setPasswordSetAt(LocalDateTime.now());
+        // Revoke every session, not just the token used for the reset
+        user.setTokenEpoch((user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L) + 1);
         userRepository.save(user);
 
         logger.info("Password reset for user: {}", username);
@@ -11,16 +11,22 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserSecurityStateCache userSecurityStateCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    UserSecurityStateCache userSecurityStateCache) {
         this.userRepository = userRepository;
+        this.userSecurityStateCache = userSecurityStateCache;
     }
 
     @Override
@@ -61,4 +67,53 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .disabled(Boolean.FALSE.equals(user.getAccountEnabled()))
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Stateless authentication: build UserDetails from an already verified token's claims.
+     *
+     * Applies the same lock/disable/password-expiry rules as {@link #loadUserByUsername}
+     * against the cached user state instead of querying users and user_roles. A token whose
+     * roles no longer match the user's current roles is rejected, so role changes force a
+     * fresh login rather than lingering until the token expires.
+     */
+    public UserDetails loadUserFromClaims(String username, Collection<?> tokenRoles) {
+        UserSecurityStateCache.UserSecurityState state = userSecurityStateCache.get(username);
+        if (state == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+
+        if (state.locked()) {
+            throw new RuntimeException("Account is locked");
+        }
+
+        if (!state.enabled()) {
+            throw new RuntimeException("Account is disabled");
+        }
+
+        if (state.passwordSetAt() != null) {
+            long daysSinceSet = ChronoUnit.DAYS.between(state.passwordSetAt(), LocalDateTime.now());
+            if (daysSinceSet >= 90) {
+                throw new RuntimeException("Password has expired. Please reset your password.");
+            }
+        }
+
+        Set<String> roles = new HashSet<>();
+        if (tokenRoles != null) {
+            tokenRoles.forEach(role -> roles.add(String.valueOf(role)));
+        }
+        if (!roles.equals(state.authorities())) {
+            throw new RuntimeException("Token roles are stale. Please login again.");
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        // No password: the credential was the verified token itself
+        return org.springframework.security.core.userdetails.User
+                .withUsername(username)
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.repository.AuditLogRepository;
+import com.example.clinicapp.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Failed login counts per username and per client IP over a sliding window.
+ *
+ * Fed by {@link com.example.clinicapp.config.AuditAspect} as login failures happen, so
+ * {@link AuditService#isSuspiciousActivity} is answered from memory instead of counting
+ * audit_logs rows. The window is rebuilt from recent LOGIN_FAILED audit rows at startup;
+ * until then, counts fall back to the database. Counts are per node: failures handled by
+ * other nodes are only seen after a restart.
+ */
+@Service
+public class FailedLoginTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedLoginTracker.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final Duration window;
+    private final SlidingWindowCounter byUsername;
+    private final SlidingWindowCounter byIp;
+    private volatile boolean loaded = false;
+
+    public FailedLoginTracker(AuditLogRepository auditLogRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.failed-login.window:1h}") Duration window,
+                              @Value("${app.security.failed-login.buckets:60}") int buckets,
+                              @Value("${app.security.failed-login.max-keys:10000}") int maxKeys) {
+        this.auditLogRepository = auditLogRepository;
+        this.window = window;
+        this.byUsername = new SlidingWindowCounter(window.toMillis(), buckets, maxKeys);
+        this.byIp = new SlidingWindowCounter(window.toMillis(), buckets, maxKeys);
+
+        Gauge.builder("auth.failed_logins.keys", byUsername, SlidingWindowCounter::size)
+                .tag("key", "username")
+                .description("Usernames with failed logins tracked in memory")
+                .register(meterRegistry);
+        Gauge.builder("auth.failed_logins.keys", byIp, SlidingWindowCounter::size)
+                .tag("key", "ip")
+                .description("Client IPs with failed logins tracked in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replay failed logins still inside the window once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        List<Object[]> failures = auditLogRepository.findFailedLoginsSince(LocalDateTime.now().minus(window));
+        byUsername.clear();
+        byIp.clear();
+        ZoneId zone = ZoneId.systemDefault();
+        for (Object[] row : failures) {
+            long timestampMillis = ((LocalDateTime) row[2]).atZone(zone).toInstant().toEpochMilli();
+            byUsername.record((String) row[0], timestampMillis);
+            byIp.record((String) row[1], timestampMillis);
+        }
+        loaded = true;
+        logger.info("Failed login tracker loaded with {} recent failures", failures.size());
+    }
+
+    /**
+     * Record a failed login made now
+     */
+    public void recordFailure(String username, String ipAddress) {
+        long now = System.currentTimeMillis();
+        byUsername.record(username, now);
+        byIp.record(ipAddress, now);
+    }
+
+    public long countByUsername(String username) {
+        if (!loaded) {
+            return auditLogRepository.countFailedLoginsByUsernameSince(username, LocalDateTime.now().minus(window));
+        }
+        return byUsername.count(username, System.currentTimeMillis());
+    }
+
+    public long countByIp(String ipAddress) {
+        if (!loaded) {
+            return auditLogRepository.countFailedLoginsByIpSince(ipAddress, LocalDateTime.now().minus(window));
+        }
+        return byIp.count(ipAddress, System.currentTimeMillis());
+    }
+}
@@ -12,12 +12,15 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.dto.InvoiceDto;
 import com.example.clinicapp.dto.InvoiceItemDto;
 import com.example.clinicapp.entity.Appointment;
 import com.example.clinicapp.entity.Doctor;
 import com.example.clinicapp.entity.Invoice;
 import com.example.clinicapp.entity.InvoiceItem;
+import com.example.clinicapp.entity.InvoiceStatus;
 import com.example.clinicapp.entity.Patient;
 import com.example.clinicapp.entity.Prescription;
 import com.example.clinicapp.exception.DoctorNotFoundException;
@@ -29,6 +32,8 @@ import com.example.clinicapp.repository.DoctorRepository;
 import com.example.clinicapp.repository.InvoiceRepository;
 import com.example.clinicapp.repository.PatientRepository;
 import com.example.clinicapp.repository.PrescriptionRepository;
+import com.example.clinicapp.util.CursorCodec;
+import com.example.clinicapp.util.KeysetCursors;
 
 @Service
 public class InvoiceService {
@@ -38,17 +43,20 @@ public class InvoiceService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final PrescriptionRepository prescriptionRepository;
+    private final PaginationProperties paginationProperties;
 
     public InvoiceService(InvoiceRepository invoiceRepository,
                           PatientRepository patientRepository,
                           DoctorRepository doctorRepository,
                           AppointmentRepository appointmentRepository,
-                          PrescriptionRepository prescriptionRepository) {
+                          PrescriptionRepository prescriptionRepository,
+                          PaginationProperties paginationProperties) {
         this.invoiceRepository = invoiceRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.prescriptionRepository = prescriptionRepository;
+        this.paginationProperties = paginationProperties;
     }
 
     // CREATE
@@ -86,7 +94,7 @@ public class InvoiceService {
         invoice.setDoctor(doctor);
         invoice.setInvoiceNumber(generateInvoiceNumber());
         invoice.setInvoiceDate(LocalDateTime.now());
-        invoice.setStatus("GENERATED");
+        invoice.setStatus(InvoiceStatus.GENERATED);
 
         // Set Appointment if provided
         if (dto.getAppointmentId() != null) {
@@ -133,19 +141,29 @@ public class InvoiceService {
         return invoiceRepository.findByPrescriptionId(prescriptionId);
     }
 
-    // READ - Get by Patient ID
-    public List<Invoice> getInvoicesByPatientId(Long patientId) {
-        return invoiceRepository.findByPatientId(patientId);
+    // READ - Get by Patient ID, newest first
+    public CursorPage<Invoice> getInvoicesByPatientId(Long patientId, String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        return page(invoiceRepository.findPageByPatientBefore(
+                patientId, KeysetCursors.beforeId(cursor), KeysetCursors.rows(pageSize)), pageSize);
     }
 
-    // READ - Get by Doctor ID
-    public List<Invoice> getInvoicesByDoctorId(Long doctorId) {
-        return invoiceRepository.findByDoctorId(doctorId);
+    // READ - Get by Doctor ID, newest first
+    public CursorPage<Invoice> getInvoicesByDoctorId(Long doctorId, String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        return page(invoiceRepository.findPageByDoctorBefore(
+                doctorId, KeysetCursors.beforeId(cursor), KeysetCursors.rows(pageSize)), pageSize);
     }
 
-    // READ - Get All
-    public List<Invoice> getAllInvoices() {
-        return invoiceRepository.findAllByOrderByInvoiceDateDesc();
+    // READ - Get All, newest first
+    public CursorPage<Invoice> getAllInvoices(String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        return page(invoiceRepository.findPageBefore(
+                KeysetCursors.beforeId(cursor), KeysetCursors.rows(pageSize)), pageSize);
+    }
+
+    private static CursorPage<Invoice> page(List<Invoice> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize, invoice -> CursorCodec.encode(invoice.getId()));
     }
 
     // READ - Get by Invoice Number
@@ -190,7 +208,7 @@ public class InvoiceService {
                 .orElseThrow(() -> new InvoiceNotFoundException(
                     "Invoice not found with id: " + id));
 
-        invoice.setStatus("VOID");
+        invoice.setStatus(invoice.getStatus().transitionTo(InvoiceStatus.VOID));
         return invoiceRepository.save(invoice);
     }
 
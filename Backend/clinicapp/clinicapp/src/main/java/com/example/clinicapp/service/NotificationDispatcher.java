@@ -0,0 +1,196 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.NotificationProperties;
+import com.example.clinicapp.entity.OutboxNotification.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delivers notification_outbox rows through {@link EmailService} and {@link MobileService}.
+ *
+ * Each pass claims up to batch-size due PENDING rows with SELECT ... FOR UPDATE SKIP LOCKED
+ * and pushes their next_attempt_at out by the lease before committing, so concurrent
+ * dispatchers on other nodes take disjoint batches and no transaction stays open while a
+ * provider is slow. Sending happens outside any transaction; each row's outcome is then
+ * recorded on its own. Delivery is at-least-once: a node that dies after sending but before
+ * recording the outcome leaves the row to be sent again when its lease expires.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String CLAIM_SQL =
+            "SELECT id, channel, recipient, subject, body, attempts FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_SQL =
+            "UPDATE notification_outbox SET next_attempt_at = ? WHERE id = ?";
+    private static final String SENT_SQL =
+            "UPDATE notification_outbox SET status = 'SENT', attempts = attempts + 1, sent_at = ?, last_error = NULL " +
+            "WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE notification_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String FAILED_SQL =
+            "UPDATE notification_outbox SET status = 'FAILED', attempts = attempts + 1, last_error = ? WHERE id = ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM notification_outbox WHERE status = 'SENT' AND sent_at < ?";
+
+    /**
+     * A claimed row; attempts counts deliveries tried before this one
+     */
+    private record Claimed(long id, Channel channel, String recipient, String subject, String body, int attempts) {
+    }
+
+    private static final RowMapper<Claimed> CLAIMED_MAPPER = (rs, rowNum) -> new Claimed(
+            rs.getLong("id"),
+            Channel.valueOf(rs.getString("channel")),
+            rs.getString("recipient"),
+            rs.getString("subject"),
+            rs.getString("body"),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+    private final MobileService mobileService;
+    private final NotificationProperties properties;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  EmailService emailService,
+                                  MobileService mobileService,
+                                  NotificationProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailService = emailService;
+        this.mobileService = mobileService;
+        this.properties = properties;
+
+        this.sentCounter = outcomeCounter(meterRegistry, "sent");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notifications.dispatched")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drain everything that is due, one claimed batch at a time
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.poll-interval-ms:2000}")
+    public void dispatch() {
+        try {
+            List<Claimed> batch;
+            do {
+                batch = claimBatch();
+                for (Claimed claimed : batch) {
+                    deliver(claimed);
+                }
+            } while (batch.size() == properties.getBatchSize());
+        } catch (DataAccessException e) {
+            logger.error("Notification dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private List<Claimed> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp leaseUntil = Timestamp.valueOf(now.plus(properties.getLease()));
+        return transactionTemplate.execute(status -> {
+            List<Claimed> claimed = jdbcTemplate.query(CLAIM_SQL, CLAIMED_MAPPER,
+                    Timestamp.valueOf(now), properties.getBatchSize());
+            if (!claimed.isEmpty()) {
+                jdbcTemplate.batchUpdate(LEASE_SQL, claimed, claimed.size(), (ps, row) -> {
+                    ps.setTimestamp(1, leaseUntil);
+                    ps.setLong(2, row.id());
+                });
+            }
+            return claimed;
+        });
+    }
+
+    private void deliver(Claimed claimed) {
+        try {
+            send(claimed);
+        } catch (RuntimeException e) {
+            recordFailure(claimed, e);
+            return;
+        }
+        jdbcTemplate.update(SENT_SQL, Timestamp.valueOf(LocalDateTime.now()), claimed.id());
+        sentCounter.increment();
+    }
+
+    private void send(Claimed claimed) {
+        switch (claimed.channel()) {
+            case EMAIL -> emailService.sendEmail(claimed.recipient(), claimed.subject(), claimed.body());
+            case SMS -> mobileService.MobileNotification(claimed.recipient(), claimed.subject(), claimed.body());
+        }
+    }
+
+    private void recordFailure(Claimed claimed, RuntimeException e) {
+        int attempts = claimed.attempts() + 1;
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        if (attempts >= properties.getMaxAttempts()) {
+            jdbcTemplate.update(FAILED_SQL, error, claimed.id());
+            failedCounter.increment();
+            logger.error("Giving up on notification {} ({} to {}) after {} attempts: {}",
+                    claimed.id(), claimed.channel(), claimed.recipient(), attempts, error);
+        } else {
+            Duration delay = backoffAfter(attempts);
+            jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(LocalDateTime.now().plus(delay)), error, claimed.id());
+            retriedCounter.increment();
+            logger.warn("Notification {} failed (attempt {}), retrying in {}: {}", claimed.id(), attempts, delay, error);
+        }
+    }
+
+    /**
+     * Delay before the next try after the given number of failed attempts:
+     * initial-backoff doubled per attempt, capped at max-backoff
+     */
+    public Duration backoffAfter(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << doublings);
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    @Scheduled(cron = "${app.notifications.purge-cron:0 15 * * * *}")
+    public void purgeSent() {
+        try {
+            int deleted = jdbcTemplate.update(PURGE_SQL,
+                    Timestamp.valueOf(LocalDateTime.now().minus(properties.getSentRetention())));
+            if (deleted > 0) {
+                logger.info("Purged {} sent notifications", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Notification purge failed: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
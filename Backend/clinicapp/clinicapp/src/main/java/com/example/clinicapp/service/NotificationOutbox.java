@@ -0,0 +1,43 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.entity.OutboxNotification;
+import com.example.clinicapp.entity.OutboxNotification.Channel;
+import com.example.clinicapp.repository.OutboxNotificationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Queues notifications in notification_outbox as part of the caller's transaction.
+ *
+ * Nothing is sent here: {@link NotificationDispatcher} delivers committed rows in the
+ * background, so request latency does not depend on the mail or SMS provider, and a
+ * rolled-back change never announces itself.
+ */
+@Service
+public class NotificationOutbox {
+
+    private final OutboxNotificationRepository outboxNotificationRepository;
+
+    public NotificationOutbox(OutboxNotificationRepository outboxNotificationRepository) {
+        this.outboxNotificationRepository = outboxNotificationRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void email(String to, String subject, String text, Long appointmentId) {
+        enqueue(Channel.EMAIL, to, subject, text, appointmentId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sms(String phoneNumber, String name, String message, Long appointmentId) {
+        enqueue(Channel.SMS, phoneNumber, name, message, appointmentId);
+    }
+
+    private void enqueue(Channel channel, String recipient, String subject, String body, Long appointmentId) {
+        // Same rule EmailService applies at send time: no recipient, nothing to deliver
+        if (recipient == null || recipient.isBlank() || body == null) {
+            return;
+        }
+        outboxNotificationRepository.save(new OutboxNotification(channel, recipient, subject, body, appointmentId));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, size-bounded pool for BCrypt password verification.
+ *
+ * BCrypt is deliberately CPU-heavy; running it on Tomcat threads lets a burst of
+ * shift-start logins take every core away from patient-facing endpoints. Verification
+ * is capped at a fixed number of threads with a bounded queue, and logins beyond that
+ * are rejected immediately with {@link LoginThrottledException} (HTTP 503 + Retry-After).
+ */
+@Service
+public class PasswordVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerificationService.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final Timer verificationTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordVerificationService(MeterRegistry meterRegistry,
+                                       @Value("${app.auth.verification.threads:0}") int threads,
+                                       @Value("${app.auth.verification.queue-capacity:50}") int queueCapacity,
+                                       @Value("${app.auth.verification.timeout-ms:10000}") long timeoutMillis,
+                                       @Value("${app.auth.verification.retry-after-seconds:5}") long retryAfterSeconds) {
+        // Default: half the cores, so verification can never take the whole machine
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.verificationTimer = Timer.builder("auth.verification.latency")
+                .description("Time spent verifying a password (excluding queue wait)")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.verification.rejected")
+                .description("Logins rejected because the verification pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.verification.queue.depth", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a verification thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.verification.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications in progress")
+                .register(meterRegistry);
+
+        logger.info("Password verification pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Run a verification task on the bounded pool and wait for its result.
+     * Exceptions thrown by the task are rethrown unchanged.
+     */
+    public <T> T verify(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> verificationTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Password verification pool saturated; rejecting login");
+            throw new LoginThrottledException("Login service is busy. Please retry shortly.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new LoginThrottledException("Login timed out. Please retry shortly.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new LoginThrottledException("Login interrupted. Please retry.", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password verification failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
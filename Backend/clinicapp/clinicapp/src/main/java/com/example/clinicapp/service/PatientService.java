@@ -1,7 +1,11 @@
 package com.example.clinicapp.service;
 
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.entity.Patient;
 import com.example.clinicapp.repository.PatientRepository;
+import com.example.clinicapp.util.CursorCodec;
+import com.example.clinicapp.util.KeysetCursors;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -13,13 +17,18 @@ import java.util.Optional;
 @Service
 public class PatientService {
 	private final PatientRepository patientRepository;
+	private final PaginationProperties paginationProperties;
 
-	public PatientService(PatientRepository patientRepository) {
+	public PatientService(PatientRepository patientRepository, PaginationProperties paginationProperties) {
 		this.patientRepository = patientRepository;
+		this.paginationProperties = paginationProperties;
 	}
 
-	public List<Patient> getAllPatients() {
-		return patientRepository.findAll();
+	// One page of patients in registration order, after the given cursor (null for the first page)
+	public CursorPage<Patient> getPatients(String cursor, int limit) {
+		int pageSize = paginationProperties.pageSize(limit);
+		List<Patient> rows = patientRepository.findPageAfter(KeysetCursors.afterId(cursor), KeysetCursors.rows(pageSize));
+		return CursorPage.of(rows, pageSize, patient -> CursorCodec.encode(patient.getId()));
 	}
 	@Cacheable(value="patients",key="#id")
 	public Patient getPatientById(Long id) {
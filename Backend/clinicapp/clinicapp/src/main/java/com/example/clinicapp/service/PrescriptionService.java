@@ -8,15 +8,19 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.dto.MedicineDto;
 import com.example.clinicapp.dto.PrescriptionDto;
 import com.example.clinicapp.dto.ReferralDto;
 import com.example.clinicapp.dto.VitalsDto;
+import com.example.clinicapp.entity.Appointment;
 import com.example.clinicapp.entity.Doctor;
 import com.example.clinicapp.entity.Patient;
 import com.example.clinicapp.entity.Prescription;
 import com.example.clinicapp.entity.PrescriptionMedicine;
 import com.example.clinicapp.entity.PrescriptionReferral;
+import com.example.clinicapp.entity.PrescriptionStatus;
 import com.example.clinicapp.exception.DoctorNotFoundException;
 import com.example.clinicapp.exception.PatientNotFoundException;
 import com.example.clinicapp.exception.PrescriptionNotFoundException;
@@ -24,6 +28,8 @@ import com.example.clinicapp.repository.AppointmentRepository;
 import com.example.clinicapp.repository.DoctorRepository;
 import com.example.clinicapp.repository.PatientRepository;
 import com.example.clinicapp.repository.PrescriptionRepository;
+import com.example.clinicapp.util.CursorCodec;
+import com.example.clinicapp.util.KeysetCursors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
@@ -34,17 +40,23 @@ public class PrescriptionService {
     private final PrescriptionRepository prescriptionRepository;
     private final AppointmentRepository appointmentRepository; 
     private final ObjectMapper objectMapper;
+    private final PaginationProperties paginationProperties;
+    private final AppointmentBoardStream appointmentBoardStream;
 
     public PrescriptionService(DoctorRepository doctorRepository,
                                PatientRepository patientRepository,
                                PrescriptionRepository prescriptionRepository,
                                AppointmentRepository appointmentRepository,
-                               ObjectMapper objectMapper) {
+                               ObjectMapper objectMapper,
+                               PaginationProperties paginationProperties,
+                               AppointmentBoardStream appointmentBoardStream) {
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.prescriptionRepository = prescriptionRepository;
         this.appointmentRepository=appointmentRepository;
         this.objectMapper = objectMapper;
+        this.paginationProperties = paginationProperties;
+        this.appointmentBoardStream = appointmentBoardStream;
     }
 
     // CREATE
@@ -123,7 +135,7 @@ public class PrescriptionService {
         // Set Referrals
         prescription.setReferrals(mapReferralsToEntities(dto.getReferredTo(), prescription));
 
-        return prescriptionRepository.save(prescription);
+        return publishToBoard(prescriptionRepository.save(prescription));
     }
 
     // READ - Get by ID
@@ -141,19 +153,29 @@ public class PrescriptionService {
                     "Prescription not found with id: " + id));
     }
 
-    // READ - Get by Patient ID
-    public List<Prescription> getPrescriptionsByPatientId(Long patientId) {
-        return prescriptionRepository.findByPatientId(patientId);
+    // READ - Get by Patient ID, newest first
+    public CursorPage<Prescription> getPrescriptionsByPatientId(Long patientId, String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        return page(prescriptionRepository.findPageByPatientBefore(
+                patientId, KeysetCursors.beforeId(cursor), KeysetCursors.rows(pageSize)), pageSize);
     }
 
-    // READ - Get by Doctor ID
-    public List<Prescription> getPrescriptionsByDoctorId(Long doctorId) {
-        return prescriptionRepository.findByDoctorId(doctorId);
+    // READ - Get by Doctor ID, newest first
+    public CursorPage<Prescription> getPrescriptionsByDoctorId(Long doctorId, String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        return page(prescriptionRepository.findPageByDoctorBefore(
+                doctorId, KeysetCursors.beforeId(cursor), KeysetCursors.rows(pageSize)), pageSize);
     }
 
-    // READ - Get All
-    public List<Prescription> getAllPrescriptions() {
-        return prescriptionRepository.findAll();
+    // READ - Get All, newest first
+    public CursorPage<Prescription> getAllPrescriptions(String cursor, int limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        return page(prescriptionRepository.findPageBefore(
+                KeysetCursors.beforeId(cursor), KeysetCursors.rows(pageSize)), pageSize);
+    }
+
+    private static CursorPage<Prescription> page(List<Prescription> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize, prescription -> CursorCodec.encode(prescription.getId()));
     }
 
     // UPDATE
@@ -162,6 +184,14 @@ public class PrescriptionService {
                 .orElseThrow(() -> new PrescriptionNotFoundException(
                     "Prescription not found with id: " + id));
 
+        // Only moves the lifecycle allows (DRAFT -> FINALIZED -> CANCELLED); rejected before any change
+        if (dto.getStatus() != null) {
+            PrescriptionStatus currentStatus = existing.getStatus();
+            existing.setStatus(currentStatus != null
+                    ? currentStatus.transitionTo(dto.getStatus())
+                    : dto.getStatus());
+        }
+
      // Update Appointment if provided
         if (dto.getAppointmentId() != null) {
             existing.setAppointment(
@@ -211,7 +241,18 @@ public class PrescriptionService {
 
         existing.getReferrals().clear();
         existing.getReferrals().addAll(mapReferralsToEntities(dto.getReferredTo(), existing));
-        return prescriptionRepository.save(existing);
+        return publishToBoard(prescriptionRepository.save(existing));
+    }
+
+    // Screens showing the appointment's day see the consult's prescription arrive
+    private Prescription publishToBoard(Prescription saved) {
+        Appointment appointment = saved.getAppointment();
+        if (appointment != null) {
+            appointmentBoardStream.prescriptionSaved(saved.getId(), appointment.getId(),
+                    appointment.getAppointmentTime(),
+                    appointment.getDoctor() != null ? appointment.getDoctor().getId() : null);
+        }
+        return saved;
     }
 
     // DELETE
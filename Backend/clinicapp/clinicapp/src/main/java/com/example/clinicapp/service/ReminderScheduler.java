@@ -0,0 +1,307 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.ReminderTarget;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentReminder;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.repository.AppointmentReminderRepository;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends appointment reminders (app.appointments.reminders.offsets before each appointment).
+ *
+ * Appointments starting within the horizon are held in a hierarchical {@link TimingWheel}
+ * with one timer per reminder, so a tick costs the same however many reminders are pending.
+ * The window is loaded at startup and resynced every refresh interval with one range scan of
+ * idx_appointments_status_time; {@link AppointmentService} updates it in place on book,
+ * update and cancel. Rescheduled or cancelled appointments are not dug out of the wheel:
+ * their stale timers are dropped when they come due.
+ *
+ * Due reminders are re-checked against the database and claimed in batches: each batch
+ * inserts its appointment_reminders rows and queues the emails in one transaction, and the
+ * unique claim constraint ensures only one node sends each reminder.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private static final Set<AppointmentStatus> REMINDABLE =
+            EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.BOOKED);
+
+    // Claims are kept a day past their appointment, then purged
+    private static final Duration CLAIM_RETENTION = Duration.ofDays(1);
+
+    /**
+     * One reminder of one appointment, for the appointment time it was scheduled against
+     */
+    private record Reminder(Long appointmentId, LocalDateTime appointmentTime, int offsetMinutes) {
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentReminderRepository appointmentReminderRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentProperties.Reminders properties;
+
+    // 1s ticks, 64 buckets per level, 4 levels: spans about 194 days
+    private final TimingWheel<Reminder> wheel =
+            new TimingWheel<>(1000, 6, 4, System.currentTimeMillis());
+
+    // Appointment id -> the appointment time its timers were scheduled for
+    private final Map<Long, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+
+    private final Counter queuedCounter;
+
+    public ReminderScheduler(AppointmentRepository appointmentRepository,
+                             AppointmentReminderRepository appointmentReminderRepository,
+                             NotificationOutbox notificationOutbox,
+                             PlatformTransactionManager transactionManager,
+                             AppointmentProperties appointmentProperties,
+                             MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentReminderRepository = appointmentReminderRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = appointmentProperties.getReminders();
+
+        this.queuedCounter = Counter.builder("appointments.reminders.queued")
+                .description("Appointment reminders claimed and queued for delivery by this node")
+                .register(meterRegistry);
+        Gauge.builder("appointments.reminders.pending", wheel, TimingWheel::size)
+                .description("Reminder timers held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the upcoming window once the application is up; reminders missed by at most
+     * catch-up (e.g. while the node restarted) still go out
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int loaded = resync(now, now.minus(properties.getCatchUp()));
+        logger.info("Reminder scheduler loaded {} upcoming appointments", loaded);
+    }
+
+    /**
+     * Pick up appointments booked, moved or cancelled on other nodes, and those entering the horizon
+     */
+    @Scheduled(fixedDelayString = "${app.appointments.reminders.refresh-interval-ms:600000}",
+            initialDelayString = "${app.appointments.reminders.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            resync(now, now);
+        } catch (DataAccessException e) {
+            logger.error("Reminder refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private int resync(LocalDateTime now, LocalDateTime scheduleFrom) {
+        Map<Long, LocalDateTime> before = new HashMap<>(scheduled);
+        List<ReminderTarget> targets = appointmentRepository.findReminderTargets(
+                REMINDABLE, now, now.plus(properties.getHorizon()));
+        Set<Long> present = new HashSet<>();
+        for (ReminderTarget target : targets) {
+            present.add(target.appointmentId());
+            schedule(target.appointmentId(), target.appointmentTime(), scheduleFrom);
+        }
+        // Gone from the window: passed, cancelled or completed. Entries changed meanwhile are left alone
+        before.forEach((id, time) -> {
+            if (!present.contains(id)) {
+                scheduled.remove(id, time);
+            }
+        });
+        return targets.size();
+    }
+
+    /**
+     * Called by {@link AppointmentService} after an appointment is booked or updated
+     */
+    public void onScheduled(Appointment appointment) {
+        if (!properties.isEnabled() || appointment.getId() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime time = appointment.getAppointmentTime();
+        if (time == null || !REMINDABLE.contains(appointment.getStatus())
+                || !time.isAfter(now) || time.isAfter(now.plus(properties.getHorizon()))) {
+            // Nothing to remind of yet; a later refresh schedules it once it enters the horizon
+            scheduled.remove(appointment.getId());
+            return;
+        }
+        schedule(appointment.getId(), time, now);
+    }
+
+    /**
+     * Called by {@link AppointmentService} after an appointment is cancelled
+     */
+    public void onRemoved(Long appointmentId) {
+        scheduled.remove(appointmentId);
+    }
+
+    // Add timers for reminders due at or after scheduleFrom, unless already scheduled for this time
+    private void schedule(Long appointmentId, LocalDateTime appointmentTime, LocalDateTime scheduleFrom) {
+        LocalDateTime previous = scheduled.put(appointmentId, appointmentTime);
+        if (appointmentTime.equals(previous)) {
+            return;
+        }
+        for (Duration offset : properties.getOffsets()) {
+            LocalDateTime fireAt = appointmentTime.minus(offset);
+            if (!fireAt.isBefore(scheduleFrom)) {
+                wheel.add(epochMillis(fireAt),
+                        new Reminder(appointmentId, appointmentTime, (int) offset.toMinutes()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.appointments.reminders.tick-ms:1000}")
+    public void tick() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        fireDue(LocalDateTime.now());
+    }
+
+    /**
+     * Advance the wheel to now and claim and queue every reminder that came due;
+     * returns the number queued
+     */
+    public int fireDue(LocalDateTime now) {
+        // A set: an appointment dropped and re-added at the same time can have duplicate timers
+        Set<Reminder> due = new LinkedHashSet<>();
+        for (Reminder reminder : wheel.advanceTo(epochMillis(now))) {
+            if (reminder.appointmentTime().equals(scheduled.get(reminder.appointmentId()))) {
+                due.add(reminder);
+            }
+        }
+        List<Reminder> pending = new ArrayList<>(due);
+        int queued = 0;
+        for (int from = 0; from < pending.size(); from += properties.getBatchSize()) {
+            List<Reminder> batch = pending.subList(from, Math.min(from + properties.getBatchSize(), pending.size()));
+            try {
+                queued += claimBatch(batch);
+            } catch (DataAccessException e) {
+                logger.error("Sending {} appointment reminders failed: {}", batch.size(), e.getMessage());
+            }
+        }
+        return queued;
+    }
+
+    private int claimBatch(List<Reminder> batch) {
+        try {
+            return transactionTemplate.execute(status -> claimAndQueue(batch));
+        } catch (DataIntegrityViolationException e) {
+            // Another node claimed some of these between our check and insert: claim one at a time
+            int queued = 0;
+            for (Reminder reminder : batch) {
+                try {
+                    queued += transactionTemplate.execute(status -> claimAndQueue(List.of(reminder)));
+                } catch (DataIntegrityViolationException alreadyClaimed) {
+                    logger.debug("Reminder for appointment {} already sent by another node", reminder.appointmentId());
+                }
+            }
+            return queued;
+        }
+    }
+
+    // Runs in a transaction: the claim rows and the queued emails commit or roll back together
+    private int claimAndQueue(List<Reminder> batch) {
+        Set<Long> ids = batch.stream().map(Reminder::appointmentId).collect(Collectors.toSet());
+        Map<Long, ReminderTarget> targets = appointmentRepository.findReminderTargetsByIds(ids).stream()
+                .collect(Collectors.toMap(ReminderTarget::appointmentId, Function.identity()));
+        Set<Reminder> claimed = appointmentReminderRepository.findByAppointmentIdIn(ids).stream()
+                .map(claim -> new Reminder(claim.getAppointmentId(), claim.getAppointmentTime(), claim.getOffsetMinutes()))
+                .collect(Collectors.toSet());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AppointmentReminder> claims = new ArrayList<>();
+        List<ReminderTarget> recipients = new ArrayList<>();
+        for (Reminder reminder : batch) {
+            ReminderTarget target = targets.get(reminder.appointmentId());
+            // Cancelled, completed or moved since it was scheduled, or already sent
+            if (target == null || !REMINDABLE.contains(target.status())
+                    || !reminder.appointmentTime().equals(target.appointmentTime()) || claimed.contains(reminder)) {
+                continue;
+            }
+            claims.add(new AppointmentReminder(reminder.appointmentId(), reminder.offsetMinutes(),
+                    reminder.appointmentTime(), now));
+            recipients.add(target);
+        }
+        if (claims.isEmpty()) {
+            return 0;
+        }
+        appointmentReminderRepository.saveAllAndFlush(claims);
+        for (ReminderTarget target : recipients) {
+            notificationOutbox.email(
+                    target.patientEmail(),
+                    "Appointment Reminder",
+                    "Reminder: your appointment is scheduled for " + target.appointmentTime(),
+                    target.appointmentId()
+            );
+        }
+        queuedCounter.increment(claims.size());
+        return claims.size();
+    }
+
+    @Scheduled(cron = "${app.appointments.reminders.purge-cron:0 45 * * * *}")
+    public void purgeClaims() {
+        try {
+            Integer deleted = transactionTemplate.execute(status -> appointmentReminderRepository
+                    .deleteByAppointmentTimeBefore(LocalDateTime.now().minus(CLAIM_RETENTION)));
+            if (deleted != null && deleted > 0) {
+                logger.info("Purged {} reminder claims for past appointments", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Reminder claim purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reminder timers currently held in the wheel
+     */
+    public int pendingTimers() {
+        return wheel.size();
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
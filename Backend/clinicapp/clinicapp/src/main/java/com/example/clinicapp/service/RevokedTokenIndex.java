@@ -0,0 +1,172 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.entity.RevokedToken;
+import com.example.clinicapp.repository.RevokedTokenRepository;
+import com.example.clinicapp.util.BloomFilter;
+import com.example.clinicapp.util.TokenHashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation index in front of {@link RevokedTokenRepository}.
+ *
+ * A Bloom filter answers the common "not revoked" case without touching the database.
+ * Tokens that pass the filter are checked against an exact set of revoked token hashes,
+ * and only a Bloom false positive (or a lookup before the index is loaded) falls through
+ * to the database. The index is loaded at startup, updated by {@link AuthService} on
+ * revocation and periodically synced so revocations made on other nodes are picked up.
+ *
+ * A token revoked on another node is a Bloom negative here until the next sync, so it is
+ * still accepted on this node for up to app.revocation.sync-interval-ms after the logout.
+ */
+@Service
+public class RevokedTokenIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenIndex.class);
+
+    // Overlap applied to incremental syncs to tolerate clock skew between nodes
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    // token hash (hex) -> expiry of the revoked token
+    private final Map<String, LocalDateTime> revokedHashes = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile boolean loaded = false;
+    private volatile LocalDateTime lastSync;
+
+    private final Counter bloomNegative;
+    private final Counter memoryHit;
+    private final Counter databaseLookup;
+
+    public RevokedTokenIndex(RevokedTokenRepository revokedTokenRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.revocation.bloom.expected-insertions:100000}") long expectedInsertions,
+                             @Value("${app.revocation.bloom.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+
+        this.bloomNegative = Counter.builder("auth.revocation.lookups")
+                .tag("result", "bloom_negative")
+                .description("Revocation checks answered by the Bloom filter (database lookup saved)")
+                .register(meterRegistry);
+        this.memoryHit = Counter.builder("auth.revocation.lookups")
+                .tag("result", "memory_hit")
+                .description("Revocation checks answered by the exact in-memory set")
+                .register(meterRegistry);
+        this.databaseLookup = Counter.builder("auth.revocation.lookups")
+                .tag("result", "database")
+                .description("Revocation checks that fell through to the database")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.index.size", revokedHashes, Map::size)
+                .description("Revoked token hashes held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load all unexpired revocations once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        revokedHashes.clear();
+        for (RevokedToken revokedToken : active) {
+            index(filter, HexFormat.of().parseHex(revokedToken.getTokenHash()), revokedToken.getExpiresAt());
+        }
+        bloomFilter = filter;
+        lastSync = now;
+        loaded = true;
+        logger.info("Revoked token index loaded with {} active entries", active.size());
+    }
+
+    /**
+     * Check whether a token has been revoked, touching the database only when unavoidable
+     */
+    public boolean isRevoked(String token) {
+        byte[] digest = TokenHashUtil.sha256(token);
+        String hash = HexFormat.of().formatHex(digest);
+        if (!loaded) {
+            databaseLookup.increment();
+            return revokedTokenRepository.existsByTokenHash(hash);
+        }
+
+        if (!bloomFilter.mightContain(digest)) {
+            bloomNegative.increment();
+            return false;
+        }
+
+        LocalDateTime expiresAt = revokedHashes.get(hash);
+        if (expiresAt != null) {
+            memoryHit.increment();
+            return true;
+        }
+
+        // Bloom false positive: the database has the final say
+        databaseLookup.increment();
+        return revokedTokenRepository.existsByTokenHash(hash);
+    }
+
+    /**
+     * Record a revocation made on this node
+     */
+    public synchronized void revoke(String token, LocalDateTime expiresAt) {
+        index(bloomFilter, TokenHashUtil.sha256(token), expiresAt);
+    }
+
+    /**
+     * Pick up revocations from other nodes and drop expired entries.
+     * Rebuilds the Bloom filter when entries were dropped so it does not saturate;
+     * synchronized with {@link #revoke} so no revocation is lost across the swap.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.sync-interval-ms:30000}")
+    public synchronized void sync() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfter(
+                lastSync.minusSeconds(SYNC_OVERLAP_SECONDS));
+        for (RevokedToken revokedToken : recent) {
+            index(bloomFilter, HexFormat.of().parseHex(revokedToken.getTokenHash()), revokedToken.getExpiresAt());
+        }
+        lastSync = now;
+
+        boolean removed = revokedHashes.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        if (removed) {
+            BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+            HexFormat hex = HexFormat.of();
+            revokedHashes.keySet().forEach(hash -> filter.put(hex.parseHex(hash)));
+            bloomFilter = filter;
+        }
+    }
+
+    public int size() {
+        return revokedHashes.size();
+    }
+
+    private void index(BloomFilter filter, byte[] digest, LocalDateTime expiresAt) {
+        // Exact set first so a concurrent Bloom hit always finds the entry
+        revokedHashes.put(HexFormat.of().formatHex(digest), expiresAt);
+        filter.put(digest);
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.entity.DoctorLeave;
+import com.example.clinicapp.entity.DoctorRoster;
+import com.example.clinicapp.entity.RosterPeriod;
+import com.example.clinicapp.repository.DoctorLeaveRepository;
+import com.example.clinicapp.repository.DoctorRosterRepository;
+import com.example.clinicapp.repository.RosterPeriodRepository;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed working-slot calendars of rostered doctors for the next app.appointments.roster.weeks.
+ *
+ * A roster's weekly hours minus its breaks become one working-slot bitmap per weekday (slots of
+ * app.appointments.slot-minutes, as in {@link SlotAvailabilityIndex}); each calendar day points
+ * at its weekday's bitmap, or at an empty one on leave days. Checking a booking against the
+ * roster is then a bitmap lookup. A doctor's calendar is regenerated on its own when their
+ * roster or leave changes: directly by {@link RosterService}, and on other nodes when the
+ * refresh sees the roster's version move. At midnight calendars roll forward from the weekly
+ * bitmaps without touching the database. Doctors without a roster are not restricted.
+ */
+@Service
+public class RosterCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterCalendar.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final BitSet NOT_WORKING = new BitSet();
+
+    /**
+     * A [start, end) stretch of working time on one day
+     */
+    public record Window(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * One doctor's calendar; bitmaps are never modified once built, so they are shared freely
+     */
+    private record DoctorCalendar(Long doctorId, long version, int slotMinutes, BitSet[] weekly,
+                                  Set<LocalDate> leave, LocalDate firstDay, BitSet[] days) {
+
+        BitSet day(LocalDate date) {
+            long index = ChronoUnit.DAYS.between(firstDay, date);
+            return index >= 0 && index < days.length ? days[(int) index] : null;
+        }
+    }
+
+    private final DoctorRosterRepository doctorRosterRepository;
+    private final RosterPeriodRepository rosterPeriodRepository;
+    private final DoctorLeaveRepository doctorLeaveRepository;
+    private final int slotMinutes;
+    private final int calendarDays;
+
+    private final Map<Long, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+
+    public RosterCalendar(DoctorRosterRepository doctorRosterRepository,
+                          RosterPeriodRepository rosterPeriodRepository,
+                          DoctorLeaveRepository doctorLeaveRepository,
+                          AppointmentProperties appointmentProperties,
+                          MeterRegistry meterRegistry) {
+        this.doctorRosterRepository = doctorRosterRepository;
+        this.rosterPeriodRepository = rosterPeriodRepository;
+        this.doctorLeaveRepository = doctorLeaveRepository;
+        this.slotMinutes = appointmentProperties.getSlotMinutes();
+        this.calendarDays = appointmentProperties.getRoster().getWeeks() * 7;
+
+        Gauge.builder("appointments.roster.doctors", calendars, Map::size)
+                .description("Rostered doctors with a precomputed calendar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Build every rostered doctor's calendar once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        LocalDate today = LocalDate.now();
+        List<DoctorRoster> rosters = doctorRosterRepository.findAll();
+        Map<Long, List<RosterPeriod>> periods = rosterPeriodRepository.findAll().stream()
+                .collect(Collectors.groupingBy(RosterPeriod::getDoctorId));
+        Map<Long, List<DoctorLeave>> leave = doctorLeaveRepository.findByLeaveDateGreaterThanEqual(today).stream()
+                .collect(Collectors.groupingBy(DoctorLeave::getDoctorId));
+        Set<Long> present = new HashSet<>();
+        for (DoctorRoster roster : rosters) {
+            present.add(roster.getDoctorId());
+            install(build(roster, periods.getOrDefault(roster.getDoctorId(), List.of()),
+                    leave.getOrDefault(roster.getDoctorId(), List.of()), today));
+        }
+        calendars.keySet().retainAll(present);
+        logger.info("Roster calendars built for {} doctors, {} days ahead", rosters.size(), calendarDays);
+    }
+
+    /**
+     * Regenerate one doctor's calendar from the database (or drop it when the roster is gone)
+     */
+    public void rebuild(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        doctorRosterRepository.findByDoctorId(doctorId).ifPresentOrElse(
+                roster -> install(build(roster, rosterPeriodRepository.findByDoctorId(doctorId),
+                        doctorLeaveRepository.findByDoctorIdAndLeaveDateGreaterThanEqual(doctorId, today), today)),
+                () -> calendars.remove(doctorId));
+    }
+
+    /**
+     * Pick up roster changes made on other nodes, and roll calendars forward after midnight
+     */
+    @Scheduled(fixedDelayString = "${app.appointments.roster.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            LocalDate today = LocalDate.now();
+            Set<Long> present = new HashSet<>();
+            for (DoctorRoster roster : doctorRosterRepository.findAll()) {
+                Long doctorId = roster.getDoctorId();
+                present.add(doctorId);
+                DoctorCalendar calendar = calendars.get(doctorId);
+                if (calendar == null || calendar.version() != versionOf(roster)) {
+                    rebuild(doctorId);
+                } else if (!calendar.firstDay().equals(today)) {
+                    calendars.replace(doctorId, calendar, days(doctorId, calendar.version(),
+                            calendar.slotMinutes(), calendar.weekly(), calendar.leave(), today));
+                }
+            }
+            calendars.keySet().retainAll(present);
+        } catch (DataAccessException e) {
+            logger.error("Roster refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRostered(Long doctorId) {
+        return doctorId != null && calendars.containsKey(doctorId);
+    }
+
+    /**
+     * Minutes appointments with the doctor start on multiples of
+     */
+    public int stepMinutes(Long doctorId) {
+        DoctorCalendar calendar = doctorId != null ? calendars.get(doctorId) : null;
+        return calendar != null ? calendar.slotMinutes() : slotMinutes;
+    }
+
+    /**
+     * True when the booking starts on one of the doctor's slots and lies entirely inside their
+     * working time; always true for doctors without a roster
+     */
+    public boolean isWorking(Booking booking) {
+        DoctorCalendar calendar = booking.doctorId() != null ? calendars.get(booking.doctorId()) : null;
+        if (calendar == null) {
+            return true;
+        }
+        LocalDateTime start = booking.start();
+        if (start.getSecond() != 0 || start.getNano() != 0
+                || (start.getHour() * 60 + start.getMinute()) % calendar.slotMinutes() != 0) {
+            return false;
+        }
+        LocalDateTime end = booking.end();
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            BitSet working = calendar.day(day);
+            if (working == null) {
+                // Outside the calendar: not open for booking
+                return false;
+            }
+            LocalDateTime dayStart = day.atStartOfDay();
+            long fromMinute = Math.max(0, Duration.between(dayStart, start).toMinutes());
+            long toMinute = Math.min(MINUTES_PER_DAY, (Duration.between(dayStart, end).getSeconds() + 59) / 60);
+            int fromSlot = (int) (fromMinute / slotMinutes);
+            int toSlot = (int) ((toMinute + slotMinutes - 1) / slotMinutes);
+            if (working.nextClearBit(fromSlot) < toSlot) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The doctor's working windows on one day, in time order; empty on leave days, days off and
+     * days outside the calendar. Only meaningful for rostered doctors.
+     */
+    public List<Window> workingWindows(Long doctorId, LocalDate date) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        BitSet working = calendar != null ? calendar.day(date) : null;
+        if (working == null) {
+            return List.of();
+        }
+        List<Window> windows = new ArrayList<>();
+        LocalDateTime dayStart = date.atStartOfDay();
+        for (int from = working.nextSetBit(0); from >= 0; from = working.nextSetBit(from)) {
+            int to = working.nextClearBit(from);
+            windows.add(new Window(dayStart.plusMinutes((long) from * slotMinutes),
+                    dayStart.plusMinutes((long) to * slotMinutes)));
+            from = to;
+        }
+        return windows;
+    }
+
+    // Newer versions win over calendars built concurrently from older reads
+    private void install(DoctorCalendar calendar) {
+        calendars.merge(calendar.doctorId(), calendar,
+                (existing, built) -> built.version() >= existing.version() ? built : existing);
+    }
+
+    private DoctorCalendar build(DoctorRoster roster, List<RosterPeriod> periods, List<DoctorLeave> leave,
+                                 LocalDate firstDay) {
+        BitSet[] weekly = new BitSet[7];
+        for (int i = 0; i < weekly.length; i++) {
+            weekly[i] = new BitSet(MINUTES_PER_DAY / slotMinutes);
+        }
+        // Working hours first, then breaks carved out of them
+        for (RosterPeriod period : periods) {
+            if (period.getKind() == RosterPeriod.Kind.WORK) {
+                weekly[period.getDayOfWeek().ordinal()].set(slotOf(period.getStartTime()), slotOf(period.getEndTime()));
+            }
+        }
+        for (RosterPeriod period : periods) {
+            if (period.getKind() == RosterPeriod.Kind.BREAK) {
+                weekly[period.getDayOfWeek().ordinal()].clear(slotOf(period.getStartTime()), slotOf(period.getEndTime()));
+            }
+        }
+        Set<LocalDate> leaveDays = leave.stream().map(DoctorLeave::getLeaveDate).collect(Collectors.toSet());
+        return days(roster.getDoctorId(), versionOf(roster), roster.getSlotMinutes(), weekly, leaveDays, firstDay);
+    }
+
+    private DoctorCalendar days(Long doctorId, long version, int rosterSlotMinutes, BitSet[] weekly,
+                                Set<LocalDate> leave, LocalDate firstDay) {
+        BitSet[] days = new BitSet[calendarDays];
+        for (int i = 0; i < days.length; i++) {
+            LocalDate day = firstDay.plusDays(i);
+            days[i] = leave.contains(day) ? NOT_WORKING : weekly[day.getDayOfWeek().ordinal()];
+        }
+        return new DoctorCalendar(doctorId, version, rosterSlotMinutes, weekly, leave, firstDay, days);
+    }
+
+    private int slotOf(LocalTime time) {
+        return time.toSecondOfDay() / 60 / slotMinutes;
+    }
+
+    private static long versionOf(DoctorRoster roster) {
+        return roster.getVersion() != null ? roster.getVersion() : 0L;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.RosterDto;
+import com.example.clinicapp.dto.RosterDto.Hours;
+import com.example.clinicapp.entity.DoctorLeave;
+import com.example.clinicapp.entity.DoctorRoster;
+import com.example.clinicapp.entity.RosterPeriod;
+import com.example.clinicapp.exception.DoctorNotFoundException;
+import com.example.clinicapp.repository.DoctorLeaveRepository;
+import com.example.clinicapp.repository.DoctorRepository;
+import com.example.clinicapp.repository.DoctorRosterRepository;
+import com.example.clinicapp.repository.RosterPeriodRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Doctors' rosters: weekly working hours, breaks, leave days and slot length.
+ *
+ * Every change bumps the roster's version in the same transaction and, once committed,
+ * regenerates the doctor's {@link RosterCalendar}; other nodes follow on their next refresh.
+ * Existing appointments are left alone when a roster changes.
+ */
+@Service
+public class RosterService {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorRosterRepository doctorRosterRepository;
+    private final RosterPeriodRepository rosterPeriodRepository;
+    private final DoctorLeaveRepository doctorLeaveRepository;
+    private final RosterCalendar rosterCalendar;
+    private final TransactionTemplate transactionTemplate;
+    private final int slotMinutes;
+
+    public RosterService(DoctorRepository doctorRepository,
+                         DoctorRosterRepository doctorRosterRepository,
+                         RosterPeriodRepository rosterPeriodRepository,
+                         DoctorLeaveRepository doctorLeaveRepository,
+                         RosterCalendar rosterCalendar,
+                         PlatformTransactionManager transactionManager,
+                         AppointmentProperties appointmentProperties) {
+        this.doctorRepository = doctorRepository;
+        this.doctorRosterRepository = doctorRosterRepository;
+        this.rosterPeriodRepository = rosterPeriodRepository;
+        this.doctorLeaveRepository = doctorLeaveRepository;
+        this.rosterCalendar = rosterCalendar;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.slotMinutes = appointmentProperties.getSlotMinutes();
+    }
+
+    // A doctor without a roster comes back with no hours and no slot length: not restricted
+    public RosterDto getRoster(Long doctorId) {
+        requireDoctor(doctorId);
+        RosterDto dto = new RosterDto();
+        dto.setDoctorId(doctorId);
+        Optional<DoctorRoster> roster = doctorRosterRepository.findByDoctorId(doctorId);
+        if (roster.isEmpty()) {
+            return dto;
+        }
+        dto.setSlotMinutes(roster.get().getSlotMinutes());
+        List<RosterPeriod> periods = rosterPeriodRepository.findByDoctorId(doctorId).stream()
+                .sorted(Comparator.comparing(RosterPeriod::getDayOfWeek).thenComparing(RosterPeriod::getStartTime))
+                .collect(Collectors.toList());
+        for (RosterPeriod period : periods) {
+            Hours hours = new Hours(period.getDayOfWeek(), period.getStartTime(), period.getEndTime());
+            if (period.getKind() == RosterPeriod.Kind.WORK) {
+                dto.getWorkingHours().add(hours);
+            } else {
+                dto.getBreaks().add(hours);
+            }
+        }
+        dto.setLeaveDays(doctorLeaveRepository.findByDoctorIdAndLeaveDateGreaterThanEqual(doctorId, LocalDate.now())
+                .stream()
+                .map(DoctorLeave::getLeaveDate)
+                .sorted()
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    // Replace the doctor's slot length, working hours and breaks; leave days are kept
+    public RosterDto updateRoster(Long doctorId, RosterDto rosterDto) {
+        requireDoctor(doctorId);
+        int rosterSlotMinutes = validate(rosterDto);
+        List<RosterPeriod> periods = new ArrayList<>();
+        for (Hours hours : rosterDto.getWorkingHours()) {
+            periods.add(new RosterPeriod(doctorId, hours.getDayOfWeek(), RosterPeriod.Kind.WORK, hours.getStart(), hours.getEnd()));
+        }
+        for (Hours hours : rosterDto.getBreaks()) {
+            periods.add(new RosterPeriod(doctorId, hours.getDayOfWeek(), RosterPeriod.Kind.BREAK, hours.getStart(), hours.getEnd()));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            DoctorRoster roster = doctorRosterRepository.findByDoctorId(doctorId).orElseGet(() -> new DoctorRoster(doctorId));
+            roster.setSlotMinutes(rosterSlotMinutes);
+            touch(roster);
+            rosterPeriodRepository.deleteByDoctorId(doctorId);
+            rosterPeriodRepository.saveAll(periods);
+        });
+        rosterCalendar.rebuild(doctorId);
+        return getRoster(doctorId);
+    }
+
+    // Remove the roster: the doctor is bookable at any time again
+    public void deleteRoster(Long doctorId) {
+        requireDoctor(doctorId);
+        transactionTemplate.executeWithoutResult(status -> {
+            rosterPeriodRepository.deleteByDoctorId(doctorId);
+            doctorRosterRepository.findByDoctorId(doctorId).ifPresent(doctorRosterRepository::delete);
+        });
+        rosterCalendar.rebuild(doctorId);
+    }
+
+    public RosterDto addLeave(Long doctorId, LocalDate date, String reason) {
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Leave cannot be added for a past date");
+        }
+        changeLeave(doctorId, () -> {
+            if (!doctorLeaveRepository.existsByDoctorIdAndLeaveDate(doctorId, date)) {
+                doctorLeaveRepository.save(new DoctorLeave(doctorId, date, reason));
+            }
+        });
+        return getRoster(doctorId);
+    }
+
+    public RosterDto removeLeave(Long doctorId, LocalDate date) {
+        changeLeave(doctorId, () -> doctorLeaveRepository.deleteByDoctorIdAndLeaveDate(doctorId, date));
+        return getRoster(doctorId);
+    }
+
+    private void changeLeave(Long doctorId, Runnable change) {
+        requireDoctor(doctorId);
+        transactionTemplate.executeWithoutResult(status -> {
+            DoctorRoster roster = doctorRosterRepository.findByDoctorId(doctorId)
+                    .orElseThrow(() -> new IllegalArgumentException("Doctor " + doctorId + " has no roster"));
+            change.run();
+            touch(roster);
+        });
+        rosterCalendar.rebuild(doctorId);
+    }
+
+    // Bumps the version so every node regenerates the doctor's calendar
+    private void touch(DoctorRoster roster) {
+        roster.setUpdatedAt(LocalDateTime.now());
+        doctorRosterRepository.save(roster);
+    }
+
+    private void requireDoctor(Long doctorId) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new DoctorNotFoundException("Doctor not found with id: " + doctorId);
+        }
+    }
+
+    /**
+     * Check the roster fits the slot grid; returns its slot length
+     */
+    private int validate(RosterDto rosterDto) {
+        Integer rosterSlotMinutes = rosterDto.getSlotMinutes();
+        if (rosterSlotMinutes == null || rosterSlotMinutes <= 0 || rosterSlotMinutes % slotMinutes != 0
+                || MINUTES_PER_DAY % rosterSlotMinutes != 0) {
+            throw new IllegalArgumentException("Slot length must be a multiple of " + slotMinutes
+                    + " minutes that divides a day");
+        }
+        if (rosterDto.getWorkingHours() == null || rosterDto.getBreaks() == null) {
+            throw new IllegalArgumentException("Working hours and breaks are mandatory (they may be empty)");
+        }
+        // Working hours sit on the roster's own slots so appointment starts line up with them
+        for (Hours hours : rosterDto.getWorkingHours()) {
+            checkHours(hours, rosterSlotMinutes, "Working hours");
+        }
+        for (Hours hours : rosterDto.getBreaks()) {
+            checkHours(hours, slotMinutes, "Break");
+        }
+        return rosterSlotMinutes;
+    }
+
+    private static void checkHours(Hours hours, int boundaryMinutes, String what) {
+        if (hours == null || hours.getDayOfWeek() == null || hours.getStart() == null || hours.getEnd() == null) {
+            throw new IllegalArgumentException(what + " need a day of week, start and end");
+        }
+        if (!hours.getStart().isBefore(hours.getEnd())) {
+            throw new IllegalArgumentException(what + " on " + hours.getDayOfWeek() + " must end after they start");
+        }
+        int boundarySeconds = boundaryMinutes * 60;
+        if (hours.getStart().toSecondOfDay() % boundarySeconds != 0 || hours.getEnd().toSecondOfDay() % boundarySeconds != 0) {
+            throw new IllegalArgumentException(what + " on " + hours.getDayOfWeek() + " must start and end on "
+                    + boundaryMinutes + "-minute boundaries");
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentSlot;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-doctor, per-day slot bitmaps for booking and availability checks.
+ *
+ * A doctor's day is a bitmap of fixed-length slots (app.appointments.slot-minutes); a set
+ * bit means some appointment overlaps that slot. Days are loaded lazily from
+ * {@link AppointmentRepository} on first use, updated in place by {@link AppointmentService}
+ * on book, update and cancel, and reloaded once older than the configured max age so
+ * bookings made on other nodes show up. Appointments without a doctor share one schedule.
+ * {@link SlotSearchService} preloads many doctor-days at once and scans the bitmaps for free runs.
+ */
+@Service
+public class SlotAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotAvailabilityIndex.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Matches the @Max on Appointment.durationMinutes; bounds how far back a day's load looks
+    private static final int MAX_DURATION_MINUTES = 480;
+
+    /**
+     * The time range an appointment occupies on one doctor's schedule
+     */
+    public record Booking(Long doctorId, LocalDateTime start, int durationMinutes) {
+
+        public LocalDateTime end() {
+            return start.plusMinutes(durationMinutes);
+        }
+    }
+
+    /**
+     * One slot of one doctor's schedule (doctor 0 for appointments without a doctor)
+     */
+    public record SlotKey(long doctorId, LocalDateTime slotStart) {
+    }
+
+    private record DayKey(Long doctorId, LocalDate day) {
+    }
+
+    private static final class DaySchedule {
+        private final BitSet slots;
+        private final long loadedAt;
+
+        DaySchedule(int slotsPerDay, long loadedAt) {
+            this.slots = new BitSet(slotsPerDay);
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized boolean isFree(int fromSlot, int toSlot) {
+            int next = slots.nextSetBit(fromSlot);
+            return next < 0 || next >= toSlot;
+        }
+
+        synchronized void set(int fromSlot, int toSlot) {
+            slots.set(fromSlot, toSlot);
+        }
+
+        synchronized void clear(int fromSlot, int toSlot) {
+            slots.clear(fromSlot, toSlot);
+        }
+
+        /**
+         * First slot of a free run of length slots inside [fromSlot, toSlot), or -1.
+         * nextClearBit/nextSetBit skip a 64-slot word per step.
+         */
+        synchronized int nextFreeRun(int fromSlot, int toSlot, int length) {
+            int start = slots.nextClearBit(fromSlot);
+            while (start + length <= toSlot) {
+                int taken = slots.nextSetBit(start);
+                if (taken < 0 || taken >= start + length) {
+                    return start;
+                }
+                start = slots.nextClearBit(taken + 1);
+            }
+            return -1;
+        }
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int defaultDurationMinutes;
+    private final long maxAgeMillis;
+    private final int maxDays;
+
+    private final Map<DayKey, DaySchedule> schedules = new ConcurrentHashMap<>();
+    private final Counter dayLoads;
+
+    public SlotAvailabilityIndex(AppointmentRepository appointmentRepository,
+                                 AppointmentProperties properties,
+                                 MeterRegistry meterRegistry) {
+        if (properties.getSlotMinutes() <= 0 || MINUTES_PER_DAY % properties.getSlotMinutes() != 0) {
+            throw new IllegalArgumentException("app.appointments.slot-minutes must divide 1440");
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.slotMinutes = properties.getSlotMinutes();
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        this.defaultDurationMinutes = properties.getDefaultDurationMinutes();
+        this.maxAgeMillis = properties.getAvailability().getMaxAge().toMillis();
+        this.maxDays = properties.getAvailability().getMaxDays();
+
+        this.dayLoads = Counter.builder("appointments.availability.day.loads")
+                .description("Doctor-days loaded from the database into the slot index")
+                .register(meterRegistry);
+        Gauge.builder("appointments.availability.days", schedules, Map::size)
+                .description("Doctor-days held in the slot index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The range an appointment occupies, with the default duration when it has none
+     */
+    public Booking bookingOf(Appointment appointment) {
+        Long doctorId = appointment.getDoctor() != null ? appointment.getDoctor().getId() : null;
+        return new Booking(doctorId, appointment.getAppointmentTime(), durationOf(appointment.getDurationMinutes()));
+    }
+
+    public int durationOf(Integer durationMinutes) {
+        return durationMinutes != null && durationMinutes > 0 ? durationMinutes : defaultDurationMinutes;
+    }
+
+    /**
+     * Every slot the booking touches, in time order
+     */
+    public List<SlotKey> slotsOf(Booking booking) {
+        long doctorKey = booking.doctorId() != null ? booking.doctorId() : AppointmentSlot.UNASSIGNED_DOCTOR;
+        List<SlotKey> slots = new ArrayList<>();
+        LocalDateTime end = booking.end();
+        for (LocalDate day = booking.start().toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            int[] range = slotRange(day, booking.start(), end);
+            LocalDateTime dayStart = day.atStartOfDay();
+            for (int slot = range[0]; slot < range[1]; slot++) {
+                slots.add(new SlotKey(doctorKey, dayStart.plusMinutes((long) slot * slotMinutes)));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * True when no known appointment of the doctor overlaps the booking's slots
+     */
+    public boolean isAvailable(Booking booking) {
+        LocalDateTime end = booking.end();
+        for (LocalDate day = booking.start().toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            int[] range = slotRange(day, booking.start(), end);
+            if (!schedule(booking.doctorId(), day).isFree(range[0], range[1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark the booking's slots as taken
+     */
+    public void book(Booking booking) {
+        LocalDateTime end = booking.end();
+        for (LocalDate day = booking.start().toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            int[] range = slotRange(day, booking.start(), end);
+            schedule(booking.doctorId(), day).set(range[0], range[1]);
+        }
+    }
+
+    /**
+     * Free the booking's slots (after a cancel, or before moving an appointment)
+     */
+    public void release(Booking booking) {
+        LocalDateTime end = booking.end();
+        for (LocalDate day = booking.start().toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            DaySchedule schedule = schedules.get(new DayKey(booking.doctorId(), day));
+            if (schedule != null) {
+                int[] range = slotRange(day, booking.start(), end);
+                schedule.clear(range[0], range[1]);
+            }
+        }
+    }
+
+    /**
+     * Start times of up to limit back-to-back free runs of durationMinutes within [from, to)
+     * on one doctor's day, earliest first, each on a multiple of stepMinutes since midnight;
+     * from and to must fall on the same day (to may be the following midnight)
+     */
+    public List<LocalDateTime> freeStarts(Long doctorId, LocalDateTime from, LocalDateTime to,
+                                          int durationMinutes, int stepMinutes, int limit) {
+        LocalDate day = from.toLocalDate();
+        LocalDateTime dayStart = day.atStartOfDay();
+        long slotSeconds = slotMinutes * 60L;
+        // Round the window inwards: no start before from, no end after to
+        int fromSlot = (int) ((Duration.between(dayStart, from).getSeconds() + slotSeconds - 1) / slotSeconds);
+        int toSlot = (int) Math.min(slotsPerDay, Duration.between(dayStart, to).getSeconds() / slotSeconds);
+        int length = (durationMinutes + slotMinutes - 1) / slotMinutes;
+        int step = Math.max(1, stepMinutes / slotMinutes);
+
+        DaySchedule schedule = schedule(doctorId, day);
+        List<LocalDateTime> starts = new ArrayList<>();
+        int slot = roundUp(fromSlot, step);
+        while (starts.size() < limit) {
+            int start = schedule.nextFreeRun(slot, toSlot, length);
+            if (start < 0) {
+                break;
+            }
+            int aligned = roundUp(start, step);
+            if (aligned != start) {
+                // Free run starts between steps: look again from the next step
+                slot = aligned;
+                continue;
+            }
+            starts.add(dayStart.plusMinutes((long) start * slotMinutes));
+            slot = roundUp(start + length, step);
+        }
+        return starts;
+    }
+
+    /**
+     * Load every missing or stale day in [firstDay, lastDay] of the given doctors with one
+     * query, so a search across many doctor-days does not load them one at a time
+     */
+    public void preload(Collection<Long> doctorIds, LocalDate firstDay, LocalDate lastDay) {
+        long now = System.currentTimeMillis();
+        Map<DayKey, DaySchedule> loaded = new HashMap<>();
+        Set<Long> doctorsToLoad = new HashSet<>();
+        for (Long doctorId : doctorIds) {
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                DayKey key = new DayKey(doctorId, day);
+                if (!isFresh(schedules.get(key), now)) {
+                    loaded.put(key, new DaySchedule(slotsPerDay, now));
+                    doctorsToLoad.add(doctorId);
+                }
+            }
+        }
+        if (loaded.isEmpty()) {
+            return;
+        }
+
+        // Start earlier to catch appointments from the day before the window running past midnight
+        LocalDateTime from = firstDay.atStartOfDay().minusMinutes(MAX_DURATION_MINUTES);
+        LocalDateTime to = lastDay.plusDays(1).atStartOfDay();
+        for (BookedInterval interval : appointmentRepository.findBookedIntervals(doctorsToLoad, from, to)) {
+            if (interval.start() == null || !holdsSlot(interval.status())) {
+                continue;
+            }
+            LocalDateTime start = interval.start();
+            LocalDateTime end = start.plusMinutes(durationOf(interval.durationMinutes()));
+            for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+                DaySchedule schedule = loaded.get(new DayKey(interval.doctorId(), day));
+                if (schedule != null) {
+                    int[] range = slotRange(day, start, end);
+                    schedule.set(range[0], range[1]);
+                }
+            }
+        }
+
+        if (schedules.size() + loaded.size() > maxDays) {
+            evictStale();
+        }
+        // Keep days that were loaded or booked into meanwhile
+        loaded.forEach((key, schedule) ->
+                schedules.merge(key, schedule, (existing, fresh) -> isFresh(existing, now) ? existing : fresh));
+        dayLoads.increment(loaded.size());
+    }
+
+    /**
+     * Drop one doctor-day so its next use reloads it from the database
+     */
+    public void invalidate(Long doctorId, LocalDate day) {
+        schedules.remove(new DayKey(doctorId, day));
+    }
+
+    /**
+     * Evict doctor-days that are past their max age or in the past
+     */
+    @Scheduled(fixedDelayString = "${app.appointments.availability.evict-interval-ms:300000}")
+    public void evictStale() {
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        int before = schedules.size();
+        schedules.entrySet().removeIf(entry -> now - entry.getValue().loadedAt > maxAgeMillis
+                || entry.getKey().day().isBefore(today));
+        int evicted = before - schedules.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} doctor-days from the slot index", evicted);
+        }
+    }
+
+    private DaySchedule schedule(Long doctorId, LocalDate day) {
+        DayKey key = new DayKey(doctorId, day);
+        long now = System.currentTimeMillis();
+        DaySchedule schedule = schedules.get(key);
+        if (isFresh(schedule, now)) {
+            return schedule;
+        }
+        if (schedule == null && schedules.size() >= maxDays) {
+            evictStale();
+        }
+        // Query outside the map, as preload does: compute would hold the bin lock for the round trip.
+        // Keep a day that was loaded or booked into meanwhile
+        DaySchedule loaded = load(key, now);
+        return schedules.merge(key, loaded, (existing, fresh) -> isFresh(existing, now) ? existing : fresh);
+    }
+
+    private static int roundUp(int slot, int step) {
+        return (slot + step - 1) / step * step;
+    }
+
+    private boolean isFresh(DaySchedule schedule, long now) {
+        return schedule != null && now - schedule.loadedAt <= maxAgeMillis;
+    }
+
+    private DaySchedule load(DayKey key, long now) {
+        LocalDateTime dayStart = key.day().atStartOfDay();
+        // Start earlier to catch appointments from the previous day running past midnight
+        LocalDateTime from = dayStart.minusMinutes(MAX_DURATION_MINUTES);
+        LocalDateTime to = dayStart.plusDays(1);
+        List<BookedInterval> intervals = key.doctorId() != null
+                ? appointmentRepository.findBookedIntervals(List.of(key.doctorId()), from, to)
+                : appointmentRepository.findUnassignedBookedIntervals(from, to);
+
+        DaySchedule schedule = new DaySchedule(slotsPerDay, now);
+        for (BookedInterval interval : intervals) {
+            if (interval.start() == null || !holdsSlot(interval.status())) {
+                continue;
+            }
+            LocalDateTime start = interval.start();
+            LocalDateTime end = start.plusMinutes(durationOf(interval.durationMinutes()));
+            if (end.isAfter(dayStart)) {
+                int[] range = slotRange(key.day(), start, end);
+                schedule.set(range[0], range[1]);
+            }
+        }
+        dayLoads.increment();
+        return schedule;
+    }
+
+    /**
+     * Slots [from, to) of the given day covered by [start, end)
+     */
+    private int[] slotRange(LocalDate day, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        long startMinute = Math.max(0, Duration.between(dayStart, start).toMinutes());
+        long endSeconds = Math.min((long) MINUTES_PER_DAY * 60, Duration.between(dayStart, end).getSeconds());
+        int fromSlot = (int) (startMinute / slotMinutes);
+        int toSlot = (int) ((endSeconds + slotMinutes * 60L - 1) / (slotMinutes * 60L));
+        return new int[] {fromSlot, Math.max(toSlot, fromSlot + 1)};
+    }
+
+    /**
+     * Appointments with no status yet are treated as holding their slots
+     */
+    public static boolean holdsSlot(AppointmentStatus status) {
+        return status == null || status.holdsSlot();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import com.example.clinicapp.service.SlotAvailabilityIndex.SlotKey;
+import com.example.clinicapp.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived holds on slots while a booking is being filled in (app.appointments.holds.ttl).
+ *
+ * Each slot maps to at most one live hold; a hold takes its slots one putIfAbsent-style
+ * compute at a time and backs out if any is taken, so creating one is a few map operations
+ * and a timing-wheel insert. Holds end when the booking is confirmed, when released, or when
+ * their {@link TimingWheel} timer fires; a hold past its expiry no longer blocks even before
+ * the tick removes it. Holds are kept in this node's memory only.
+ */
+@Service
+public class SlotHoldRegistry {
+
+    /**
+     * A hold on the slots of one booking, identified by an unguessable token
+     */
+    public record Hold(String token, Booking booking, List<SlotKey> slots, long expiresAtMillis) {
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private final long ttlMillis;
+
+    // Token -> hold, and slot -> the hold on it
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<SlotKey, Hold> slotHolds = new ConcurrentHashMap<>();
+
+    // 1s ticks, 64 buckets per level, 2 levels: spans about 68 minutes, well past any hold
+    private final TimingWheel<Hold> wheel = new TimingWheel<>(1000, 6, 2, System.currentTimeMillis());
+
+    private final Counter createdCounter;
+    private final Counter confirmedCounter;
+    private final Counter releasedCounter;
+    private final Counter expiredCounter;
+
+    public SlotHoldRegistry(AppointmentProperties appointmentProperties, MeterRegistry meterRegistry) {
+        this.ttlMillis = appointmentProperties.getHolds().getTtl().toMillis();
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("app.appointments.holds.ttl must be positive");
+        }
+        this.createdCounter = holdCounter(meterRegistry, "created");
+        this.confirmedCounter = holdCounter(meterRegistry, "confirmed");
+        this.releasedCounter = holdCounter(meterRegistry, "released");
+        this.expiredCounter = holdCounter(meterRegistry, "expired");
+        Gauge.builder("appointments.holds.active", holds, Map::size)
+                .description("Slot holds currently blocking bookings on this node")
+                .register(meterRegistry);
+    }
+
+    private static Counter holdCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("appointments.holds")
+                .description("Slot holds by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hold the booking's slots for the TTL; null when any of them is held by another live hold
+     */
+    public Hold tryHold(Booking booking, List<SlotKey> slots) {
+        long now = System.currentTimeMillis();
+        Hold hold = new Hold(UUID.randomUUID().toString(), booking, List.copyOf(slots), now + ttlMillis);
+        List<SlotKey> taken = new ArrayList<>();
+        for (SlotKey slot : slots) {
+            Hold owner = slotHolds.compute(slot,
+                    (key, existing) -> existing == null || existing.isExpired(now) ? hold : existing);
+            if (owner != hold) {
+                taken.forEach(takenSlot -> slotHolds.remove(takenSlot, hold));
+                return null;
+            }
+            taken.add(slot);
+        }
+        holds.put(hold.token(), hold);
+        wheel.add(hold.expiresAtMillis(), hold);
+        createdCounter.increment();
+        return hold;
+    }
+
+    /**
+     * True when any of the slots is under a live hold other than the one with exceptToken
+     */
+    public boolean isHeld(Collection<SlotKey> slots, String exceptToken) {
+        long now = System.currentTimeMillis();
+        for (SlotKey slot : slots) {
+            Hold hold = slotHolds.get(slot);
+            if (hold != null && !hold.isExpired(now) && !hold.token().equals(exceptToken)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * End a hold because its booking went through
+     */
+    public void confirm(String token) {
+        if (token != null && remove(holds.get(token))) {
+            confirmedCounter.increment();
+        }
+    }
+
+    /**
+     * End a hold that is no longer wanted; false when it had already ended
+     */
+    public boolean release(String token) {
+        if (token != null && remove(holds.get(token))) {
+            releasedCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.appointments.holds.tick-ms:1000}")
+    public void tick() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    /**
+     * Advance the wheel to nowMillis and drop every hold that expired; returns the number dropped
+     */
+    public int expireDue(long nowMillis) {
+        int expired = 0;
+        for (Hold hold : wheel.advanceTo(nowMillis)) {
+            // Holds confirmed or released earlier are already gone
+            if (remove(hold)) {
+                expired++;
+            }
+        }
+        expiredCounter.increment(expired);
+        return expired;
+    }
+
+    /**
+     * Holds currently live or awaiting expiry
+     */
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    private boolean remove(Hold hold) {
+        if (hold == null || !holds.remove(hold.token(), hold)) {
+            return false;
+        }
+        // Only free slots still pointing at this hold; an expired hold's slots may be held anew
+        hold.slots().forEach(slot -> slotHolds.remove(slot, hold));
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.FreeSlot;
+import com.example.clinicapp.entity.Doctor;
+import com.example.clinicapp.repository.DoctorRepository;
+import com.example.clinicapp.service.RosterCalendar.Window;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * "Who can see this patient soonest?": the earliest free slots across all doctors, or one
+ * specialty, within a date window.
+ *
+ * Answered from {@link SlotAvailabilityIndex}: the window's doctor-days are preloaded with one
+ * query, then each day's bitmap is scanned for free runs, day by day, until enough slots are
+ * found. Rostered doctors are searched within their {@link RosterCalendar} working windows and
+ * on their own slot grid; others within clinic hours (app.appointments.search.opens-at / closes-at).
+ * Slots under a live {@link SlotHoldRegistry} hold are skipped, as booking would refuse them.
+ */
+@Service
+public class SlotSearchService {
+
+    private static final Comparator<FreeSlot> EARLIEST_FIRST =
+            Comparator.comparing(FreeSlot::start).thenComparing(FreeSlot::doctorId);
+
+    private final DoctorRepository doctorRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final RosterCalendar rosterCalendar;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final LocalTime opensAt;
+    private final LocalTime closesAt;
+    private final int maxWindowDays;
+    private final int maxResults;
+
+    public SlotSearchService(DoctorRepository doctorRepository,
+                             SlotAvailabilityIndex slotAvailabilityIndex,
+                             RosterCalendar rosterCalendar,
+                             SlotHoldRegistry slotHoldRegistry,
+                             AppointmentProperties appointmentProperties) {
+        AppointmentProperties.Search search = appointmentProperties.getSearch();
+        this.doctorRepository = doctorRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.rosterCalendar = rosterCalendar;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.opensAt = LocalTime.parse(search.getOpensAt());
+        this.closesAt = LocalTime.parse(search.getClosesAt());
+        if (!opensAt.isBefore(closesAt)) {
+            throw new IllegalArgumentException("app.appointments.search.opens-at must be before closes-at");
+        }
+        this.maxWindowDays = search.getMaxWindowDays();
+        this.maxResults = search.getMaxResults();
+    }
+
+    /**
+     * Up to limit free slots of durationMinutes (the default duration when null), earliest first.
+     * The window runs from fromDate (today when null, never before now) to toDate inclusive
+     * (max-window-days long when null).
+     */
+    public List<FreeSlot> findNextFreeSlots(String specialty, LocalDate fromDate, LocalDate toDate,
+                                            Integer durationMinutes, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate firstDay = fromDate != null && fromDate.isAfter(today) ? fromDate : today;
+        LocalDate lastDay = toDate != null ? toDate : firstDay.plusDays(maxWindowDays - 1L);
+        if (lastDay.isBefore(firstDay)) {
+            throw new IllegalArgumentException("The search window ends before it starts");
+        }
+        if (ChronoUnit.DAYS.between(firstDay, lastDay) >= maxWindowDays) {
+            throw new IllegalArgumentException("The search window is limited to " + maxWindowDays + " days");
+        }
+        int wanted = Math.max(1, Math.min(limit, maxResults));
+        int duration = slotAvailabilityIndex.durationOf(durationMinutes);
+
+        List<Doctor> doctors = specialty == null || specialty.isBlank()
+                ? doctorRepository.findAll()
+                : doctorRepository.findBySpecialtyIgnoreCase(specialty.trim());
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+        slotAvailabilityIndex.preload(doctors.stream().map(Doctor::getId).collect(Collectors.toList()),
+                firstDay, lastDay);
+
+        List<FreeSlot> found = new ArrayList<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay) && found.size() < wanted; day = day.plusDays(1)) {
+            // Each doctor contributes at most the number still wanted, so the day's earliest are all here
+            List<FreeSlot> daySlots = new ArrayList<>();
+            for (Doctor doctor : doctors) {
+                int remaining = wanted - found.size();
+                int step = rosterCalendar.stepMinutes(doctor.getId());
+                for (Window window : windowsOf(doctor.getId(), day)) {
+                    LocalDateTime from = window.start().isBefore(now) ? now : window.start();
+                    if (!from.isBefore(window.end())) {
+                        continue;
+                    }
+                    for (LocalDateTime start : unheldFreeStarts(
+                            doctor.getId(), from, window.end(), duration, step, remaining)) {
+                        daySlots.add(new FreeSlot(doctor.getId(), doctor.getName(), doctor.getSpecialty(),
+                                start, start.plusMinutes(duration)));
+                        remaining--;
+                    }
+                    if (remaining == 0) {
+                        break;
+                    }
+                }
+            }
+            daySlots.sort(EARLIEST_FIRST);
+            found.addAll(daySlots.subList(0, Math.min(daySlots.size(), wanted - found.size())));
+        }
+        return found;
+    }
+
+    /**
+     * Like {@link SlotAvailabilityIndex#freeStarts}, leaving out runs that are held; scans on
+     * past held runs until limit starts are found or the window is used up
+     */
+    private List<LocalDateTime> unheldFreeStarts(Long doctorId, LocalDateTime from, LocalDateTime to,
+                                                 int duration, int step, int limit) {
+        List<LocalDateTime> unheld = new ArrayList<>();
+        LocalDateTime cursor = from;
+        while (unheld.size() < limit && cursor.isBefore(to)) {
+            int wanted = limit - unheld.size();
+            List<LocalDateTime> starts = slotAvailabilityIndex.freeStarts(doctorId, cursor, to, duration, step, wanted);
+            for (LocalDateTime start : starts) {
+                Booking booking = new Booking(doctorId, start, duration);
+                if (!slotHoldRegistry.isHeld(slotAvailabilityIndex.slotsOf(booking), null)) {
+                    unheld.add(start);
+                }
+            }
+            if (starts.size() < wanted) {
+                break;
+            }
+            // Carry on where freeStarts would have: the next run starts after the last one
+            cursor = starts.get(starts.size() - 1).plusMinutes(duration);
+        }
+        return unheld;
+    }
+
+    private List<Window> windowsOf(Long doctorId, LocalDate day) {
+        return rosterCalendar.isRostered(doctorId)
+                ? rosterCalendar.workingWindows(doctorId, day)
+                : List.of(new Window(day.atTime(opensAt), day.atTime(closesAt)));
+    }
+}
@@ -19,11 +19,16 @@ public class TokenCleanupService {
         this.revokedTokenRepository = revokedTokenRepository;
     }
 
-    @Scheduled(cron = "0 0 2 * * ?") // Run at 2 AM every day
+    /**
+     * Revocations expire with their token (jwt.expiration), so frequent small purges keep
+     * revoked_tokens close to the number of live revoked tokens instead of a day's worth.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.cleanup-interval-ms:300000}")
     @Transactional
     public void cleanupExpiredTokens() {
-        logger.info("Starting cleanup of expired revoked tokens");
-        revokedTokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
-        logger.info("Expired revoked tokens cleaned up");
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired revoked tokens", deleted);
+        }
     }
-}
\ No newline at end of file
+}
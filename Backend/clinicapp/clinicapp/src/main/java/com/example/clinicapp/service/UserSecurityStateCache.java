@@ -0,0 +1,124 @@
+package com.example.clinicapp.service;
+
+import com.example.clinicapp.entity.User;
+import com.example.clinicapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Small per-user cache of the security-relevant parts of {@link User}.
+ *
+ * Lets the stateless authentication path check lock/disable status, password age and
+ * current roles, and every request check the token epoch, without a users + user_roles
+ * query per request. Entries are invalidated
+ * once a change to a User row or its roles commits on this node (see UserChangeListener and
+ * UserRolesChangeListener) and expire after a short TTL so changes made on other nodes take
+ * effect quickly too.
+ */
+@Service
+public class UserSecurityStateCache {
+
+    /**
+     * Snapshot of a user's security state
+     */
+    public record UserSecurityState(String username,
+                                    boolean enabled,
+                                    boolean locked,
+                                    LocalDateTime passwordSetAt,
+                                    Set<String> authorities,
+                                    long tokenEpoch) {
+    }
+
+    private record Entry(UserSecurityState state, long loadedAtMillis) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public UserSecurityStateCache(UserRepository userRepository,
+                                  @Value("${app.security.user-state.ttl-ms:30000}") long ttlMillis,
+                                  @Value("${app.security.user-state.max-entries:5000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Current security state for a user, or null if the user no longer exists
+     */
+    public UserSecurityState get(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAtMillis() < ttlMillis) {
+            return entry.state();
+        }
+
+        UserSecurityState state = userRepository.findByUsername(username)
+                .map(UserSecurityStateCache::toState)
+                .orElse(null);
+        if (state == null) {
+            entries.remove(username);
+            return null;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.loadedAtMillis() >= ttlMillis);
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(username, new Entry(state, now));
+        }
+        return state;
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            entries.remove(username);
+        }
+    }
+
+    /**
+     * Invalidate once the current transaction commits, so a concurrent request cannot reload
+     * and cache the state the transaction is replacing; immediately when there is none
+     */
+    public void invalidateAfterCommit(String username) {
+        if (username == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(username);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private static UserSecurityState toState(User user) {
+        Set<String> authorities = user.getRoles() == null ? Set.of() : user.getRoles().stream()
+                .map(role -> "ROLE_" + role.getName())
+                .collect(Collectors.toUnmodifiableSet());
+        return new UserSecurityState(
+                user.getUsername(),
+                !Boolean.FALSE.equals(user.getAccountEnabled()),
+                Boolean.TRUE.equals(user.getAccountLocked()),
+                user.getPasswordSetAt(),
+                authorities,
+                user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L);
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.clinicapp.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped spool of opaque records, split into fixed-size segments.
+ *
+ * Record layout: [int length][int CRC32C of payload][payload]. The length is written last,
+ * so a record interrupted mid-write is never seen as complete; on reopen each segment is
+ * scanned and the spool resumes after the last record whose checksum matches.
+ *
+ * A single appender (synchronized) and any number of readers are supported. Readers only see
+ * records below the published write position, and consumed segments are deleted with
+ * {@link #release}. Each spool directory carries a random id so a consumer can tell a
+ * recreated spool apart from the one its saved {@link Position} refers to.
+ */
+public class AuditSpool implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String ID_FILE = "spool.id";
+
+    /**
+     * A point in the spool: segment number and byte offset within it
+     */
+    public record Position(long segment, long offset) {
+    }
+
+    /**
+     * Records read from the spool and the position just after the last one
+     */
+    public record ReadResult(List<byte[]> records, Position next, int corruptSegments) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final String spoolId;
+
+    // segment number -> end offset of the sealed segment (all but the active one)
+    private final ConcurrentSkipListMap<Long, Long> sealedSegments = new ConcurrentSkipListMap<>();
+    private final Map<Long, MappedByteBuffer> readBuffers = new ConcurrentHashMap<>();
+
+    /**
+     * Active segment and write position, published together so readers never pair
+     * one segment with another segment's position
+     */
+    private record WriteState(long segment, long position) {
+    }
+
+    private long activeSegment;
+    private long writePosition;
+    private volatile MappedByteBuffer activeBuffer;
+    private volatile WriteState published;
+    private volatile boolean dirty;
+
+    public AuditSpool(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes too small");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(2, maxSegments);
+        Files.createDirectories(directory);
+        this.spoolId = loadOrCreateId();
+        recover();
+    }
+
+    public String getSpoolId() {
+        return spoolId;
+    }
+
+    /**
+     * Oldest position still held in the spool
+     */
+    public Position start() {
+        Long oldest = sealedSegments.isEmpty() ? null : sealedSegments.firstKey();
+        return new Position(oldest != null ? oldest : published.segment(), 0);
+    }
+
+    /**
+     * Whether a saved position still refers to data held by this spool
+     */
+    public boolean contains(Position position) {
+        long segment = position.segment();
+        WriteState state = published;
+        if (segment == state.segment()) {
+            return position.offset() <= state.position();
+        }
+        Long end = sealedSegments.get(segment);
+        return end != null && position.offset() <= end;
+    }
+
+    /**
+     * Append a record. Returns false when the spool is full (max segments reached)
+     * or the record cannot fit in a segment.
+     */
+    public synchronized boolean append(byte[] payload) throws IOException {
+        int needed = HEADER_BYTES + payload.length;
+        if (needed > segmentBytes) {
+            return false;
+        }
+        if (writePosition + needed > segmentBytes) {
+            if (sealedSegments.size() + 1 >= maxSegments) {
+                return false;
+            }
+            rotate();
+        }
+
+        int offset = (int) writePosition;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        activeBuffer.putInt(offset + 4, (int) crc.getValue());
+        activeBuffer.put(offset + HEADER_BYTES, payload);
+        // Length last: this is what makes the record visible after a crash
+        activeBuffer.putInt(offset, payload.length);
+        writePosition = offset + needed;
+        published = new WriteState(activeSegment, writePosition);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Read up to maxRecords starting at a position, moving across segment boundaries.
+     * A record failing its checksum in a sealed segment marks the rest of that segment as
+     * unreadable; reading continues with the next segment.
+     */
+    public ReadResult read(Position from, int maxRecords) {
+        List<byte[]> records = new ArrayList<>();
+        long segment = from.segment();
+        long offset = from.offset();
+        int corrupt = 0;
+
+        while (records.size() < maxRecords) {
+            // Read the published state before the data it covers
+            WriteState state = published;
+            boolean active = segment == state.segment();
+            long limit = active ? state.position() : sealedSegments.getOrDefault(segment, -1L);
+            if (limit < 0) {
+                Long next = sealedSegments.higherKey(segment);
+                if (next == null) {
+                    if (segment < state.segment()) {
+                        segment = state.segment();
+                        offset = 0;
+                        continue;
+                    }
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+
+            ByteBuffer buffer = bufferFor(segment);
+            while (offset + HEADER_BYTES <= limit && records.size() < maxRecords) {
+                byte[] payload = readRecord(buffer, offset, limit);
+                if (payload == null) {
+                    corrupt++;
+                    offset = limit;
+                    break;
+                }
+                records.add(payload);
+                offset += HEADER_BYTES + payload.length;
+            }
+
+            if (active || offset < limit) {
+                break;
+            }
+            // End of a sealed segment: continue with the next one
+            Long next = sealedSegments.higherKey(segment);
+            segment = next != null ? next : published.segment();
+            offset = 0;
+        }
+        return new ReadResult(records, new Position(segment, offset), corrupt);
+    }
+
+    /**
+     * Delete every sealed segment before the given segment number
+     */
+    public void release(long segmentExclusive) throws IOException {
+        for (Long segment : new ArrayList<>(sealedSegments.headMap(segmentExclusive).keySet())) {
+            sealedSegments.remove(segment);
+            readBuffers.remove(segment);
+            Files.deleteIfExists(segmentPath(segment));
+        }
+    }
+
+    /**
+     * Flush written records to the storage device, if anything changed since the last call
+     */
+    public void force() {
+        if (dirty) {
+            dirty = false;
+            activeBuffer.force();
+        }
+    }
+
+    public int segmentCount() {
+        return sealedSegments.size() + 1;
+    }
+
+    @Override
+    public void close() {
+        force();
+        readBuffers.clear();
+    }
+
+    private String loadOrCreateId() throws IOException {
+        Path idFile = directory.resolve(ID_FILE);
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    private void recover() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())), path);
+            }
+        }
+
+        if (segments.isEmpty()) {
+            openActive(1);
+            return;
+        }
+        long last = segments.lastKey();
+        for (Long segment : segments.headMap(last).keySet()) {
+            sealedSegments.put(segment, scanEnd(map(segment, FileChannel.MapMode.READ_ONLY), sizeOf(segment)));
+        }
+        openActive(last);
+        writePosition = scanEnd(activeBuffer, segmentBytes);
+        published = new WriteState(last, writePosition);
+    }
+
+    private void rotate() throws IOException {
+        activeBuffer.force();
+        sealedSegments.put(activeSegment, writePosition);
+        readBuffers.put(activeSegment, activeBuffer);
+        openActive(activeSegment + 1);
+    }
+
+    private void openActive(long segment) throws IOException {
+        MappedByteBuffer buffer = map(segment, FileChannel.MapMode.READ_WRITE);
+        readBuffers.put(segment, buffer);
+        activeBuffer = buffer;
+        activeSegment = segment;
+        writePosition = 0;
+        published = new WriteState(segment, 0);
+    }
+
+    private MappedByteBuffer map(long segment, FileChannel.MapMode mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = mode == FileChannel.MapMode.READ_WRITE ? segmentBytes : channel.size();
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    private long sizeOf(long segment) throws IOException {
+        return Files.size(segmentPath(segment));
+    }
+
+    private ByteBuffer bufferFor(long segment) {
+        MappedByteBuffer buffer = readBuffers.computeIfAbsent(segment, s -> {
+            try {
+                return map(s, FileChannel.MapMode.READ_ONLY);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return buffer.duplicate();
+    }
+
+    /**
+     * Offset just after the last intact record (zero length, bad length or bad checksum ends the scan)
+     */
+    private long scanEnd(ByteBuffer buffer, long limit) {
+        long offset = 0;
+        while (offset + HEADER_BYTES <= limit) {
+            byte[] payload = readRecord(buffer, offset, limit);
+            if (payload == null) {
+                break;
+            }
+            offset += HEADER_BYTES + payload.length;
+        }
+        return offset;
+    }
+
+    private static byte[] readRecord(ByteBuffer buffer, long offset, long limit) {
+        int position = (int) offset;
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + (long) length > limit) {
+            return null;
+        }
+        int expectedCrc = buffer.getInt(position + 4);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == expectedCrc ? payload : null;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+}
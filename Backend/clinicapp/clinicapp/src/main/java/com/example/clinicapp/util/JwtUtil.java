@@ -2,7 +2,9 @@ package com.example.clinicapp.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -11,22 +13,54 @@ import javax.crypto.SecretKey;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    public static final String EPOCH_CLAIM = "epoch";
+
+    // Entries looked at to make room in a full claims cache
+    private static final int EVICTION_SAMPLE = 16;
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
     @Value("${jwt.expiration:86400000}") // 24 hours default
     private Long EXPIRATION_TIME;
 
-    private SecretKey getSigningKey() {
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
+    // Built once: decoding the secret and building a parser per call is wasted work
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Verified claims keyed by SHA-256 of the token. An entry never outlives the token's
+     * own exp, so a cache hit is exactly as trustworthy as a fresh signature check. Held to
+     * about jwt.claims-cache.max-entries by sampled eviction when full.
+     */
+    private final Map<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
         byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -42,26 +76,94 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verified claims for a token, paying for the HMAC-SHA512 check at most once per token.
+     * Throws the same {@link JwtException}s as a fresh parse for invalid or expired tokens.
+     */
+    public Claims extractAllClaims(String token) {
+        String key = TokenHashUtil.sha256Hex(token);
+        long now = System.currentTimeMillis();
+
+        CachedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached.claims();
+            }
+            claimsCache.remove(key);
+        }
+
+        // Throws ExpiredJwtException / SignatureException etc. exactly as before
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (claimsCache.size() >= claimsCacheMaxEntries) {
+                makeRoom(now);
+            }
+            claimsCache.put(key, new CachedClaims(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Evict from a bounded sample rather than scanning the whole cache on the request path:
+     * the expired entries in it, or else the one expiring soonest
+     */
+    private void makeRoom(long now) {
+        Iterator<Map.Entry<String, CachedClaims>> entries = claimsCache.entrySet().iterator();
+        String soonest = null;
+        long soonestExpiry = Long.MAX_VALUE;
+        boolean evicted = false;
+        for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+            Map.Entry<String, CachedClaims> entry = entries.next();
+            long expiresAt = entry.getValue().expiresAtMillis();
+            if (expiresAt <= now) {
+                entries.remove();
+                evicted = true;
+            } else if (expiresAt < soonestExpiry) {
+                soonest = entry.getKey();
+                soonestExpiry = expiresAt;
+            }
+        }
+        if (!evicted && soonest != null) {
+            claimsCache.remove(soonest);
+        }
+    }
+
+    private void evictExpired(long now) {
+        claimsCache.values().removeIf(entry -> entry.expiresAtMillis() <= now);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @Scheduled(fixedDelayString = "${jwt.claims-cache.purge-interval-ms:60000}")
+    public void purgeExpiredClaims() {
+        evictExpired(System.currentTimeMillis());
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, 0L);
+    }
+
+    /**
+     * Issue a token carrying the user's current token epoch; the token stops being
+     * accepted once the epoch is bumped
+     */
+    public String generateToken(UserDetails userDetails, long tokenEpoch) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+        claims.put(EPOCH_CLAIM, tokenEpoch);
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Token epoch claim; tokens issued before epochs existed count as epoch 0
+     */
+    public static long extractTokenEpoch(Claims claims) {
+        Number epoch = claims.get(EPOCH_CLAIM, Number.class);
+        return epoch != null ? epoch.longValue() : 0L;
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -73,7 +175,8 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.example.clinicapp.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Cursor parsing for the keyset-paginated repository queries.
+ *
+ * A missing cursor becomes a bound past every real row (id 0 ascending, Long.MAX_VALUE or
+ * {@link #LATEST} descending), so the first page runs the same query as every later one.
+ */
+public final class KeysetCursors {
+
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    /**
+     * Sort key of the last row seen when listing by time then id, newest first
+     */
+    public record TimeAndId(LocalDateTime time, long id) {
+    }
+
+    private KeysetCursors() {
+    }
+
+    /**
+     * Id after which an ascending page starts
+     */
+    public static long afterId(String cursor) {
+        return isFirstPage(cursor) ? 0L : parseId(CursorCodec.decode(cursor, 1)[0]);
+    }
+
+    /**
+     * Id before which a descending page starts
+     */
+    public static long beforeId(String cursor) {
+        return isFirstPage(cursor) ? Long.MAX_VALUE : parseId(CursorCodec.decode(cursor, 1)[0]);
+    }
+
+    public static TimeAndId beforeTimeAndId(String cursor) {
+        if (isFirstPage(cursor)) {
+            return new TimeAndId(LATEST, Long.MAX_VALUE);
+        }
+        String[] parts = CursorCodec.decode(cursor, 2);
+        try {
+            return new TimeAndId(LocalDateTime.parse(parts[0]), parseId(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * The first pageSize + 1 rows, so {@link com.example.clinicapp.dto.CursorPage#of} can tell whether more follow
+     */
+    public static Pageable rows(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.clinicapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key event counts over a sliding time window, split into fixed time buckets.
+ *
+ * Each key holds a ring of bucket counts plus a running total. Advancing the ring
+ * subtracts only the buckets that fell out of the window, so recording and counting are
+ * amortized O(1). The number of keys is bounded: beyond maxKeys, empty windows are dropped
+ * first and then the least recently updated ones.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int maxKeys;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private static final class Window {
+        private final int[] counts;
+        private long headBucket;
+        private int total;
+
+        private Window(int bucketCount, long headBucket) {
+            this.counts = new int[bucketCount];
+            this.headBucket = headBucket;
+        }
+
+        private void advance(long bucket) {
+            if (bucket <= headBucket) {
+                return;
+            }
+            if (bucket - headBucket >= counts.length) {
+                Arrays.fill(counts, 0);
+                total = 0;
+            } else {
+                for (long b = headBucket + 1; b <= bucket; b++) {
+                    int index = (int) (b % counts.length);
+                    total -= counts[index];
+                    counts[index] = 0;
+                }
+            }
+            headBucket = bucket;
+        }
+    }
+
+    public SlidingWindowCounter(long windowMillis, int bucketCount, int maxKeys) {
+        if (bucketCount <= 0 || windowMillis < bucketCount) {
+            throw new IllegalArgumentException("window must hold at least one millisecond per bucket");
+        }
+        this.bucketMillis = windowMillis / bucketCount;
+        this.bucketCount = bucketCount;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Count one event for the key at the given time. Events older than the window are ignored.
+     */
+    public void record(String key, long timestampMillis) {
+        if (key == null) {
+            return;
+        }
+        long bucket = timestampMillis / bucketMillis;
+        Window window = windows.get(key);
+        if (window == null) {
+            // Make room before inserting so the new window cannot be evicted while still empty
+            if (windows.size() >= maxKeys) {
+                evict(bucket);
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(bucketCount, bucket));
+        }
+        synchronized (window) {
+            window.advance(bucket);
+            if (bucket <= window.headBucket - bucketCount) {
+                return;
+            }
+            window.counts[(int) (bucket % bucketCount)]++;
+            window.total++;
+        }
+    }
+
+    /**
+     * Events recorded for the key within the window ending at nowMillis
+     */
+    public int count(String key, long nowMillis) {
+        if (key == null) {
+            return 0;
+        }
+        Window window = windows.get(key);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            window.advance(nowMillis / bucketMillis);
+            return window.total;
+        }
+    }
+
+    public void clear() {
+        windows.clear();
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private synchronized void evict(long nowBucket) {
+        if (windows.size() < maxKeys) {
+            return;
+        }
+        windows.entrySet().removeIf(entry -> {
+            Window window = entry.getValue();
+            synchronized (window) {
+                window.advance(nowBucket);
+                return window.total == 0;
+            }
+        });
+        int excess = windows.size() - maxKeys + 1;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<String, Long>> byHead = new ArrayList<>(windows.size());
+        windows.forEach((key, window) -> byHead.add(Map.entry(key, window.headBucket)));
+        byHead.sort(Map.Entry.comparingByValue());
+        for (int i = 0; i < Math.min(byHead.size(), Math.max(excess, maxKeys / 10)); i++) {
+            windows.remove(byHead.get(i).getKey());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.clinicapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: O(1) insertion of timers and O(1) work per tick, however many
+ * timers are pending.
+ *
+ * Level 0 has one bucket per tick; each level above has buckets 2^bitsPerLevel times wider.
+ * A timer goes into the lowest level whose span covers its delay. When the clock reaches a
+ * higher-level bucket, that bucket's timers are cascaded down and re-placed by their exact
+ * expiry, so each timer moves at most once per level before its level-0 bucket fires.
+ * Timers beyond the top level's span wait in its farthest bucket and are re-placed as the
+ * clock approaches. Expirations in the past fire on the next tick. Thread-safe.
+ */
+public final class TimingWheel<T> {
+
+    private record Timer<T>(long expiryTick, T item) {
+    }
+
+    private final long tickMillis;
+    private final int bitsPerLevel;
+    private final int levels;
+    private final long mask;
+    private final List<List<Timer<T>>> buckets;
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int bitsPerLevel, int levels, long startMillis) {
+        if (tickMillis <= 0 || bitsPerLevel <= 0 || levels <= 0 || bitsPerLevel * levels >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.bitsPerLevel = bitsPerLevel;
+        this.levels = levels;
+        this.mask = (1L << bitsPerLevel) - 1;
+        int bucketsPerLevel = 1 << bitsPerLevel;
+        this.buckets = new ArrayList<>(levels * bucketsPerLevel);
+        for (int i = 0; i < levels * bucketsPerLevel; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule item to come due at expirationMillis (or on the next tick if that has passed)
+     */
+    public synchronized void add(long expirationMillis, T item) {
+        // Round up: an item never comes due before its expiration
+        long expiryTick = Math.floorDiv(expirationMillis + tickMillis - 1, tickMillis);
+        place(new Timer<>(Math.max(expiryTick, currentTick + 1), item));
+        size++;
+    }
+
+    /**
+     * Move the clock to nowMillis and return every item that came due on the way, in expiry order
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the top so timers falling through several levels land correctly
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bitsPerLevel * level)) - 1)) == 0) {
+                    List<Timer<T>> bucket = bucket(level, currentTick);
+                    List<Timer<T>> cascading = new ArrayList<>(bucket);
+                    bucket.clear();
+                    for (Timer<T> timer : cascading) {
+                        place(timer);
+                    }
+                }
+            }
+            List<Timer<T>> firing = bucket(0, currentTick);
+            for (Timer<T> timer : firing) {
+                due.add(timer.item());
+            }
+            size -= firing.size();
+            firing.clear();
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.expiryTick() - currentTick;
+        if (delta <= 0) {
+            // Cascaded exactly onto the current tick: fire with this tick's bucket
+            bucket(0, currentTick).add(timer);
+            return;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bitsPerLevel * (level + 1)))) {
+            level++;
+        }
+        long slotTick = timer.expiryTick();
+        long span = 1L << (bitsPerLevel * levels);
+        if (delta >= span) {
+            // Beyond the wheel: park in the farthest top-level bucket and re-place on cascade
+            slotTick = currentTick + span - 1;
+        }
+        bucket(level, slotTick).add(timer);
+    }
+
+    private List<Timer<T>> bucket(int level, long tick) {
+        int index = (int) ((tick >>> (bitsPerLevel * level)) & mask);
+        return buckets.get((level << bitsPerLevel) + index);
+    }
+}
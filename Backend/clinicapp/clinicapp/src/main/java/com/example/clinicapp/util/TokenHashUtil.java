@@ -0,0 +1,42 @@
+package com.example.clinicapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Token hashing helpers.
+ *
+ * Tokens are never kept in memory indexes by value; a SHA-256 digest is used instead
+ * so lookups are fixed-size and the raw JWT cannot be recovered from a heap dump.
+ */
+public final class TokenHashUtil {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private TokenHashUtil() {
+    }
+
+    /**
+     * Raw SHA-256 digest of the token (32 bytes)
+     */
+    public static byte[] sha256(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return digest.digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lower-case hex SHA-256 digest of the token (64 chars)
+     */
+    public static String sha256Hex(String token) {
+        return HexFormat.of().formatHex(sha256(token));
+    }
+}
@@ -0,0 +1,41 @@
+-- V10__normalise_statuses.sql
+-- Appointment, prescription and invoice statuses become enums stored by name
+-- (AppointmentStatus, PrescriptionStatus, InvoiceStatus). Existing free-text values are
+-- normalised first: entities fail to load rows whose status is not an enum constant, so
+-- run this before deploying the typed model. Composite indexes then serve the status
+-- lists (consults, invoice and prescription filters) newest first.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+UPDATE appointments SET status = CASE UPPER(TRIM(status))
+        WHEN 'PENDING' THEN 'PENDING'
+        WHEN 'BOOKED' THEN 'BOOKED'
+        WHEN 'CONFIRMED' THEN 'BOOKED'
+        WHEN 'SCHEDULED' THEN 'BOOKED'
+        WHEN 'COMPLETED' THEN 'COMPLETED'
+        WHEN 'CANCELLED' THEN 'CANCELLED'
+        WHEN 'CANCELED' THEN 'CANCELLED'
+        ELSE 'BOOKED'
+    END;
+
+UPDATE prescriptions SET status = CASE UPPER(TRIM(status))
+        WHEN 'FINALIZED' THEN 'FINALIZED'
+        WHEN 'CANCELLED' THEN 'CANCELLED'
+        WHEN 'CANCELED' THEN 'CANCELLED'
+        ELSE 'DRAFT'
+    END;
+
+UPDATE invoices SET status = CASE UPPER(TRIM(status))
+        WHEN 'VOID' THEN 'VOID'
+        ELSE 'GENERATED'
+    END;
+
+ALTER TABLE appointments ALTER COLUMN status TYPE VARCHAR(16);
+ALTER TABLE appointments ALTER COLUMN status SET NOT NULL;
+ALTER TABLE prescriptions ALTER COLUMN status TYPE VARCHAR(16);
+ALTER TABLE invoices ALTER COLUMN status TYPE VARCHAR(16);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_status_time ON appointments(status, appointment_time DESC);
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_status_time ON appointments(patient_id, status, appointment_time DESC);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_status_issued ON prescriptions(status, issued_at DESC);
+CREATE INDEX IF NOT EXISTS idx_invoices_status_date ON invoices(status, invoice_date DESC);
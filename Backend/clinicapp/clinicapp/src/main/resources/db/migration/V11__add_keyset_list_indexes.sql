@@ -0,0 +1,11 @@
+-- V11__add_keyset_list_indexes.sql
+-- Keyset pagination for the per-patient and per-doctor prescription and invoice lists
+-- (newest first by id). Patients and the global lists page over the primary key; the
+-- status lists use the V10 status indexes.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE INDEX IF NOT EXISTS idx_prescriptions_patient_id ON prescriptions(patient_id, id DESC);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_doctor_id ON prescriptions(doctor_id, id DESC);
+CREATE INDEX IF NOT EXISTS idx_invoices_patient_id ON invoices(patient_id, id DESC);
+CREATE INDEX IF NOT EXISTS idx_invoices_doctor_id ON invoices(doctor_id, id DESC);
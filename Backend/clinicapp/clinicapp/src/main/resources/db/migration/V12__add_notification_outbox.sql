@@ -0,0 +1,23 @@
+-- V12__add_notification_outbox.sql
+-- Transactional outbox for appointment notifications. Rows are inserted in the same
+-- transaction as the appointment change; NotificationDispatcher claims due PENDING rows
+-- with FOR UPDATE SKIP LOCKED, sends them, and records SENT, a retry time, or FAILED.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    channel VARCHAR(8) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body TEXT NOT NULL,
+    appointment_id BIGINT,
+    status VARCHAR(8) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox(status, next_attempt_at);
@@ -0,0 +1,15 @@
+-- V13__add_appointment_reminders.sql
+-- One row per reminder sent, inserted by ReminderScheduler in the same transaction as the
+-- queued email. The unique key lets exactly one node claim each reminder; the appointment
+-- time is part of it so a rescheduled appointment is reminded again.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE IF NOT EXISTS appointment_reminders (
+    id BIGSERIAL PRIMARY KEY,
+    appointment_id BIGINT NOT NULL,
+    offset_minutes INTEGER NOT NULL,
+    appointment_time TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_appointment_reminders_claim UNIQUE (appointment_id, offset_minutes, appointment_time)
+);
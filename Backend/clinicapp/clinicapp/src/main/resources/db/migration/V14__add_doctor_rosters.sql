@@ -0,0 +1,34 @@
+-- V14__add_doctor_rosters.sql
+-- Weekly working hours, breaks and leave days per doctor. RosterCalendar turns them into
+-- in-memory slot bitmaps; the roster version is bumped on every roster or leave change so
+-- other nodes rebuild that doctor's calendar. Doctors without a roster are not restricted.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE IF NOT EXISTS doctor_rosters (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    slot_minutes INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT,
+    CONSTRAINT uk_doctor_rosters_doctor UNIQUE (doctor_id)
+);
+
+CREATE TABLE IF NOT EXISTS roster_periods (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    day_of_week VARCHAR(9) NOT NULL,
+    kind VARCHAR(5) NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_roster_periods_doctor ON roster_periods (doctor_id);
+
+CREATE TABLE IF NOT EXISTS doctor_leaves (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    leave_date DATE NOT NULL,
+    reason VARCHAR(255),
+    CONSTRAINT uk_doctor_leaves_doctor_date UNIQUE (doctor_id, leave_date)
+);
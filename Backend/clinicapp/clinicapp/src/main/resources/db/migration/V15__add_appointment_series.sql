@@ -0,0 +1,17 @@
+-- V15__add_appointment_series.sql
+-- Recurring appointment series. Each occurrence is an ordinary appointment pointing at its
+-- series; the series row records the recurrence rule it was expanded from.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE IF NOT EXISTS appointment_series (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT,
+    frequency VARCHAR(8) NOT NULL,
+    repeat_interval INTEGER NOT NULL,
+    first_occurrence TIMESTAMP NOT NULL,
+    occurrence_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS series_id BIGINT;
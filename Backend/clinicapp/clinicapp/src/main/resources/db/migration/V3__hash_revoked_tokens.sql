@@ -0,0 +1,26 @@
+-- V3__hash_revoked_tokens.sql
+-- Store revoked tokens as a fixed-length SHA-256 digest instead of the full JWT,
+-- expiring together with the token itself.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update), which adds
+-- token_hash but does not drop or relax the old token column; apply this on existing databases.
+
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+-- Rows past their expiry are no longer needed
+DELETE FROM revoked_tokens WHERE expires_at < CURRENT_TIMESTAMP;
+
+ALTER TABLE revoked_tokens ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64);
+
+UPDATE revoked_tokens
+SET token_hash = encode(digest(token, 'sha256'), 'hex')
+WHERE token_hash IS NULL;
+
+ALTER TABLE revoked_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE revoked_tokens ADD CONSTRAINT uk_revoked_tokens_token_hash UNIQUE (token_hash);
+
+DROP INDEX IF EXISTS idx_revoked_tokens_token;
+DROP INDEX IF EXISTS idx_token;
+ALTER TABLE revoked_tokens DROP COLUMN IF EXISTS token;
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
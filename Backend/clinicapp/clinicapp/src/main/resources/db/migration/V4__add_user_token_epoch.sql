@@ -0,0 +1,10 @@
+-- V4__add_user_token_epoch.sql
+-- Per-user token epoch: embedded in every JWT as the "epoch" claim; incrementing it
+-- invalidates all of the user's outstanding tokens (password reset, logout-all, admin revoke).
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch BIGINT;
+UPDATE users SET token_epoch = 0 WHERE token_epoch IS NULL;
+ALTER TABLE users ALTER COLUMN token_epoch SET DEFAULT 0;
+ALTER TABLE users ALTER COLUMN token_epoch SET NOT NULL;
@@ -0,0 +1,12 @@
+-- V5__add_audit_spool_markers.sql
+-- Replay markers for the local audit spool. The drainer updates a spool's marker in the
+-- same transaction as the audit_logs rows it inserts, giving exactly-once replay.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE IF NOT EXISTS audit_spool_markers (
+    spool_id VARCHAR(36) PRIMARY KEY,
+    segment_number BIGINT NOT NULL,
+    segment_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,74 @@
+-- V6__partition_audit_logs.sql
+-- Convert audit_logs into a table partitioned by month on timestamp (PostgreSQL 11+).
+-- Time-range audit queries are pruned to the matching partitions, and retention drops or
+-- detaches whole months instead of deleting rows. AuditRetentionService creates upcoming
+-- partitions (audit_logs_pYYYYMM) on a schedule; rows outside every partition land in
+-- audit_logs_default.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update), which only ever
+-- creates a plain table; apply this on existing PostgreSQL databases during a maintenance window.
+
+BEGIN;
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER INDEX IF EXISTS idx_audit_username RENAME TO idx_audit_legacy_username;
+ALTER INDEX IF EXISTS idx_audit_timestamp RENAME TO idx_audit_legacy_timestamp;
+ALTER INDEX IF EXISTS idx_audit_action RENAME TO idx_audit_legacy_action;
+ALTER INDEX IF EXISTS idx_audit_resource RENAME TO idx_audit_legacy_resource;
+
+CREATE SEQUENCE IF NOT EXISTS audit_logs_partitioned_id_seq;
+
+-- The primary key of a partitioned table must include the partition key
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_partitioned_id_seq'),
+    username VARCHAR(255) NOT NULL,
+    action VARCHAR(255) NOT NULL,
+    resource_type VARCHAR(255) NOT NULL,
+    resource_id BIGINT,
+    ip_address VARCHAR(255) NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    details TEXT,
+    method VARCHAR(255) NOT NULL,
+    user_agent VARCHAR(255),
+    response_status INTEGER,
+    duration_ms BIGINT,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE audit_logs_partitioned_id_seq OWNED BY audit_logs.id;
+
+CREATE INDEX idx_audit_username ON audit_logs(username);
+CREATE INDEX idx_audit_timestamp ON audit_logs(timestamp);
+CREATE INDEX idx_audit_action ON audit_logs(action);
+CREATE INDEX idx_audit_resource ON audit_logs(resource_type, resource_id);
+
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- One partition per month from the oldest row up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+        (SELECT MIN(timestamp) FROM audit_logs_legacy), CURRENT_TIMESTAMP))::date;
+    last_month DATE := (date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs (id, username, action, resource_type, resource_id, ip_address, timestamp,
+                        details, method, user_agent, response_status, duration_ms)
+SELECT id, username, action, resource_type, resource_id, ip_address, timestamp,
+       details, method, user_agent, response_status, duration_ms
+FROM audit_logs_legacy;
+
+SELECT setval('audit_logs_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM audit_logs), 0) + 1, false);
+
+DROP TABLE audit_logs_legacy;
+
+COMMIT;
@@ -0,0 +1,8 @@
+-- V7__add_audit_keyset_indexes.sql
+-- Indexes backing keyset pagination of /audit/logs on (timestamp, id), newest first.
+-- On a partitioned audit_logs (V6) they are created on every partition.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE INDEX IF NOT EXISTS idx_audit_timestamp_id ON audit_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_username_timestamp ON audit_logs(username, timestamp, id);
@@ -0,0 +1,8 @@
+-- V8__add_appointment_duration.sql
+-- Appointment length in minutes (NULL = app.appointments.default-duration-minutes) and an
+-- index for loading one doctor's day into the slot availability index.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS duration_minutes INTEGER;
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_time ON appointments(doctor_id, appointment_time);
@@ -0,0 +1,31 @@
+-- V9__add_appointment_slots.sql
+-- One row per (doctor, slot) an appointment occupies, written in the same transaction as
+-- the appointment. The unique constraint is the final arbiter against double bookings
+-- across nodes; appointments without a doctor use doctor_id 0.
+-- Note: This is a reference file for documentation and future use.
+-- The actual schema is auto-generated by Hibernate (ddl-auto=update)
+
+CREATE TABLE IF NOT EXISTS appointment_slots (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    slot_start TIMESTAMP NOT NULL,
+    appointment_id BIGINT NOT NULL,
+    CONSTRAINT uk_appointment_slots_doctor_slot UNIQUE (doctor_id, slot_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_appointment_slots_appointment ON appointment_slots(appointment_id);
+
+-- Backfill future appointments, assuming the default 5-minute slots and 10-minute duration.
+-- Rows that already overlap keep the first claim; the later appointment holds no slots.
+INSERT INTO appointment_slots (doctor_id, slot_start, appointment_id)
+SELECT COALESCE(a.doctor_id, 0), s.slot_start, a.id
+FROM appointments a
+CROSS JOIN LATERAL generate_series(
+    date_trunc('hour', a.appointment_time)
+        + floor(extract(minute FROM a.appointment_time) / 5) * INTERVAL '5 minutes',
+    a.appointment_time + COALESCE(a.duration_minutes, 10) * INTERVAL '1 minute' - INTERVAL '1 second',
+    INTERVAL '5 minutes') AS s(slot_start)
+WHERE a.appointment_time >= CURRENT_DATE
+  AND LOWER(COALESCE(a.status, '')) NOT IN ('cancelled', 'canceled')
+ORDER BY a.id
+ON CONFLICT (doctor_id, slot_start) DO NOTHING;
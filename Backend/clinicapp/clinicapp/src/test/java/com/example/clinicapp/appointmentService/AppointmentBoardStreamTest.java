@@ -0,0 +1,246 @@
+package com.example.clinicapp.appointmentService;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.BoardEvent;
+import com.example.clinicapp.dto.BoardEvent.Type;
+import com.example.clinicapp.service.AppointmentBoardStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentBoardStreamTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    /**
+     * Keeps the board events sent to it; fails every send once broken, and blocks every send
+     * while stalled is closed
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<BoardEvent> events = new CopyOnWriteArrayList<>();
+        volatile boolean broken;
+        volatile boolean completed;
+        volatile CountDownLatch stalled;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            if (stalled != null) {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted");
+                }
+            }
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof BoardEvent event) {
+                    events.add(event);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<Type> types() {
+            return events.stream().map(BoardEvent::type).toList();
+        }
+    }
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private AppointmentProperties properties;
+    private AppointmentBoardStream board;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        properties.getBoard().setReplayEvents(3);
+        // Sending inline keeps the tests single-threaded
+        board = board(Runnable::run);
+    }
+
+    private AppointmentBoardStream board(Executor delivery) {
+        return new AppointmentBoardStream(properties, new SimpleMeterRegistry(), Runnable::run, delivery) {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(LocalDate date, Long doctorId, String lastEventId) {
+        board.subscribe(date, doctorId, lastEventId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private static AppointmentDto appointment(long id, LocalDateTime time, long doctorId) {
+        AppointmentDto appointment = new AppointmentDto();
+        appointment.setId(id);
+        appointment.setAppointmentTime(time);
+        appointment.setDoctorId(doctorId);
+        return appointment;
+    }
+
+    @Test
+    void testEventsReachOnlyScreensOfTheirDayAndDoctor() {
+        RecordingEmitter wholeDay = subscribe(DAY, null, null);
+        RecordingEmitter doctorOne = subscribe(DAY, 1L, null);
+        RecordingEmitter nextDay = subscribe(DAY.plusDays(1), null, null);
+
+        board.created(appointment(10L, DAY.atTime(9, 0), 1L));
+        board.created(appointment(11L, DAY.atTime(9, 30), 2L));
+        board.prescriptionSaved(5L, 10L, DAY.atTime(9, 0), 1L);
+
+        assertEquals(List.of(Type.CREATED, Type.CREATED, Type.PRESCRIPTION), wholeDay.types());
+        assertEquals(List.of(Type.CREATED, Type.PRESCRIPTION), doctorOne.types());
+        assertEquals(10L, doctorOne.events.get(0).appointmentId());
+        assertTrue(nextDay.events.isEmpty());
+        assertEquals(3, board.subscriberCount());
+    }
+
+    @Test
+    void testReconnectReplaysMissedEvents() {
+        RecordingEmitter first = subscribe(DAY, null, null);
+        board.created(appointment(10L, DAY.atTime(9, 0), 1L));
+        long lastSeen = first.events.get(0).id();
+
+        board.created(appointment(11L, DAY.atTime(9, 30), 1L));
+        board.created(appointment(12L, DAY.plusDays(1).atTime(9, 0), 1L));
+        board.removed(10L, DAY.atTime(9, 0), 1L);
+        RecordingEmitter resumed = subscribe(DAY, null, String.valueOf(lastSeen));
+
+        // Only this day's events after the last one seen, in order
+        assertEquals(List.of(11L, 10L), resumed.events.stream().map(BoardEvent::appointmentId).toList());
+        assertEquals(List.of(Type.CREATED, Type.REMOVED), resumed.types());
+
+        // Nothing missed: nothing replayed, and live events still arrive
+        RecordingEmitter current = subscribe(DAY, null, String.valueOf(resumed.events.get(1).id()));
+        assertTrue(current.events.isEmpty());
+        board.created(appointment(13L, DAY.atTime(10, 0), 1L));
+        assertEquals(List.of(Type.CREATED), current.types());
+    }
+
+    @Test
+    void testResyncWhenMissedEventsAreNoLongerHeld() {
+        RecordingEmitter first = subscribe(DAY, null, null);
+        board.created(appointment(10L, DAY.atTime(9, 0), 1L));
+        long lastSeen = first.events.get(0).id();
+        // Three more push the first past the replay buffer of three
+        for (long id = 11; id <= 14; id++) {
+            board.created(appointment(id, DAY.atTime(10, 0), 1L));
+        }
+
+        assertEquals(List.of(Type.RESYNC), subscribe(DAY, null, String.valueOf(lastSeen)).types());
+        assertEquals(List.of(Type.RESYNC), subscribe(DAY, null, "not-an-id").types());
+    }
+
+    @Test
+    void testMovedAppointmentLeavesItsOldDayAndDoctor() {
+        RecordingEmitter oldDay = subscribe(DAY, null, null);
+        RecordingEmitter newDay = subscribe(DAY.plusDays(1), null, null);
+        RecordingEmitter doctorTwo = subscribe(DAY.plusDays(1), 2L, null);
+
+        board.updated(appointment(10L, DAY.plusDays(1).atTime(9, 0), 1L), DAY.atTime(9, 0), 1L);
+        board.updated(appointment(10L, DAY.plusDays(1).atTime(9, 0), 1L), DAY.plusDays(1).atTime(9, 0), 2L);
+
+        assertEquals(List.of(Type.REMOVED), oldDay.types());
+        assertEquals(List.of(Type.UPDATED, Type.UPDATED), newDay.types());
+        assertEquals(List.of(Type.REMOVED), doctorTwo.types());
+    }
+
+    @Test
+    void testScreenThatWentAwayIsDropped() {
+        RecordingEmitter gone = subscribe(DAY, null, null);
+        RecordingEmitter staying = subscribe(DAY, null, null);
+        gone.broken = true;
+
+        board.created(appointment(10L, DAY.atTime(9, 0), 1L));
+        assertEquals(1, board.subscriberCount());
+        assertEquals(List.of(Type.CREATED), staying.types());
+
+        staying.broken = true;
+        board.heartbeat();
+        assertEquals(0, board.subscriberCount());
+    }
+
+    @Test
+    void testSlowScreenIsDroppedWithoutHoldingUpOthers() throws Exception {
+        properties.getBoard().setMaxPendingEvents(4);
+        ExecutorService delivery = Executors.newCachedThreadPool();
+        try {
+            board = board(delivery);
+            RecordingEmitter slow = subscribe(DAY, null, null);
+            RecordingEmitter fast = subscribe(DAY, null, null);
+            slow.stalled = new CountDownLatch(1);
+
+            for (int i = 1; i <= 10; i++) {
+                board.created(appointment(i, DAY.atTime(9, 0), 1L));
+                int expected = i;
+                // The fast screen gets each event while the slow one's write is stuck
+                awaitTrue(() -> fast.events.size() == expected);
+            }
+
+            assertTrue(slow.completed);
+            assertEquals(1, board.subscriberCount());
+            slow.stalled.countDown();
+            board.created(appointment(11L, DAY.atTime(9, 0), 1L));
+            awaitTrue(() -> fast.events.size() == 11);
+            // Nothing more reaches the dropped screen; it resumes from Last-Event-ID on reconnect
+            assertTrue(slow.events.size() <= 1);
+        } finally {
+            delivery.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLongBacklogOnReconnectResyncs() {
+        properties.getBoard().setReplayEvents(10);
+        properties.getBoard().setMaxPendingEvents(3);
+        board = board(Runnable::run);
+        RecordingEmitter first = subscribe(DAY, null, null);
+        board.created(appointment(10L, DAY.atTime(9, 0), 1L));
+        long lastSeen = first.events.get(0).id();
+        for (long id = 11; id <= 14; id++) {
+            board.created(appointment(id, DAY.atTime(10, 0), 1L));
+        }
+
+        RecordingEmitter resumed = subscribe(DAY, null, String.valueOf(lastSeen));
+
+        assertEquals(List.of(Type.RESYNC), resumed.types());
+        assertFalse(resumed.completed);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for delivery");
+            Thread.sleep(1);
+        }
+    }
+}
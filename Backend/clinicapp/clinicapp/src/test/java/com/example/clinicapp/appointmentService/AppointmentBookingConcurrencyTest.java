@@ -0,0 +1,223 @@
+package com.example.clinicapp.appointmentService;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentSlot;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.entity.Doctor;
+import com.example.clinicapp.exception.AppointmentAlreadyBookedException;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.repository.AppointmentSeriesRepository;
+import com.example.clinicapp.repository.AppointmentSlotRepository;
+import com.example.clinicapp.service.AppointmentBoardStream;
+import com.example.clinicapp.service.AppointmentService;
+import com.example.clinicapp.service.MobileService;
+import com.example.clinicapp.service.NotificationOutbox;
+import com.example.clinicapp.service.ReminderScheduler;
+import com.example.clinicapp.service.RosterCalendar;
+import com.example.clinicapp.service.SlotAvailabilityIndex;
+import com.example.clinicapp.service.SlotHoldRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Many receptionists booking overlapping times for the same doctor at once: exactly one wins.
+ *
+ * The slot repository stands in for the database: it enforces the unique (doctor_id, slot_start)
+ * constraint atomically and reports violations the way the JPA repository does.
+ */
+class AppointmentBookingConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentSlotRepository appointmentSlotRepository;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private MobileService mobileService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReminderScheduler reminderScheduler;
+
+    @Mock
+    private RosterCalendar rosterCalendar;
+
+    @Mock
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    private AppointmentBoardStream appointmentBoardStream;
+
+    private final Set<String> claimedSlots = ConcurrentHashMap.newKeySet();
+    private final AtomicLong ids = new AtomicLong(1000);
+    private final AppointmentProperties properties = new AppointmentProperties();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rosterCalendar.isWorking(any())).thenReturn(true);
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            appointment.setId(ids.incrementAndGet());
+            return appointment;
+        });
+        doAnswer(invocation -> claim(invocation.getArgument(0)))
+                .when(appointmentSlotRepository).insertAll(anyList());
+    }
+
+    private synchronized List<AppointmentSlot> claim(List<AppointmentSlot> slots) {
+        for (AppointmentSlot slot : slots) {
+            if (claimedSlots.contains(slot.getDoctorId() + "|" + slot.getSlotStart())) {
+                throw new DataIntegrityViolationException(
+                        "duplicate key value violates unique constraint \"uk_appointment_slots_doctor_slot\"");
+            }
+        }
+        for (AppointmentSlot slot : slots) {
+            claimedSlots.add(slot.getDoctorId() + "|" + slot.getSlotStart());
+        }
+        return slots;
+    }
+
+    /**
+     * One application node: its own slot index and booking locks over the shared "database"
+     */
+    private AppointmentService node() {
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(appointmentRepository, properties, new SimpleMeterRegistry());
+        return new AppointmentService(appointmentRepository, notificationOutbox, mobileService, index,
+                appointmentSlotRepository, transactionManager, properties, new PaginationProperties(), reminderScheduler,
+                rosterCalendar, appointmentSeriesRepository, new SlotHoldRegistry(properties, new SimpleMeterRegistry()),
+                appointmentBoardStream);
+    }
+
+    private static Appointment appointment(long doctorId, LocalDateTime time) {
+        Doctor doctor = new Doctor();
+        doctor.setId(doctorId);
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setAppointmentTime(time);
+        appointment.setDurationMinutes(15);
+        appointment.setStatus(AppointmentStatus.BOOKED);
+        return appointment;
+    }
+
+    /**
+     * Book all appointments concurrently; returns the number of successful bookings
+     */
+    private int bookConcurrently(List<AppointmentService> nodes, List<Appointment> appointments) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < appointments.size(); i++) {
+                AppointmentService node = nodes.get(i % nodes.size());
+                Appointment appointment = appointments.get(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        node.saveAppointment(appointment);
+                        return true;
+                    } catch (AppointmentAlreadyBookedException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    booked++;
+                }
+            }
+            return booked;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOverlappingBookingsOnOneNodeYieldOneAppointment() throws Exception {
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // 10:00, 10:05 and 10:10 for 15 minutes all overlap each other
+            appointments.add(appointment(7L, TEN.plusMinutes((i % 3) * 5L)));
+        }
+
+        assertEquals(1, bookConcurrently(List.of(node()), appointments));
+        assertEquals(3, claimedSlots.size());
+    }
+
+    @Test
+    void testConstraintSettlesRaceBetweenNodes() throws Exception {
+        List<AppointmentService> nodes = List.of(node(), node(), node(), node());
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            appointments.add(appointment(7L, TEN));
+        }
+
+        assertEquals(1, bookConcurrently(nodes, appointments));
+        assertEquals(3, claimedSlots.size());
+        // Only the winning transaction queues a confirmation
+        verify(notificationOutbox, times(1)).email(any(), eq("Appointment Confirmation"), any(), any());
+    }
+
+    @Test
+    void testDifferentDoctorsDoNotConflict() throws Exception {
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            appointments.add(appointment(100L + i, TEN));
+        }
+
+        assertEquals(THREADS, bookConcurrently(List.of(node()), appointments));
+        assertEquals(THREADS * 3, claimedSlots.size());
+    }
+
+    @Test
+    void testLosingNodeRefreshesItsView() throws Exception {
+        AppointmentService first = node();
+        AppointmentService second = node();
+        first.saveAppointment(appointment(7L, TEN));
+
+        assertThrows(AppointmentAlreadyBookedException.class, () -> second.saveAppointment(appointment(7L, TEN)));
+
+        // The stale day was dropped; the reload sees the winner and rejects without touching the constraint
+        when(appointmentRepository.findBookedIntervals(eq(List.of(7L)), any(), any()))
+                .thenReturn(List.of(new BookedInterval(7L, TEN, 15, AppointmentStatus.BOOKED)));
+        clearInvocations(appointmentSlotRepository);
+        assertThrows(AppointmentAlreadyBookedException.class, () -> second.saveAppointment(appointment(7L, TEN)));
+        verify(appointmentSlotRepository, never()).insertAll(anyList());
+    }
+}
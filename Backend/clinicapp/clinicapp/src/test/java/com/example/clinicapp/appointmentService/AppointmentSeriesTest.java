@@ -0,0 +1,210 @@
+package com.example.clinicapp.appointmentService;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.config.AppointmentProperties.Series.OnConflict;
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.AppointmentSeriesRequest;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.dto.SeriesBooking;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentSeries;
+import com.example.clinicapp.entity.AppointmentSlot;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.entity.Doctor;
+import com.example.clinicapp.exception.AppointmentAlreadyBookedException;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.repository.AppointmentSeriesRepository;
+import com.example.clinicapp.repository.AppointmentSlotRepository;
+import com.example.clinicapp.service.AppointmentBoardStream;
+import com.example.clinicapp.service.AppointmentService;
+import com.example.clinicapp.service.MobileService;
+import com.example.clinicapp.service.NotificationOutbox;
+import com.example.clinicapp.service.ReminderScheduler;
+import com.example.clinicapp.service.RosterCalendar;
+import com.example.clinicapp.service.SlotAvailabilityIndex;
+import com.example.clinicapp.service.SlotHoldRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AppointmentSeriesTest {
+
+    private static final LocalDateTime FIRST = LocalDate.now()
+            .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(10, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private MobileService mobileService;
+
+    @Mock
+    private AppointmentSlotRepository appointmentSlotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReminderScheduler reminderScheduler;
+
+    @Mock
+    private RosterCalendar rosterCalendar;
+
+    @Mock
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    private AppointmentBoardStream appointmentBoardStream;
+
+    private final AtomicLong ids = new AtomicLong(1000);
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rosterCalendar.isWorking(any())).thenReturn(true);
+        when(appointmentSeriesRepository.save(any(AppointmentSeries.class))).thenAnswer(invocation -> {
+            AppointmentSeries series = invocation.getArgument(0);
+            series.setId(7L);
+            return series;
+        });
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Appointment> appointments = invocation.getArgument(0);
+            appointments.forEach(appointment -> appointment.setId(ids.incrementAndGet()));
+            return appointments;
+        });
+        AppointmentProperties properties = new AppointmentProperties();
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(appointmentRepository, properties, new SimpleMeterRegistry());
+        appointmentService = new AppointmentService(appointmentRepository, notificationOutbox, mobileService, index,
+                appointmentSlotRepository, transactionManager, properties, new PaginationProperties(),
+                reminderScheduler, rosterCalendar, appointmentSeriesRepository,
+                new SlotHoldRegistry(properties, new SimpleMeterRegistry()), appointmentBoardStream);
+    }
+
+    private static AppointmentSeriesRequest weekly(int count) {
+        Doctor doctor = new Doctor("Doctor 1", "Physiotherapy", "555-0001");
+        doctor.setId(1L);
+        Appointment first = new Appointment(null, "Jane Doe", doctor, null, null, FIRST,
+                AppointmentStatus.BOOKED, "Physiotherapy", "jane@example.com");
+        first.setDurationMinutes(30);
+        AppointmentSeriesRequest request = new AppointmentSeriesRequest();
+        request.setAppointment(first);
+        request.setFrequency(AppointmentSeries.Frequency.WEEKLY);
+        request.setCount(count);
+        return request;
+    }
+
+    @Test
+    void testTwelveWeekSeriesIsBookedInOneBatch() {
+        SeriesBooking result = appointmentService.bookSeries(weekly(12));
+
+        assertEquals(7L, result.seriesId());
+        assertEquals(12, result.booked().size());
+        assertTrue(result.skipped().isEmpty());
+        for (int week = 0; week < 12; week++) {
+            Appointment booked = result.booked().get(week);
+            assertEquals(FIRST.plusWeeks(week), booked.getAppointmentTime());
+            assertEquals(7L, booked.getSeriesId());
+        }
+        // One availability query, one insert batch per table, one email
+        verify(appointmentRepository).findBookedIntervals(anyCollection(), any(), any());
+        verify(appointmentRepository).saveAll(anyList());
+        verify(appointmentRepository, never()).save(any());
+        verify(appointmentSlotRepository).insertAll(ArgumentMatchers.<List<AppointmentSlot>>argThat(
+                slots -> slots.size() == 12 * 6));
+        verify(notificationOutbox).email(eq("jane@example.com"), eq("Appointment Series Confirmation"),
+                contains(FIRST.plusWeeks(11).toString()), eq(1001L));
+        verify(reminderScheduler, times(12)).onScheduled(any());
+    }
+
+    @Test
+    void testConflictFailsWholeSeriesByDefault() {
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, FIRST.plusWeeks(3).plusMinutes(15), 10, AppointmentStatus.BOOKED)));
+
+        AppointmentAlreadyBookedException e = assertThrows(AppointmentAlreadyBookedException.class,
+                () -> appointmentService.bookSeries(weekly(12)));
+
+        assertTrue(e.getMessage().contains(FIRST.plusWeeks(3).toString()));
+        verifyNoInteractions(appointmentSeriesRepository, appointmentSlotRepository, notificationOutbox);
+        verify(appointmentRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testConflictsAreSkippedWhenAsked() {
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, FIRST.plusWeeks(3), 30, AppointmentStatus.BOOKED)));
+        // Off the roster in week 5
+        when(rosterCalendar.isWorking(argThat(booking -> booking != null
+                && booking.start().equals(FIRST.plusWeeks(5))))).thenReturn(false);
+        AppointmentSeriesRequest request = weekly(12);
+        request.setOnConflict(OnConflict.SKIP);
+
+        SeriesBooking result = appointmentService.bookSeries(request);
+
+        assertEquals(10, result.booked().size());
+        assertEquals(List.of(FIRST.plusWeeks(3), FIRST.plusWeeks(5)), result.skipped());
+        verify(notificationOutbox, times(1)).email(any(), any(), any(), any());
+    }
+
+    @Test
+    void testWeeklySeriesOnSeveralDaysUntilDate() {
+        AppointmentSeriesRequest request = weekly(12);
+        request.setCount(null);
+        request.setInterval(2);
+        request.setDaysOfWeek(Set.of(DayOfWeek.THURSDAY, DayOfWeek.MONDAY));
+        request.setUntil(FIRST.toLocalDate().plusWeeks(2).plusDays(3));
+
+        SeriesBooking result = appointmentService.bookSeries(request);
+
+        // Every other week: Monday and Thursday of weeks 0 and 2
+        assertEquals(List.of(FIRST, FIRST.plusDays(3), FIRST.plusWeeks(2), FIRST.plusWeeks(2).plusDays(3)),
+                result.booked().stream().map(Appointment::getAppointmentTime).toList());
+    }
+
+    @Test
+    void testSeriesLongerThanLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookSeries(weekly(53)));
+
+        AppointmentSeriesRequest unbounded = weekly(1);
+        unbounded.setCount(null);
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookSeries(unbounded));
+
+        AppointmentSeriesRequest daily = weekly(1);
+        daily.setCount(null);
+        daily.setFrequency(AppointmentSeries.Frequency.DAILY);
+        daily.setUntil(FIRST.toLocalDate().plusYears(1));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookSeries(daily));
+
+        AppointmentSeriesRequest none = weekly(0);
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookSeries(none));
+
+        // Ends on the first day, which is not one of the chosen weekdays
+        AppointmentSeriesRequest empty = weekly(1);
+        empty.setCount(null);
+        empty.setUntil(FIRST.toLocalDate());
+        empty.setDaysOfWeek(Set.of(DayOfWeek.TUESDAY));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookSeries(empty));
+        verifyNoInteractions(appointmentSeriesRepository);
+    }
+}
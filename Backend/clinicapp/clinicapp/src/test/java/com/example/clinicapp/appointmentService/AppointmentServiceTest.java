@@ -1,23 +1,44 @@
 package com.example.clinicapp.appointmentService;
 
 
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.config.PaginationProperties;
 import com.example.clinicapp.dto.AppointmentDto;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.dto.CursorPage;
+import com.example.clinicapp.dto.SlotHoldDto;
 import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.exception.AppointmentAlreadyBookedException;
+import com.example.clinicapp.exception.DoctorUnavailableException;
+import com.example.clinicapp.exception.InvalidStatusTransitionException;
 import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.repository.AppointmentSeriesRepository;
+import com.example.clinicapp.repository.AppointmentSlotRepository;
+import com.example.clinicapp.service.AppointmentBoardStream;
 import com.example.clinicapp.service.AppointmentService;
-import com.example.clinicapp.service.EmailService;
 import com.example.clinicapp.service.MobileService;
+import com.example.clinicapp.service.NotificationOutbox;
+import com.example.clinicapp.service.ReminderScheduler;
+import com.example.clinicapp.service.RosterCalendar;
+import com.example.clinicapp.service.SlotAvailabilityIndex;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import com.example.clinicapp.service.SlotAvailabilityIndex.SlotKey;
+import com.example.clinicapp.service.SlotHoldRegistry;
+import com.example.clinicapp.util.KeysetCursors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -32,18 +53,43 @@ class AppointmentServiceTest {
     private AppointmentRepository appointmentRepository;
 
     @Mock
-    private EmailService emailService;
+    private NotificationOutbox notificationOutbox;
 
     @Mock
     private MobileService mobileService;
 
-    @InjectMocks
+    @Mock
+    private AppointmentSlotRepository appointmentSlotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReminderScheduler reminderScheduler;
+
+    @Mock
+    private RosterCalendar rosterCalendar;
+
+    @Mock
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    private AppointmentBoardStream appointmentBoardStream;
+
+    private SlotHoldRegistry slotHoldRegistry;
     private AppointmentService appointmentService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        
+        when(rosterCalendar.isWorking(any())).thenReturn(true);
+        SlotAvailabilityIndex slotAvailabilityIndex = new SlotAvailabilityIndex(
+                appointmentRepository, new AppointmentProperties(), new SimpleMeterRegistry());
+        slotHoldRegistry = new SlotHoldRegistry(new AppointmentProperties(), new SimpleMeterRegistry());
+        appointmentService = new AppointmentService(appointmentRepository, notificationOutbox, mobileService,
+                slotAvailabilityIndex, appointmentSlotRepository, transactionManager, new AppointmentProperties(),
+                new PaginationProperties(), reminderScheduler, rosterCalendar, appointmentSeriesRepository,
+                slotHoldRegistry, appointmentBoardStream);
     }
 
     @Test
@@ -52,18 +98,19 @@ class AppointmentServiceTest {
         appointment.setAppointmentTime(LocalDateTime.of(2023, 10, 30, 10, 0));
         appointment.setPatientEmail("test@example.com");
 
-        when(appointmentRepository.findByAppointmentTimeBetween(any(), any())).thenReturn(Collections.emptyList());
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
 
         Appointment result = appointmentService.saveAppointment(appointment);
 
         assertNotNull(result);
         verify(appointmentRepository).save(appointment);
-        verify(emailService).sendEmail(
+        verify(notificationOutbox).email(
                 eq(appointment.getPatientEmail()),
                 eq("Appointment Confirmation"),
-                contains("Your appointment has been successfully booked")
+                contains("Your appointment has been successfully booked"),
+                any()
         );
+        verify(reminderScheduler).onScheduled(result);
     }
 
     @Test
@@ -71,8 +118,8 @@ class AppointmentServiceTest {
         Appointment appointment = new Appointment();
         appointment.setAppointmentTime(LocalDateTime.of(2023, 10, 30, 10, 0));
 
-        when(appointmentRepository.findByAppointmentTimeBetween(any(), any()))
-                .thenReturn(List.of(new Appointment()));
+        when(appointmentRepository.findUnassignedBookedIntervals(any(), any())).thenReturn(List.of(
+                new BookedInterval(null, LocalDateTime.of(2023, 10, 30, 10, 0), null, null)));
 
         Exception exception = assertThrows(IllegalStateException.class, () -> {
             appointmentService.saveAppointment(appointment);
@@ -82,19 +129,90 @@ class AppointmentServiceTest {
         verify(appointmentRepository, never()).save(any());
     }
 
+    @Test
+    void testSaveAppointmentOutsideRosterIsRejected() {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentTime(LocalDateTime.of(2023, 10, 30, 7, 0));
+        when(rosterCalendar.isWorking(any())).thenReturn(false);
+
+        assertThrows(DoctorUnavailableException.class, () -> appointmentService.saveAppointment(appointment));
+        assertFalse(appointmentService.isTimeSlotAvailable(appointment.getAppointmentTime()));
+        verify(appointmentRepository, never()).save(any());
+        verifyNoInteractions(notificationOutbox);
+    }
+
+    @Test
+    void testHeldSlotBlocksOtherBookingsUntilConfirmed() {
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(10, 0);
+        SlotHoldDto hold = appointmentService.holdSlot(null, time, 10);
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentTime(time);
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+
+        assertThrows(AppointmentAlreadyBookedException.class, () -> appointmentService.saveAppointment(appointment));
+        assertFalse(appointmentService.isTimeSlotAvailable(time));
+
+        appointmentService.saveAppointment(appointment, hold.token());
+
+        verify(appointmentRepository).save(appointment);
+        assertEquals(0, slotHoldRegistry.activeHolds());
+    }
+
+    @Test
+    void testReleasedHoldFreesSlot() {
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(10, 0);
+        SlotHoldDto hold = appointmentService.holdSlot(null, time, 10);
+
+        // Overlaps the held 10:00-10:10
+        assertThrows(AppointmentAlreadyBookedException.class, () -> appointmentService.holdSlot(null, time.plusMinutes(5), 10));
+        appointmentService.releaseHold(hold.token());
+
+        assertNotNull(appointmentService.holdSlot(null, time.plusMinutes(5), 10).token());
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.releaseHold(hold.token()));
+    }
+
+    @Test
+    void testExpiredHoldIsDroppedByTheWheel() throws InterruptedException {
+        AppointmentProperties properties = new AppointmentProperties();
+        properties.getHolds().setTtl(Duration.ofMillis(1));
+        SlotHoldRegistry shortHolds = new SlotHoldRegistry(properties, new SimpleMeterRegistry());
+        List<SlotKey> slots = List.of(new SlotKey(1L, LocalDate.now().plusDays(1).atTime(10, 0)));
+        assertNotNull(shortHolds.tryHold(new Booking(1L, slots.get(0).slotStart(), 5), slots));
+        Thread.sleep(10);
+
+        // Expired holds stop blocking at once and are removed on the next tick
+        assertFalse(shortHolds.isHeld(slots, null));
+        assertEquals(1, shortHolds.expireDue(System.currentTimeMillis() + 2000));
+        assertEquals(0, shortHolds.activeHolds());
+    }
+
     @Test
     void testGetAppointmentsForDay() {
         LocalDate date = LocalDate.of(2023, 10, 30);
         LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
+        LocalDateTime startOfNextDay = date.plusDays(1).atStartOfDay();
 
-        when(appointmentRepository.findByAppointmentTimeBetween(startOfDay, endOfDay))
-                .thenReturn(List.of(new Appointment()));
+        when(appointmentRepository.findDayBoard(startOfDay, startOfNextDay))
+                .thenReturn(List.of(new AppointmentDto()));
 
         List<AppointmentDto> appointments = appointmentService.getAppointmentsForDay(date);
 
         assertNotNull(appointments);
-        verify(appointmentRepository).findByAppointmentTimeBetween(startOfDay, endOfDay);
+        verify(appointmentRepository).findDayBoard(startOfDay, startOfNextDay);
+        verify(appointmentRepository, never()).findByAppointmentTimeBetween(any(), any());
+    }
+
+    @Test
+    void testGetAppointmentsForDayByDoctor() {
+        LocalDate date = LocalDate.of(2023, 10, 30);
+
+        when(appointmentRepository.findDayBoardByDoctor(eq(5L), any(), any()))
+                .thenReturn(List.of(new AppointmentDto()));
+
+        List<AppointmentDto> appointments = appointmentService.getAppointmentsForDay(date, 5L);
+
+        assertEquals(1, appointments.size());
+        verify(appointmentRepository).findDayBoardByDoctor(5L, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
     }
 
     @Test
@@ -115,10 +233,11 @@ class AppointmentServiceTest {
 
         assertNotNull(result);
         assertEquals("Updated details", result.getDetails());
-        verify(emailService).sendEmail(
+        verify(notificationOutbox).email(
                 eq(existingAppointment.getPatientEmail()),
                 eq("Appointment Updated"),
-                contains("Your appointment has been updated")
+                contains("Your appointment has been updated"),
+                any()
         );
     }
 
@@ -135,6 +254,34 @@ class AppointmentServiceTest {
         verify(appointmentRepository, never()).save(any());
     }
 
+    @Test
+    void testUpdateAppointmentRejectsReopeningCompleted() {
+        Long appointmentId = 1L;
+        Appointment existingAppointment = new Appointment();
+        existingAppointment.setAppointmentTime(LocalDateTime.of(2023, 10, 30, 10, 0));
+        existingAppointment.setStatus(AppointmentStatus.COMPLETED);
+
+        Appointment updatedAppointment = new Appointment();
+        updatedAppointment.setAppointmentTime(LocalDateTime.of(2023, 10, 30, 10, 0));
+        updatedAppointment.setStatus(AppointmentStatus.BOOKED);
+
+        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(existingAppointment));
+
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> appointmentService.updateAppointment(appointmentId, updatedAppointment));
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void testStatusParsingAcceptsLabelsAndLegacyValues() {
+        assertEquals(AppointmentStatus.BOOKED, AppointmentStatus.from("Booked"));
+        assertEquals(AppointmentStatus.BOOKED, AppointmentStatus.from(" confirmed "));
+        assertEquals(AppointmentStatus.CANCELLED, AppointmentStatus.from("Canceled"));
+        assertEquals(AppointmentStatus.COMPLETED, AppointmentStatus.from("COMPLETED"));
+        assertThrows(IllegalArgumentException.class, () -> AppointmentStatus.from("Rescheduled"));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentByStatus(" ", null, 50));
+    }
+
     @Test
     void testCancelAppointmentSuccess() {
         Long appointmentId = 1L;
@@ -147,11 +294,13 @@ class AppointmentServiceTest {
         appointmentService.cancelAppointment(appointmentId);
 
         verify(appointmentRepository).deleteById(appointmentId);
-        verify(emailService).sendEmail(
+        verify(notificationOutbox).email(
                 eq(appointment.getPatientEmail()),
                 eq("Appointment Cancellation"),
-                contains("Your appointment scheduled for")
+                contains("Your appointment scheduled for"),
+                any()
         );
+        verify(reminderScheduler).onRemoved(appointmentId);
     }
 
     @Test
@@ -171,24 +320,25 @@ class AppointmentServiceTest {
     void testIsTimeSlotAvailable() {
         LocalDateTime time = LocalDateTime.of(2023, 10, 30, 10, 0);
 
-        when(appointmentRepository.findByAppointmentTimeBetween(time.minusMinutes(1), time.plusMinutes(1)))
-                .thenReturn(Collections.emptyList());
-
         boolean isAvailable = appointmentService.isTimeSlotAvailable(time);
 
         assertTrue(isAvailable);
-        verify(appointmentRepository).findByAppointmentTimeBetween(time.minusMinutes(1), time.plusMinutes(1));
+        verify(appointmentRepository).findUnassignedBookedIntervals(any(), any());
     }
 
     @Test
     void testGetAppointmentByStatus() {
         String status = "Confirmed";
-        when(appointmentRepository.findByStatusIgnoreCase(status)).thenReturn(List.of(new Appointment()));
+        when(appointmentRepository.findBoardPageByStatus(eq(AppointmentStatus.BOOKED), any(), anyLong(), any()))
+                .thenReturn(List.of(new AppointmentDto()));
 
-        List<Appointment> appointments = appointmentService.getAppointmentByStatus(status);
+        CursorPage<AppointmentDto> appointments = appointmentService.getAppointmentByStatus(status, null, 50);
 
-        assertNotNull(appointments);
-        verify(appointmentRepository).findByStatusIgnoreCase(status);
+        assertEquals(1, appointments.getItems().size());
+        assertFalse(appointments.isHasMore());
+        // The first page runs the same keyset query from past every real row
+        verify(appointmentRepository).findBoardPageByStatus(AppointmentStatus.BOOKED,
+                KeysetCursors.LATEST, Long.MAX_VALUE, KeysetCursors.rows(50));
     }
     // 1. Concurrent Appointment Bookings
     @Test
@@ -197,7 +347,6 @@ class AppointmentServiceTest {
         Appointment appointment = new Appointment();
         appointment.setAppointmentTime(time);
 
-        when(appointmentRepository.findByAppointmentTimeBetween(any(), any())).thenReturn(Collections.emptyList());
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
 
         Thread thread1 = new Thread(() -> appointmentService.saveAppointment(appointment));
@@ -216,9 +365,9 @@ class AppointmentServiceTest {
     @Test
     public void testLargeVolumeAppointmentsForDay() {
         LocalDate date = LocalDate.now();
-        List<Appointment> appointments = Collections.nCopies(1000, new Appointment());
+        List<AppointmentDto> appointments = Collections.nCopies(1000, new AppointmentDto());
 
-        when(appointmentRepository.findByAppointmentTimeBetween(any(), any())).thenReturn(appointments);
+        when(appointmentRepository.findDayBoard(any(), any())).thenReturn(appointments);
         List<AppointmentDto> result = appointmentService.getAppointmentsForDay(date);
 
         assertEquals(1000, result.size());
@@ -233,7 +382,8 @@ class AppointmentServiceTest {
         Appointment existingAppointment = new Appointment();
         existingAppointment.setAppointmentTime(time);
 
-        when(appointmentRepository.findByAppointmentTimeBetween(any(), any())).thenReturn(List.of(existingAppointment));
+        when(appointmentRepository.findUnassignedBookedIntervals(any(), any()))
+                .thenReturn(List.of(new BookedInterval(null, time, null, null)));
 
         IllegalStateException exception = assertThrows(IllegalStateException.class, () -> appointmentService.saveAppointment(existingAppointment));
         assertEquals("The time slot is already booked", exception.getMessage());
@@ -243,12 +393,24 @@ class AppointmentServiceTest {
     // 9. Filter by Multiple Statuses
     @Test
     public void testGetAppointmentByMultipleStatus() {
-        List<Appointment> appointments = List.of(new Appointment(), new Appointment());
+        LocalDateTime time = LocalDateTime.of(2030, 3, 4, 10, 0);
+        List<AppointmentDto> rows = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            AppointmentDto dto = new AppointmentDto();
+            dto.setId(id);
+            dto.setAppointmentTime(time);
+            rows.add(dto);
+        }
+        when(appointmentRepository.findBoardPageByStatus(any(), any(), anyLong(), any())).thenReturn(rows);
+
+        CursorPage<AppointmentDto> first = appointmentService.getAppointmentByStatus("Completed", null, 2);
 
-        when(appointmentRepository.findByStatusIgnoreCase(anyString())).thenReturn(appointments);
-        List<Appointment> result = appointmentService.getAppointmentByStatus("Confirmed");
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasMore());
 
-        assertEquals(appointments.size(), result.size());
+        // The cursor resumes after the last row served: same time, lower id
+        appointmentService.getAppointmentByStatus("Completed", first.getNextCursor(), 2);
+        verify(appointmentRepository).findBoardPageByStatus(AppointmentStatus.COMPLETED, time, 2L, KeysetCursors.rows(2));
     }
 
 
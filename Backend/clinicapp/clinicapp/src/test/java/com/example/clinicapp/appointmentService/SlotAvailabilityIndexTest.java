@@ -0,0 +1,108 @@
+package com.example.clinicapp.appointmentService;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.entity.Doctor;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.service.SlotAvailabilityIndex;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SlotAvailabilityIndexTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private SlotAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new SlotAvailabilityIndex(appointmentRepository, new AppointmentProperties(), new SimpleMeterRegistry());
+    }
+
+    private static Appointment appointment(Long doctorId, LocalDateTime time, Integer duration, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        if (doctorId != null) {
+            Doctor doctor = new Doctor();
+            doctor.setId(doctorId);
+            appointment.setDoctor(doctor);
+        }
+        appointment.setAppointmentTime(time);
+        appointment.setDurationMinutes(duration);
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    @Test
+    void testDoctorsAreIndependent() {
+        index.book(new Booking(1L, TEN, 15));
+
+        assertFalse(index.isAvailable(new Booking(1L, TEN, 15)));
+        assertTrue(index.isAvailable(new Booking(2L, TEN, 15)));
+    }
+
+    @Test
+    void testDurationsDecideOverlap() {
+        index.book(new Booking(1L, TEN, 30));
+
+        assertFalse(index.isAvailable(new Booking(1L, TEN.plusMinutes(20), 10)));
+        assertFalse(index.isAvailable(new Booking(1L, TEN.minusMinutes(20), 30)));
+        assertTrue(index.isAvailable(new Booking(1L, TEN.plusMinutes(30), 10)));
+        assertTrue(index.isAvailable(new Booking(1L, TEN.minusMinutes(20), 20)));
+    }
+
+    @Test
+    void testReleaseFreesSlots() {
+        Booking booking = new Booking(1L, TEN, 20);
+        index.book(booking);
+        index.release(booking);
+
+        assertTrue(index.isAvailable(booking));
+    }
+
+    @Test
+    void testDayIsLoadedOnceFromRepository() {
+        when(appointmentRepository.findBookedIntervals(eq(List.of(1L)), any(), any()))
+                .thenReturn(List.of(new BookedInterval(1L, TEN, 40, AppointmentStatus.BOOKED),
+                        new BookedInterval(1L, TEN.plusHours(2), null, AppointmentStatus.CANCELLED)));
+
+        assertFalse(index.isAvailable(new Booking(1L, TEN.plusMinutes(35), 10)));
+        assertTrue(index.isAvailable(new Booking(1L, TEN.plusHours(2), 10)));
+        assertTrue(index.isAvailable(new Booking(1L, TEN.plusMinutes(40), 10)));
+
+        verify(appointmentRepository, times(1)).findBookedIntervals(eq(List.of(1L)), any(), any());
+    }
+
+    @Test
+    void testAppointmentRunningPastMidnightBlocksNextDay() {
+        LocalDateTime lateEvening = LocalDateTime.of(2030, 3, 4, 23, 50);
+        index.book(new Booking(1L, lateEvening, 30));
+
+        assertFalse(index.isAvailable(new Booking(1L, LocalDateTime.of(2030, 3, 5, 0, 10), 10)));
+        assertTrue(index.isAvailable(new Booking(1L, LocalDateTime.of(2030, 3, 5, 0, 20), 10)));
+    }
+
+    @Test
+    void testDefaultDurationApplies() {
+        Booking booking = index.bookingOf(appointment(3L, TEN, null, AppointmentStatus.BOOKED));
+
+        assertEquals(3L, booking.doctorId());
+        assertEquals(new AppointmentProperties().getDefaultDurationMinutes(), booking.durationMinutes());
+    }
+}
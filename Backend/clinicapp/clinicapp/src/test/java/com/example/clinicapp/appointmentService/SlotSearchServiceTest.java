@@ -0,0 +1,195 @@
+package com.example.clinicapp.appointmentService;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.BookedInterval;
+import com.example.clinicapp.dto.FreeSlot;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.entity.Doctor;
+import com.example.clinicapp.entity.DoctorRoster;
+import com.example.clinicapp.entity.RosterPeriod;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.repository.DoctorLeaveRepository;
+import com.example.clinicapp.repository.DoctorRepository;
+import com.example.clinicapp.repository.DoctorRosterRepository;
+import com.example.clinicapp.repository.RosterPeriodRepository;
+import com.example.clinicapp.service.RosterCalendar;
+import com.example.clinicapp.service.SlotAvailabilityIndex;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import com.example.clinicapp.service.SlotHoldRegistry;
+import com.example.clinicapp.service.SlotSearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SlotSearchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private DoctorRosterRepository doctorRosterRepository;
+
+    @Mock
+    private RosterPeriodRepository rosterPeriodRepository;
+
+    @Mock
+    private DoctorLeaveRepository doctorLeaveRepository;
+
+    private SlotAvailabilityIndex index;
+    private RosterCalendar rosterCalendar;
+    private SlotHoldRegistry holds;
+    private SlotSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AppointmentProperties properties = new AppointmentProperties();
+        index = new SlotAvailabilityIndex(appointmentRepository, properties, new SimpleMeterRegistry());
+        rosterCalendar = new RosterCalendar(doctorRosterRepository, rosterPeriodRepository, doctorLeaveRepository,
+                properties, new SimpleMeterRegistry());
+        holds = new SlotHoldRegistry(properties, new SimpleMeterRegistry());
+        searchService = new SlotSearchService(doctorRepository, index, rosterCalendar, holds, properties);
+    }
+
+    private static Doctor doctor(long id, String specialty) {
+        Doctor doctor = new Doctor("Doctor " + id, specialty, "555-000" + id);
+        doctor.setId(id);
+        return doctor;
+    }
+
+    @Test
+    void testEarliestSlotsAcrossDoctorsInTimeOrder() {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctor(1L, "Cardiology"), doctor(2L, "Dermatology")));
+        // Doctor 1 is busy 09:00-10:00, doctor 2 09:00-09:20
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, DAY.atTime(9, 0), 60, AppointmentStatus.BOOKED),
+                new BookedInterval(2L, DAY.atTime(9, 0), 20, AppointmentStatus.BOOKED)));
+
+        List<FreeSlot> slots = searchService.findNextFreeSlots(null, DAY, DAY, 20, 4);
+
+        assertEquals(List.of(DAY.atTime(9, 20), DAY.atTime(9, 40), DAY.atTime(10, 0), DAY.atTime(10, 0)),
+                slots.stream().map(FreeSlot::start).toList());
+        assertEquals(List.of(2L, 2L, 1L, 2L), slots.stream().map(FreeSlot::doctorId).toList());
+        assertEquals(DAY.atTime(9, 40), slots.get(0).end());
+        // One query for the whole window, no per-day loads
+        verify(appointmentRepository).findBookedIntervals(anyCollection(), any(), any());
+    }
+
+    @Test
+    void testHeldSlotsAreSkipped() {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctor(1L, "Cardiology")));
+        // Busy 09:00-10:00; 10:00 and 10:40 are held by screens filling in bookings
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, DAY.atTime(9, 0), 60, AppointmentStatus.BOOKED)));
+        for (LocalDateTime held : List.of(DAY.atTime(10, 0), DAY.atTime(10, 40))) {
+            Booking booking = new Booking(1L, held, 20);
+            assertNotNull(holds.tryHold(booking, index.slotsOf(booking)));
+        }
+
+        List<FreeSlot> slots = searchService.findNextFreeSlots(null, DAY, DAY, 20, 3);
+
+        assertEquals(List.of(DAY.atTime(10, 20), DAY.atTime(11, 0), DAY.atTime(11, 20)),
+                slots.stream().map(FreeSlot::start).toList());
+    }
+
+    @Test
+    void testCancelledAppointmentsDoNotBlock() {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctor(1L, "Cardiology")));
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, DAY.atTime(9, 0), 60, AppointmentStatus.CANCELLED)));
+
+        List<FreeSlot> slots = searchService.findNextFreeSlots(null, DAY, DAY, 15, 1);
+
+        assertEquals(DAY.atTime(9, 0), slots.get(0).start());
+    }
+
+    @Test
+    void testSearchMovesToLaterDaysWhenFull() {
+        when(doctorRepository.findBySpecialtyIgnoreCase("cardiology")).thenReturn(List.of(doctor(1L, "Cardiology")));
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, DAY.atTime(9, 0), 480, AppointmentStatus.BOOKED),
+                new BookedInterval(1L, DAY.atTime(17, 0), 60, AppointmentStatus.PENDING)));
+
+        List<FreeSlot> slots = searchService.findNextFreeSlots(" cardiology ", DAY, DAY.plusDays(2), 30, 2);
+
+        assertEquals(List.of(DAY.plusDays(1).atTime(9, 0), DAY.plusDays(1).atTime(9, 30)),
+                slots.stream().map(FreeSlot::start).toList());
+    }
+
+    @Test
+    void testGapTooShortForDurationIsSkipped() {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctor(1L, "Cardiology")));
+        List<BookedInterval> booked = new ArrayList<>();
+        // 10 minute gaps between 20 minute appointments all morning, then free from 11:50
+        for (LocalDateTime start = DAY.atTime(9, 0); start.isBefore(DAY.atTime(12, 0)); start = start.plusMinutes(30)) {
+            booked.add(new BookedInterval(1L, start, 20, AppointmentStatus.BOOKED));
+        }
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(booked);
+
+        assertEquals(DAY.atTime(9, 20), searchService.findNextFreeSlots(null, DAY, DAY, 10, 1).get(0).start());
+        assertEquals(DAY.atTime(11, 50), searchService.findNextFreeSlots(null, DAY, DAY, 15, 1).get(0).start());
+    }
+
+    @Test
+    void testSlotsBookedAfterPreloadAreExcluded() {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctor(1L, "Cardiology")));
+        searchService.findNextFreeSlots(null, DAY, DAY, 10, 1);
+        index.book(new Booking(1L, DAY.atTime(9, 0), 10));
+
+        assertEquals(DAY.atTime(9, 10), searchService.findNextFreeSlots(null, DAY, DAY, 10, 1).get(0).start());
+        // The preloaded days were still fresh: no second query
+        verify(appointmentRepository, times(1)).findBookedIntervals(anyCollection(), any(), any());
+    }
+
+    @Test
+    void testRosteredDoctorIsSearchedOnTheirSlotsAndHours() {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctor(1L, "Cardiology")));
+        DoctorRoster roster = new DoctorRoster(1L);
+        roster.setSlotMinutes(20);
+        roster.setVersion(1L);
+        when(doctorRosterRepository.findByDoctorId(1L)).thenReturn(Optional.of(roster));
+        // Mondays 14:00-17:00 with a break 15:00-16:00
+        when(rosterPeriodRepository.findByDoctorId(1L)).thenReturn(List.of(
+                new RosterPeriod(1L, DayOfWeek.MONDAY, RosterPeriod.Kind.WORK, LocalTime.of(14, 0), LocalTime.of(17, 0)),
+                new RosterPeriod(1L, DayOfWeek.MONDAY, RosterPeriod.Kind.BREAK, LocalTime.of(15, 0), LocalTime.of(16, 0))));
+        rosterCalendar.rebuild(1L);
+        // The calendar only covers the coming weeks
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        when(appointmentRepository.findBookedIntervals(anyCollection(), any(), any())).thenReturn(List.of(
+                new BookedInterval(1L, monday.atTime(14, 0), 10, AppointmentStatus.BOOKED)));
+
+        List<FreeSlot> slots = searchService.findNextFreeSlots(null, monday, monday.plusDays(1), 20, 10);
+
+        // 14:00 is taken and 14:10 is off the 20-minute grid; the break and Tuesday are not worked
+        assertEquals(List.of(monday.atTime(14, 20), monday.atTime(14, 40), monday.atTime(16, 0),
+                monday.atTime(16, 20), monday.atTime(16, 40)), slots.stream().map(FreeSlot::start).toList());
+    }
+
+    @Test
+    void testWindowLongerThanLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.findNextFreeSlots(null, DAY, DAY.plusDays(31), 10, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.findNextFreeSlots(null, DAY, DAY.minusDays(1), 10, 5));
+    }
+}
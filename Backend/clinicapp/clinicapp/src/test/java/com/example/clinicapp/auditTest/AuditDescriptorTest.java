@@ -0,0 +1,59 @@
+package com.example.clinicapp.auditTest;
+
+import com.example.clinicapp.config.AuditDescriptor;
+import com.example.clinicapp.controller.AuthController;
+import com.example.clinicapp.controller.PatientController;
+import com.example.clinicapp.controller.PrescriptionController;
+import com.example.clinicapp.dto.LoginRequest;
+import com.example.clinicapp.dto.PrescriptionDto;
+import com.example.clinicapp.entity.Patient;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditDescriptorTest {
+
+    @Test
+    void testPatientUpdateIsDerivedFromTheController() throws Exception {
+        Method method = PatientController.class.getMethod("updatePatient", Long.class, Patient.class);
+        AuditDescriptor descriptor = AuditDescriptor.forResource(method);
+
+        assertEquals("UPDATE", descriptor.getAction());
+        assertEquals("PATIENT", descriptor.getResourceType());
+        assertEquals(7L, descriptor.resourceId(new Object[] {7L, new Patient()}));
+    }
+
+    @Test
+    void testPrescriptionCreateFollowsNamingConventions() throws Exception {
+        Method method = PrescriptionController.class.getMethod("createPrescription", PrescriptionDto.class);
+        AuditDescriptor descriptor = AuditDescriptor.forResource(method);
+
+        assertEquals("CREATE", descriptor.getAction());
+        assertEquals("PRESCRIPTION", descriptor.getResourceType());
+        assertNull(descriptor.resourceId(new Object[] {new PrescriptionDto()}));
+        assertEquals("Method: createPrescription, Error: boom, Duration: 3ms",
+                descriptor.failureDetails("boom", 3));
+    }
+
+    @Test
+    void testAuthDescriptorReadsUsernameFromRequestBody() throws Exception {
+        Method method = AuthController.class.getMethod("loginLegacy", LoginRequest.class);
+        AuditDescriptor descriptor = AuditDescriptor.forAuth(method);
+
+        assertEquals("LOGIN", descriptor.getAction());
+        assertEquals("LOGIN_SUCCESS", descriptor.getSuccessAction());
+        assertEquals("dr.rana", descriptor.username(new Object[] {new LoginRequest("dr.rana", "secret")}));
+    }
+
+    @Test
+    void testAuthDescriptorWithoutRequestBodyIsUnknownUser() throws Exception {
+        Method method = AuthController.class.getMethod("logoutAll", HttpServletResponse.class);
+        AuditDescriptor descriptor = AuditDescriptor.forAuth(method);
+
+        assertEquals("AUTH_LOGOUTALL", descriptor.getAction());
+        assertEquals("unknown", descriptor.username(new Object[] {null}));
+    }
+}
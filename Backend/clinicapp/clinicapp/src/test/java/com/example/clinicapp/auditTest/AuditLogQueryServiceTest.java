@@ -0,0 +1,149 @@
+package com.example.clinicapp.auditTest;
+
+import com.example.clinicapp.config.AuditProperties;
+import com.example.clinicapp.dto.AuditLogQuery;
+import com.example.clinicapp.dto.CursorPage;
+import com.example.clinicapp.entity.AuditLog;
+import com.example.clinicapp.service.AuditLogQueryService;
+import com.example.clinicapp.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditLogQueryServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditLogQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        AuditProperties properties = new AuditProperties();
+        properties.getQuery().setMaxPageSize(3);
+        service = new AuditLogQueryService(jdbcTemplate, transactionManager, properties);
+    }
+
+    private static List<AuditLog> rows(int count) {
+        List<AuditLog> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AuditLog log = new AuditLog();
+            log.setId(100L - i);
+            log.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 0).minusMinutes(i));
+            rows.add(log);
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnRows(int count) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows(count));
+    }
+
+    @Test
+    void testPageIsCappedAndCursorPointsAtLastItem() {
+        returnRows(4);
+
+        CursorPage<AuditLog> page = service.findPage(new AuditLogQuery(), null, 50);
+
+        assertEquals(3, page.getItems().size());
+        assertTrue(page.isHasMore());
+        String[] cursor = CursorCodec.decode(page.getNextCursor(), 2);
+        assertEquals(LocalDateTime.of(2024, 5, 1, 11, 58).toString(), cursor[0]);
+        assertEquals("98", cursor[1]);
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        returnRows(2);
+
+        CursorPage<AuditLog> page = service.findPage(new AuditLogQuery(), null, 3);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFiltersAndCursorBecomeKeysetPredicate() {
+        returnRows(0);
+        AuditLogQuery query = new AuditLogQuery();
+        query.setUsername("dr.smith");
+        query.setAction("PATIENT_VIEW");
+        String cursor = CursorCodec.encode(LocalDateTime.of(2024, 5, 1, 12, 0), 42L);
+
+        service.findPage(query, cursor, 2);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("username = ? AND action = ?"));
+        assertTrue(sql.getValue().contains("(timestamp, id) < (?, ?)"));
+        assertTrue(sql.getValue().endsWith("ORDER BY timestamp DESC, id DESC LIMIT ?"));
+        Object[] values = args.getValue();
+        assertEquals("dr.smith", values[0]);
+        assertEquals(42L, values[4]);
+        assertEquals(3, values[5]);
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findPage(new AuditLogQuery(), "not-a-cursor", 10));
+    }
+
+    /**
+     * Export against a database whose driver reports the given product and returns no rows;
+     * returns the statement the export ran
+     */
+    @SuppressWarnings("unchecked")
+    private PreparedStatement exportOn(String product) throws Exception {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+
+        service.export(new AuditLogQuery(), AuditLogQueryService.ExportFormat.CSV, new ByteArrayOutputStream());
+        return statement;
+    }
+
+    @Test
+    void testExportStreamsRowByRowOnMySql() throws Exception {
+        verify(exportOn("MySQL")).setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Test
+    void testExportUsesConfiguredFetchSizeElsewhere() throws Exception {
+        verify(exportOn("PostgreSQL")).setFetchSize(500);
+    }
+}
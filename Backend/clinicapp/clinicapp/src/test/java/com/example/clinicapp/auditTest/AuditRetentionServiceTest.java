@@ -0,0 +1,140 @@
+package com.example.clinicapp.auditTest;
+
+import com.example.clinicapp.config.AuditProperties;
+import com.example.clinicapp.service.AuditRetentionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditRetentionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AuditProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new AuditProperties();
+        properties.getRetention().setChunkSize(100);
+        properties.getRetention().setMaxChunksPerRun(5);
+        properties.getRetention().setPremakeMonths(2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void database(String product, boolean partitioned) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM pg_partitioned_table"),
+                eq(Integer.class), any(Object[].class))).thenReturn(partitioned ? 1 : 0);
+    }
+
+    /**
+     * Each chunk query returns the given number of ids; each delete removes every id it is given
+     */
+    @SuppressWarnings("unchecked")
+    private void chunks(int first, int... rest) {
+        List<Long>[] more = new List[rest.length];
+        for (int i = 0; i < rest.length; i++) {
+            more[i] = ids(rest[i]);
+        }
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM audit_logs"), eq(Long.class), any(Object[].class)))
+                .thenReturn(ids(first), more);
+        when(jdbcTemplate.update(startsWith("DELETE FROM audit_logs"), any(Object[].class)))
+                .thenAnswer(invocation -> invocation.getArguments().length - 2);
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    @Test
+    void testChunkedDeleteStopsAtShortChunk() {
+        database("H2", false);
+        chunks(100, 100, 40);
+
+        AuditRetentionService service = new AuditRetentionService(jdbcTemplate, properties);
+        assertEquals(240, service.purge(LocalDateTime.of(2020, 1, 1, 0, 0)));
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM audit_logs"), any(Object[].class));
+    }
+
+    @Test
+    void testChunkedDeleteIsBoundedPerRun() {
+        database("H2", false);
+        chunks(100);
+
+        AuditRetentionService service = new AuditRetentionService(jdbcTemplate, properties);
+        assertEquals(500, service.purge(LocalDateTime.of(2020, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void testPlainTableDeletesSelectedIdsWithoutSelfSubquery() {
+        database("MySQL", false);
+        chunks(3);
+        properties.getRetention().setChunkSize(3);
+        properties.getRetention().setMaxChunksPerRun(1);
+        LocalDateTime cutoff = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        assertEquals(3, new AuditRetentionService(jdbcTemplate, properties).purge(cutoff));
+
+        // MySQL rejects LIMIT in an IN subquery and subqueries on the delete's own table
+        verify(jdbcTemplate).queryForList("SELECT id FROM audit_logs WHERE timestamp < ? ORDER BY id LIMIT ?",
+                Long.class, Timestamp.valueOf(cutoff), 3);
+        verify(jdbcTemplate).update("DELETE FROM audit_logs WHERE timestamp < ? AND id IN (?,?,?)",
+                Timestamp.valueOf(cutoff), 1L, 2L, 3L);
+    }
+
+    @Test
+    void testNothingToDeleteIssuesNoDelete() {
+        database("MySQL", false);
+        chunks(0);
+
+        assertEquals(0, new AuditRetentionService(jdbcTemplate, properties).purge(LocalDateTime.of(2020, 1, 1, 0, 0)));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(Object[].class));
+    }
+
+    @Test
+    void testCreatesUpcomingPartitionsOnlyWhenPartitioned() {
+        database("H2", false);
+        new AuditRetentionService(jdbcTemplate, properties).ensurePartitions(YearMonth.of(2026, 11));
+        verify(jdbcTemplate, never()).execute(anyString());
+
+        database("PostgreSQL", true);
+        new AuditRetentionService(jdbcTemplate, properties).ensurePartitions(YearMonth.of(2026, 11));
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS audit_logs_p202611 PARTITION OF audit_logs "
+                + "FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')");
+        verify(jdbcTemplate).execute(contains("audit_logs_p202612"));
+        verify(jdbcTemplate).execute(contains("audit_logs_p202701 PARTITION OF audit_logs FOR VALUES FROM ('2027-01-01')"));
+    }
+
+    @Test
+    void testDropsOnlyPartitionsWhollyBeforeCutoff() {
+        database("PostgreSQL", true);
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("audit_logs_p202001", "audit_logs_p202002", "audit_logs_p202003", "audit_logs_default"));
+
+        AuditRetentionService service = new AuditRetentionService(jdbcTemplate, properties);
+        service.purge(LocalDateTime.of(2020, 3, 1, 0, 0));
+
+        verify(jdbcTemplate).execute("ALTER TABLE audit_logs DETACH PARTITION audit_logs_p202001");
+        verify(jdbcTemplate).execute("DROP TABLE audit_logs_p202001");
+        verify(jdbcTemplate).execute("DROP TABLE audit_logs_p202002");
+        verify(jdbcTemplate, never()).execute(contains("audit_logs_p202003"));
+        verify(jdbcTemplate, never()).execute(contains("audit_logs_default"));
+        // Leftover rows (e.g. in the default partition) still go through chunked deletes
+        verify(jdbcTemplate).queryForList(startsWith("SELECT id FROM audit_logs"), eq(Long.class), any(Object[].class));
+    }
+}
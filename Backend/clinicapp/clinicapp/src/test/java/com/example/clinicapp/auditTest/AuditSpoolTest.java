@@ -0,0 +1,112 @@
+package com.example.clinicapp.auditTest;
+
+import com.example.clinicapp.util.AuditSpool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditSpoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] record(int i) {
+        return ("event-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> asStrings(AuditSpool.ReadResult result) {
+        return result.records().stream().map(bytes -> new String(bytes, StandardCharsets.UTF_8)).toList();
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".spool")).count();
+        }
+    }
+
+    @Test
+    void testReadsAcrossSegmentRotation() throws Exception {
+        // 64-byte segments hold four 15-byte records
+        AuditSpool spool = new AuditSpool(tempDir, 64, 10);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(spool.append(record(i)));
+        }
+        assertEquals(3, spool.segmentCount());
+
+        AuditSpool.ReadResult first = spool.read(spool.start(), 6);
+        assertEquals(List.of("event-0", "event-1", "event-2", "event-3", "event-4", "event-5"), asStrings(first));
+
+        AuditSpool.ReadResult rest = spool.read(first.next(), 100);
+        assertEquals(List.of("event-6", "event-7", "event-8", "event-9"), asStrings(rest));
+
+        spool.release(rest.next().segment());
+        assertEquals(1, segmentFiles());
+        assertTrue(spool.read(rest.next(), 100).records().isEmpty());
+    }
+
+    @Test
+    void testRejectsAppendsWhenFull() throws Exception {
+        AuditSpool spool = new AuditSpool(tempDir, 64, 2);
+        int accepted = 0;
+        while (spool.append(record(accepted))) {
+            accepted++;
+        }
+        assertEquals(8, accepted);
+    }
+
+    @Test
+    void testRecoversAfterReopenAndIgnoresTornTail() throws Exception {
+        AuditSpool spool = new AuditSpool(tempDir, 1024, 10);
+        spool.append(record(1));
+        spool.append(record(2));
+        spool.close();
+        String spoolId = spool.getSpoolId();
+
+        // Simulate a crash mid-write: checksum and payload present, length not yet written
+        Path segment;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            segment = files.filter(path -> path.toString().endsWith(".spool")).findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(30 + 4);
+            file.writeInt(12345);
+            file.write(record(3));
+        }
+
+        AuditSpool reopened = new AuditSpool(tempDir, 1024, 10);
+        assertEquals(spoolId, reopened.getSpoolId());
+        assertTrue(reopened.append(record(4)));
+        assertEquals(List.of("event-1", "event-2", "event-4"), asStrings(reopened.read(reopened.start(), 100)));
+    }
+
+    @Test
+    void testChecksumMismatchSkipsRestOfSealedSegment() throws Exception {
+        AuditSpool spool = new AuditSpool(tempDir, 64, 10);
+        for (int i = 0; i < 6; i++) {
+            spool.append(record(i));
+        }
+        spool.close();
+
+        // Flip a payload byte of the second record in the first (sealed) segment
+        Path first;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            first = files.filter(path -> path.toString().endsWith(".spool")).sorted().findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(first.toFile(), "rw")) {
+            file.seek(15 + 8);
+            file.write('X');
+        }
+
+        AuditSpool reopened = new AuditSpool(tempDir, 64, 10);
+        AuditSpool.ReadResult result = reopened.read(reopened.start(), 100);
+        assertEquals(List.of("event-0", "event-4", "event-5"), asStrings(result));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.clinicapp.auditTest;
+
+import com.example.clinicapp.config.AuditProperties;
+import com.example.clinicapp.service.AuditEvent;
+import com.example.clinicapp.service.AuditWriter;
+import com.example.clinicapp.util.AuditSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private AuditWriter newWriter(int capacity, int batchSize, String policy, boolean writeAhead) {
+        AuditProperties properties = new AuditProperties();
+        properties.setQueueCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushIntervalMs(10);
+        properties.setBackpressure(AuditProperties.BackpressurePolicy.valueOf(policy));
+        properties.setBlockTimeoutMs(5);
+        properties.getSpool().setDirectory(tempDir.resolve("spool").toString());
+        properties.getSpool().setWriteAhead(writeAhead);
+        return new AuditWriter(jdbcTemplate, transactionManager, meterRegistry, properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyBatches(int times) {
+        verify(jdbcTemplate, times(times)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static AuditEvent event(String action) {
+        return new AuditEvent("alice", action, "PATIENT", 1L, "10.0.0.1", "GET", null,
+                "details", LocalDateTime.now(), null, null);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("audit.events").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testFlushWritesInJdbcBatches() {
+        writer = newWriter(100, 3, "DROP", false);
+        for (int i = 0; i < 7; i++) {
+            writer.submit(event("READ"));
+        }
+
+        writer.flush();
+
+        verifyBatches(3);
+        assertEquals(7.0, outcome("written"));
+        assertEquals(0, writer.queueDepth());
+    }
+
+    @Test
+    void testDropPolicyCountsOverflow() {
+        writer = newWriter(2, 10, "DROP", false);
+        writer.submit(event("READ"));
+        writer.submit(event("READ"));
+        writer.submit(event("READ"));
+
+        assertEquals(2, writer.queueDepth());
+        assertEquals(1.0, outcome("dropped"));
+    }
+
+    @Test
+    void testSpillPolicyReplaysSpooledEvents() {
+        writer = newWriter(1, 10, "SPILL", false);
+        writer.submit(event("READ"));
+        writer.submit(event("UPDATE"));
+
+        assertEquals(1.0, outcome("spooled"));
+
+        writer.flush();
+
+        // One batch from the queue, one replayed from the spool
+        verifyBatches(2);
+        assertEquals(2.0, outcome("written"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedBatchIsRolledBackAndSpooledOnce() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection reset"))
+                .thenReturn(new int[0][]);
+        writer = newWriter(100, 10, "DROP", false);
+        writer.submit(event("READ"));
+        writer.submit(event("UPDATE"));
+
+        writer.flush();
+
+        // The failed batch left nothing behind, so replaying it from the spool writes each event once
+        verify(transactionManager).rollback(any());
+        assertEquals(2.0, outcome("spooled"));
+        assertEquals(2.0, outcome("written"));
+        assertEquals(0.0, outcome("failed"));
+        verifyBatches(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriteAheadSpoolResumesFromCommittedMarker() {
+        writer = newWriter(100, 10, "DROP", true);
+        for (int i = 0; i < 3; i++) {
+            writer.submit(event("READ"));
+        }
+        assertEquals(0, writer.queueDepth());
+        assertEquals(3.0, outcome("spooled"));
+
+        writer.flush();
+        verifyBatches(1);
+
+        // The marker committed with the batch (update found no row, so it was inserted)
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_spool_markers"), args.capture(),
+                args.capture(), args.capture(), args.capture());
+        long segment = (Long) args.getAllValues().get(0);
+        long offset = (Long) args.getAllValues().get(1);
+        writer.shutdown();
+
+        // Restart on the same spool: nothing before the marker is inserted again
+        when(jdbcTemplate.query(startsWith("SELECT segment_number"), any(RowMapper.class), anyString()))
+                .thenReturn(List.of(new AuditSpool.Position(segment, offset)));
+        writer = newWriter(100, 10, "DROP", true);
+        writer.submit(event("UPDATE"));
+        writer.flush();
+
+        ArgumentCaptor<Collection<AuditEvent>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, batches.getAllValues().get(1).size());
+        assertEquals("UPDATE", batches.getAllValues().get(1).iterator().next().action());
+    }
+}
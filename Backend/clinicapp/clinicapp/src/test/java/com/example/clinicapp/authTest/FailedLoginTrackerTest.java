@@ -0,0 +1,86 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.repository.AuditLogRepository;
+import com.example.clinicapp.service.FailedLoginTracker;
+import com.example.clinicapp.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FailedLoginTrackerTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    private FailedLoginTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tracker = new FailedLoginTracker(auditLogRepository, new SimpleMeterRegistry(), Duration.ofHours(1), 60, 100);
+    }
+
+    @Test
+    void testWindowExpiresOldBuckets() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 6, 100);
+        counter.record("alice", 0);
+        counter.record("alice", 15_000);
+        counter.record("alice", 55_000);
+        counter.record("alice", -120_000);
+
+        assertEquals(3, counter.count("alice", 59_999));
+        // The first bucket (0-10s) has left the window
+        assertEquals(2, counter.count("alice", 60_000));
+        assertEquals(1, counter.count("alice", 100_000));
+        assertEquals(0, counter.count("alice", 1_000_000));
+        assertEquals(0, counter.count("bob", 0));
+    }
+
+    @Test
+    void testEvictsBeyondMaxKeys() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 6, 10);
+        for (int i = 0; i < 25; i++) {
+            counter.record("ip-" + i, i * 1_000L);
+        }
+        assertTrue(counter.size() <= 10);
+        // The most recently updated key is always kept
+        assertEquals(1, counter.count("ip-24", 24_000));
+    }
+
+    @Test
+    void testFallsBackToDatabaseBeforeLoad() {
+        when(auditLogRepository.countFailedLoginsByUsernameSince(eq("alice"), any())).thenReturn(7L);
+
+        assertEquals(7, tracker.countByUsername("alice"));
+    }
+
+    @Test
+    void testRebuildsFromAuditRowsAndCountsInMemory() {
+        LocalDateTime now = LocalDateTime.now();
+        when(auditLogRepository.findFailedLoginsSince(any())).thenReturn(List.of(
+                new Object[] {"alice", "10.0.0.1", now.minusMinutes(30)},
+                new Object[] {"alice", "10.0.0.2", now.minusMinutes(5)},
+                new Object[] {"bob", "10.0.0.1", now.minusMinutes(1)}));
+
+        tracker.load();
+        tracker.recordFailure("alice", "10.0.0.1");
+
+        assertEquals(3, tracker.countByUsername("alice"));
+        assertEquals(1, tracker.countByUsername("bob"));
+        assertEquals(3, tracker.countByIp("10.0.0.1"));
+        assertEquals(0, tracker.countByIp("10.0.0.9"));
+        verify(auditLogRepository, never()).countFailedLoginsByUsernameSince(any(), any());
+        verify(auditLogRepository, never()).countFailedLoginsByIpSince(any(), any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.util.JwtUtil;
+import com.example.clinicapp.util.TokenHashUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtClaimsCacheTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+    private static final int MAX_ENTRIES = 4;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 1800000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxEntries", MAX_ENTRIES);
+        jwtUtil.init();
+    }
+
+    private Map<?, ?> cache() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "claimsCache");
+    }
+
+    private String token(String username) {
+        return jwtUtil.generateToken(new User(username, "hash", List.of(new SimpleGrantedAuthority("ROLE_DOCTOR"))));
+    }
+
+    private static String tokenExpiringAt(Date expiration) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Test
+    void testCachedClaimsDoNotOutliveTheToken() throws Exception {
+        // exp has whole-second precision
+        long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = tokenExpiringAt(new Date(expiresAt));
+        assertEquals("alice", jwtUtil.extractUsername(token));
+        assertEquals(1, cache().size());
+
+        Thread.sleep(expiresAt - System.currentTimeMillis() + 50);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractAllClaims(token));
+        assertTrue(cache().isEmpty());
+    }
+
+    @Test
+    void testInvalidTokensAreNotCached() {
+        String token = token("alice");
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractAllClaims(tampered));
+        assertThrows(ExpiredJwtException.class,
+                () -> jwtUtil.extractAllClaims(tokenExpiringAt(new Date(System.currentTimeMillis() - 60_000))));
+        assertTrue(cache().isEmpty());
+    }
+
+    @Test
+    void testFullCacheStaysBoundedAndStillCachesNewTokens() {
+        for (int i = 0; i < 3 * MAX_ENTRIES; i++) {
+            String token = token("user" + i);
+
+            assertEquals("user" + i, jwtUtil.extractUsername(token));
+            assertTrue(cache().size() <= MAX_ENTRIES);
+            assertTrue(cache().containsKey(TokenHashUtil.sha256Hex(token)));
+        }
+    }
+
+    @Test
+    void testFullCacheEvictsExpiredEntriesFirst() throws Exception {
+        long expiresAt = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        String expiring = tokenExpiringAt(new Date(expiresAt));
+        jwtUtil.extractAllClaims(expiring);
+        for (int i = 1; i < MAX_ENTRIES; i++) {
+            jwtUtil.extractAllClaims(token("user" + i));
+        }
+        Thread.sleep(Math.max(0, expiresAt - System.currentTimeMillis() + 50));
+
+        String fresh = token("fresh");
+        jwtUtil.extractAllClaims(fresh);
+
+        assertEquals(MAX_ENTRIES, cache().size());
+        assertFalse(cache().containsKey(TokenHashUtil.sha256Hex(expiring)));
+        assertTrue(cache().containsKey(TokenHashUtil.sha256Hex(fresh)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.exception.LoginThrottledException;
+import com.example.clinicapp.service.PasswordVerificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerificationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordVerificationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One thread, one queue slot
+        service = new PasswordVerificationService(meterRegistry, 1, 1, 5000, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testReturnsTaskResult() {
+        assertEquals("ok", service.verify(() -> "ok"));
+    }
+
+    @Test
+    void testRethrowsTaskExceptionUnchanged() {
+        assertThrows(BadCredentialsException.class, () -> service.verify(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @Test
+    void testRejectsFastWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Occupies the single verification thread
+            callers.submit(() -> service.verify(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // Occupies the single queue slot
+            callers.submit(() -> service.verify(() -> null));
+            Thread.sleep(100);
+
+            LoginThrottledException exception = assertThrows(LoginThrottledException.class,
+                    () -> service.verify(() -> null));
+            assertEquals(7, exception.getRetryAfterSeconds());
+            assertEquals(1.0, meterRegistry.get("auth.verification.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.config.RateLimitProperties;
+import com.example.clinicapp.filter.RateLimitBucketStore;
+import com.example.clinicapp.filter.RateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+    private RateLimitBucketStore bucketStore;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.setMaxBuckets(3);
+        properties.setPolicies(List.of(
+                new RateLimitProperties.Policy("login", "/auth/login", List.of("POST"),
+                        RateLimitProperties.KeyType.IP, 2, Duration.ofMinutes(1)),
+                new RateLimitProperties.Policy("patient-search", "/patients/search", List.of("POST"),
+                        RateLimitProperties.KeyType.USER, 1, Duration.ofMinutes(1))));
+        bucketStore = new RateLimitBucketStore(properties, meterRegistry);
+        filter = new RateLimitFilter(properties, bucketStore, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private int send(String method, String path, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void testRejectsPerIpOverCapacity() throws Exception {
+        assertEquals(200, send("POST", "/auth/login", "10.0.0.1"));
+        assertEquals(200, send("POST", "/auth/login", "10.0.0.1"));
+        assertEquals(429, send("POST", "/auth/login", "10.0.0.1"));
+        // Other clients have their own bucket
+        assertEquals(200, send("POST", "/auth/login", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("ratelimit.requests")
+                .tag("policy", "login").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void testUnmatchedRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("GET", "/auth/login", "10.0.0.1"));
+            assertEquals(200, send("GET", "/patients", "10.0.0.1"));
+        }
+        assertEquals(0, bucketStore.size());
+    }
+
+    @Test
+    void testUserKeyedPolicyUsesUsername() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority("ROLE_DOCTOR"))));
+        assertEquals(200, send("POST", "/patients/search", "10.0.0.1"));
+        // Same user from another address shares the bucket
+        assertEquals(429, send("POST", "/patients/search", "10.0.0.2"));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "bob", null, List.of(new SimpleGrantedAuthority("ROLE_DOCTOR"))));
+        assertEquals(200, send("POST", "/patients/search", "10.0.0.1"));
+    }
+
+    @Test
+    void testStoreStaysBounded() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            send("POST", "/auth/login", "10.0.1." + i);
+        }
+        assertTrue(bucketStore.size() <= properties.getMaxBuckets());
+    }
+}
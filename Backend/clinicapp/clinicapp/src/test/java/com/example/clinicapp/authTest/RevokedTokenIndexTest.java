@@ -0,0 +1,85 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.entity.RevokedToken;
+import com.example.clinicapp.repository.RevokedTokenRepository;
+import com.example.clinicapp.service.RevokedTokenIndex;
+import com.example.clinicapp.util.TokenHashUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RevokedTokenIndexTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RevokedTokenIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new RevokedTokenIndex(revokedTokenRepository, meterRegistry, 1000, 0.001);
+    }
+
+    @Test
+    void testFallsBackToDatabaseBeforeLoad() {
+        when(revokedTokenRepository.existsByTokenHash(TokenHashUtil.sha256Hex("token-a"))).thenReturn(true);
+
+        assertTrue(index.isRevoked("token-a"));
+        verify(revokedTokenRepository).existsByTokenHash(TokenHashUtil.sha256Hex("token-a"));
+    }
+
+    @Test
+    void testNotRevokedTokenNeverTouchesDatabase() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(Collections.emptyList());
+        index.load();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(index.isRevoked("valid-token-" + i));
+        }
+
+        verify(revokedTokenRepository, never()).existsByTokenHash(anyString());
+        assertEquals(100.0, meterRegistry.get("auth.revocation.lookups")
+                .tag("result", "bloom_negative").counter().count());
+    }
+
+    @Test
+    void testLoadedAndRevokedTokensAreAnsweredFromMemory() {
+        RevokedToken stored = new RevokedToken(TokenHashUtil.sha256Hex("stored-token"), LocalDateTime.now().plusMinutes(30), "alice", "LOGOUT");
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(stored));
+        index.load();
+
+        index.revoke("fresh-token", LocalDateTime.now().plusMinutes(30));
+
+        assertTrue(index.isRevoked("stored-token"));
+        assertTrue(index.isRevoked("fresh-token"));
+        verify(revokedTokenRepository, never()).existsByTokenHash(anyString());
+    }
+
+    @Test
+    void testSyncDropsExpiredEntries() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(Collections.emptyList());
+        when(revokedTokenRepository.findByRevokedAtAfter(any())).thenReturn(Collections.emptyList());
+        index.load();
+
+        index.revoke("expired-token", LocalDateTime.now().minusMinutes(1));
+        index.revoke("active-token", LocalDateTime.now().plusMinutes(30));
+        index.sync();
+
+        assertEquals(1, index.size());
+        assertTrue(index.isRevoked("active-token"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.entity.User;
+import com.example.clinicapp.filter.JwtAuthenticationFilter;
+import com.example.clinicapp.repository.RevokedTokenRepository;
+import com.example.clinicapp.repository.RoleRepository;
+import com.example.clinicapp.repository.UserRepository;
+import com.example.clinicapp.service.AuthService;
+import com.example.clinicapp.service.CustomUserDetailsService;
+import com.example.clinicapp.service.PasswordVerificationService;
+import com.example.clinicapp.service.RevokedTokenIndex;
+import com.example.clinicapp.service.UserSecurityStateCache;
+import com.example.clinicapp.service.UserSecurityStateCache.UserSecurityState;
+import com.example.clinicapp.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenEpochTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSecurityStateCache userSecurityStateCache;
+
+    @Mock
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private JwtUtil jwtUtil;
+    private UserDetails alice;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 1800000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxEntries", 100);
+        jwtUtil.init();
+        alice = new org.springframework.security.core.userdetails.User("alice", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_DOCTOR")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static UserSecurityState stateWithEpoch(long epoch) {
+        return new UserSecurityState("alice", true, false, null, Set.of("ROLE_DOCTOR"), epoch);
+    }
+
+    private JwtAuthenticationFilter filter() {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "revokedTokenIndex", revokedTokenIndex);
+        ReflectionTestUtils.setField(filter, "userSecurityStateCache", userSecurityStateCache);
+        return filter;
+    }
+
+    private MockHttpServletResponse request(String token, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/patients");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter().doFilter(request, response, chain);
+        return response;
+    }
+
+    private AuthService authService() {
+        return new AuthService(userRepository, mock(RoleRepository.class), mock(RevokedTokenRepository.class),
+                passwordEncoder, mock(AuthenticationManager.class), jwtUtil, userDetailsService,
+                revokedTokenIndex, mock(PasswordVerificationService.class), userSecurityStateCache);
+    }
+
+    @Test
+    void testTokenCarriesEpochClaim() {
+        Claims claims = jwtUtil.extractAllClaims(jwtUtil.generateToken(alice, 5L));
+        assertEquals(5L, JwtUtil.extractTokenEpoch(claims));
+
+        // Tokens issued before epochs existed count as epoch 0
+        String legacy = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), SignatureAlgorithm.HS512)
+                .compact();
+        assertEquals(0L, JwtUtil.extractTokenEpoch(jwtUtil.extractAllClaims(legacy)));
+    }
+
+    @Test
+    void testStaleEpochIsRejectedWith401() throws Exception {
+        when(userSecurityStateCache.get("alice")).thenReturn(stateWithEpoch(2));
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = request(jwtUtil.generateToken(alice, 1L), chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testCurrentEpochIsAuthenticated() throws Exception {
+        when(userSecurityStateCache.get("alice")).thenReturn(stateWithEpoch(2));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = request(jwtUtil.generateToken(alice, 2L), chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void testRevokeAllSessionsBumpsEpochAndInvalidatesAfterCommit() {
+        when(userRepository.incrementTokenEpoch("alice")).thenReturn(1);
+
+        authService().revokeAllSessions("alice", "LOGOUT_ALL");
+
+        verify(userRepository).incrementTokenEpoch("alice");
+        verify(userSecurityStateCache).invalidateAfterCommit("alice");
+        verify(userSecurityStateCache, never()).invalidate(anyString());
+
+        when(userRepository.incrementTokenEpoch("bob")).thenReturn(0);
+        assertThrows(RuntimeException.class, () -> authService().revokeAllSessions("bob", "ADMIN_REVOKE"));
+    }
+
+    @Test
+    void testResetPasswordInvalidatesExistingTokens() throws Exception {
+        User user = new User("alice", "old-hash", "alice@example.com", Set.of());
+        user.setTokenEpoch(3L);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("new-hash");
+        String tokenBeforeReset = jwtUtil.generateToken(alice, 3L);
+
+        authService().resetPassword("alice", "old", "new");
+
+        assertEquals(4L, user.getTokenEpoch());
+        verify(userRepository).save(user);
+        // The token issued before the reset no longer matches the user's epoch
+        when(userSecurityStateCache.get("alice")).thenReturn(stateWithEpoch(user.getTokenEpoch()));
+        assertEquals(401, request(tokenBeforeReset, new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void testWrongPasswordLeavesEpochAlone() {
+        User user = new User("alice", "old-hash", "alice@example.com", Set.of());
+        user.setTokenEpoch(3L);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> authService().resetPassword("alice", "wrong", "new"));
+
+        assertEquals(3L, user.getTokenEpoch());
+        verify(userRepository, never()).save(any());
+    }
+}
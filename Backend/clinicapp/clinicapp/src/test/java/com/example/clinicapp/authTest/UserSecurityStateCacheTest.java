@@ -0,0 +1,73 @@
+package com.example.clinicapp.authTest;
+
+import com.example.clinicapp.entity.Role;
+import com.example.clinicapp.entity.User;
+import com.example.clinicapp.repository.UserRepository;
+import com.example.clinicapp.service.UserSecurityStateCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserSecurityStateCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSecurityStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new UserSecurityStateCache(userRepository, 60_000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void userHasRole(String role) {
+        User user = new User("alice", "hash", "alice@example.com", Set.of(new Role(role)));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void testInvalidationWaitsForCommit() {
+        userHasRole("DOCTOR");
+        assertEquals(Set.of("ROLE_DOCTOR"), cache.get("alice").authorities());
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateAfterCommit("alice");
+        // A request reloading before the commit caches the old roles...
+        assertEquals(Set.of("ROLE_DOCTOR"), cache.get("alice").authorities());
+
+        userHasRole("ADMIN");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        // ...and the invalidation after commit still drops them
+        assertEquals(Set.of("ROLE_ADMIN"), cache.get("alice").authorities());
+    }
+
+    @Test
+    void testInvalidationIsImmediateOutsideTransactions() {
+        userHasRole("DOCTOR");
+        cache.get("alice");
+
+        userHasRole("ADMIN");
+        cache.invalidateAfterCommit("alice");
+
+        assertEquals(Set.of("ROLE_ADMIN"), cache.get("alice").authorities());
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.clinicapp.benchmark;
+
+import com.example.clinicapp.config.AuditAspect;
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.controller.PatientController;
+import com.example.clinicapp.entity.Patient;
+import com.example.clinicapp.service.AuditService;
+import com.example.clinicapp.service.PatientService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuditAspect advice overhead: legacy per-call derivation vs cached AuditDescriptor.
+ *
+ * Both variants advise the same PatientController through a Spring AOP proxy, with a
+ * no-op AuditService, so the difference is the advice itself. The legacy aspect mirrors
+ * what AuditAspect used to do per call: prefix matching on the method name, a scan of the
+ * arguments for a Long, class-name string work for the resource type, and String.format.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.example.clinicapp.benchmark.AuditAspectBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditAspectBenchmark {
+
+    private PatientController legacyProxy;
+    private PatientController descriptorProxy;
+    private Long patientId;
+
+    @Setup
+    public void setUp() {
+        Patient patient = new Patient();
+        PatientService patientService = new PatientService(null, new PaginationProperties()) {
+            @Override
+            public Patient getPatientById(Long id) {
+                return patient;
+            }
+        };
+        PatientController controller = new PatientController(patientService);
+        NoopAuditService auditService = new NoopAuditService();
+
+        LegacyAuditAspect legacyAspect = new LegacyAuditAspect();
+        legacyAspect.auditService = auditService;
+        legacyProxy = proxy(controller, legacyAspect);
+
+        AuditAspect aspect = new AuditAspect();
+        ReflectionTestUtils.setField(aspect, "auditService", auditService);
+        descriptorProxy = proxy(controller, aspect);
+
+        patientId = 42L;
+    }
+
+    private static PatientController proxy(PatientController target, Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Benchmark
+    public ResponseEntity<Patient> legacyAdvice() {
+        return legacyProxy.getPatientById(patientId);
+    }
+
+    @Benchmark
+    public ResponseEntity<Patient> descriptorAdvice() {
+        return descriptorProxy.getPatientById(patientId);
+    }
+
+    /**
+     * Drops audit events; keeps the last details so the string building is not dead code
+     */
+    static class NoopAuditService extends AuditService {
+        volatile String lastDetails;
+
+        @Override
+        public void log(String action, String resourceType, Long resourceId, String details) {
+            lastDetails = details;
+        }
+    }
+
+    /**
+     * Pre-descriptor advice for patient and prescription controllers
+     */
+    @Aspect
+    public static class LegacyAuditAspect {
+
+        AuditService auditService;
+
+        @Around("execution(* com.example.clinicapp.controller.PatientController.*(..))")
+        public Object auditSensitiveOperations(ProceedingJoinPoint joinPoint) throws Throwable {
+            long startTime = System.currentTimeMillis();
+            String methodName = joinPoint.getSignature().getName();
+            String className = joinPoint.getTarget().getClass().getSimpleName();
+            String resourceType = className.replace("Controller", "").toUpperCase();
+            String action = determineAction(methodName);
+            Long resourceId = extractResourceId(joinPoint.getArgs());
+            try {
+                Object result = joinPoint.proceed();
+                long duration = System.currentTimeMillis() - startTime;
+                String details = String.format("Method: %s, Duration: %dms", methodName, duration);
+                auditService.log(action, resourceType, resourceId, details);
+                return result;
+            } catch (Exception e) {
+                long duration = System.currentTimeMillis() - startTime;
+                String details = String.format("Method: %s, Error: %s, Duration: %dms",
+                        methodName, e.getMessage(), duration);
+                auditService.log(action + "_FAILED", resourceType, resourceId, details);
+                throw e;
+            }
+        }
+
+        private String determineAction(String methodName) {
+            if (methodName.startsWith("get") || methodName.startsWith("find") ||
+                methodName.startsWith("search") || methodName.startsWith("list")) {
+                return "READ";
+            } else if (methodName.startsWith("create") || methodName.startsWith("save") ||
+                       methodName.startsWith("add")) {
+                return "CREATE";
+            } else if (methodName.startsWith("update") || methodName.startsWith("modify") ||
+                       methodName.startsWith("edit")) {
+                return "UPDATE";
+            } else if (methodName.startsWith("delete") || methodName.startsWith("remove")) {
+                return "DELETE";
+            }
+            return "ACCESS";
+        }
+
+        private Long extractResourceId(Object[] args) {
+            for (Object arg : args) {
+                if (arg instanceof Long) {
+                    return (Long) arg;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AuditAspectBenchmark.class.getSimpleName())
+                // In-process: exec:java does not hand its test classpath to a forked JVM
+                .forks(0)
+                .build();
+        new Runner(options).run();
+    }
+}
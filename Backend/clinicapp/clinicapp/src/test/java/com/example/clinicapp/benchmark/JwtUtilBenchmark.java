@@ -0,0 +1,96 @@
+package com.example.clinicapp.benchmark;
+
+import com.example.clinicapp.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil per-request cost: legacy path vs parse-once cache.
+ *
+ * The legacy path mirrors what JwtAuthenticationFilter used to pay per request:
+ * three full parses (extractUsername, then extractUsername + extractExpiration inside
+ * validateToken), each decoding the secret and building a new parser.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.example.clinicapp.benchmark.JwtUtilBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private String secret;
+    private String token;
+    private UserDetails userDetails;
+    private JwtUtil jwtUtil;
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = new byte[64];
+        new SecureRandom().nextBytes(keyBytes);
+        secret = Base64.getEncoder().encodeToString(keyBytes);
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", secret);
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 1800000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxEntries", 10000);
+        jwtUtil.init();
+
+        userDetails = User.withUsername("dr.rana")
+                .password("unused")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_DOCTOR")))
+                .build();
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyParse(token).getSubject();
+        boolean valid = legacyParse(token).getSubject().equals(username)
+                && !legacyParse(token).getExpiration().before(new Date());
+        return valid;
+    }
+
+    @Benchmark
+    public boolean cachedPerRequest() {
+        String username = jwtUtil.extractUsername(token);
+        return username != null && jwtUtil.validateToken(token, userDetails);
+    }
+
+    private Claims legacyParse(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                // In-process: exec:java does not hand its test classpath to a forked JVM
+                .forks(0)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.clinicapp.doctorTest;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.entity.DoctorLeave;
+import com.example.clinicapp.entity.DoctorRoster;
+import com.example.clinicapp.entity.RosterPeriod;
+import com.example.clinicapp.repository.DoctorLeaveRepository;
+import com.example.clinicapp.repository.DoctorRosterRepository;
+import com.example.clinicapp.repository.RosterPeriodRepository;
+import com.example.clinicapp.service.RosterCalendar;
+import com.example.clinicapp.service.RosterCalendar.Window;
+import com.example.clinicapp.service.SlotAvailabilityIndex.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RosterCalendarTest {
+
+    // Calendars cover the coming weeks, so tests work relative to next Monday
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Mock
+    private DoctorRosterRepository doctorRosterRepository;
+
+    @Mock
+    private RosterPeriodRepository rosterPeriodRepository;
+
+    @Mock
+    private DoctorLeaveRepository doctorLeaveRepository;
+
+    private RosterCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        calendar = new RosterCalendar(doctorRosterRepository, rosterPeriodRepository, doctorLeaveRepository,
+                new AppointmentProperties(), new SimpleMeterRegistry());
+    }
+
+    private static DoctorRoster roster(long doctorId, int slotMinutes, long version) {
+        DoctorRoster roster = new DoctorRoster(doctorId);
+        roster.setSlotMinutes(slotMinutes);
+        roster.setVersion(version);
+        return roster;
+    }
+
+    /**
+     * Doctor 1 works Monday and Wednesday 09:00-13:00 with a break 11:00-11:30, on 15-minute slots
+     */
+    private void rosterDoctorOne(long version, DoctorLeave... leave) {
+        when(doctorRosterRepository.findByDoctorId(1L)).thenReturn(Optional.of(roster(1L, 15, version)));
+        when(rosterPeriodRepository.findByDoctorId(1L)).thenReturn(List.of(
+                new RosterPeriod(1L, DayOfWeek.MONDAY, RosterPeriod.Kind.WORK, LocalTime.of(9, 0), LocalTime.of(13, 0)),
+                new RosterPeriod(1L, DayOfWeek.WEDNESDAY, RosterPeriod.Kind.WORK, LocalTime.of(9, 0), LocalTime.of(13, 0)),
+                new RosterPeriod(1L, DayOfWeek.MONDAY, RosterPeriod.Kind.BREAK, LocalTime.of(11, 0), LocalTime.of(11, 30))));
+        when(doctorLeaveRepository.findByDoctorIdAndLeaveDateGreaterThanEqual(eq(1L), any())).thenReturn(List.of(leave));
+        calendar.rebuild(1L);
+    }
+
+    @Test
+    void testDoctorsWithoutRosterAreUnrestricted() {
+        assertTrue(calendar.isWorking(new Booking(2L, MONDAY.atTime(3, 7), 10)));
+        assertTrue(calendar.isWorking(new Booking(null, MONDAY.atTime(3, 7), 10)));
+        assertFalse(calendar.isRostered(2L));
+        assertEquals(5, calendar.stepMinutes(2L));
+    }
+
+    @Test
+    void testBookingMustFitWorkingHoursAndSlots() {
+        rosterDoctorOne(1);
+
+        assertTrue(calendar.isWorking(new Booking(1L, MONDAY.atTime(9, 0), 15)));
+        assertTrue(calendar.isWorking(new Booking(1L, MONDAY.atTime(12, 45), 15)));
+        // Before hours, off the 15-minute grid, running into the break, running past closing
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.atTime(8, 45), 15)));
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.atTime(9, 5), 10)));
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.atTime(10, 45), 30)));
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.atTime(12, 45), 20)));
+        // Tuesday is a day off
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.plusDays(1).atTime(9, 0), 15)));
+        assertEquals(15, calendar.stepMinutes(1L));
+    }
+
+    @Test
+    void testLeaveDayAndDaysBeyondCalendarAreNotBookable() {
+        rosterDoctorOne(1, new DoctorLeave(1L, MONDAY.plusDays(2), "Conference"));
+
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.plusDays(2).atTime(9, 0), 15)));
+        assertTrue(calendar.isWorking(new Booking(1L, MONDAY.plusDays(9).atTime(9, 0), 15)));
+        assertFalse(calendar.isWorking(new Booking(1L, MONDAY.plusWeeks(52).atTime(9, 0), 15)));
+    }
+
+    @Test
+    void testWorkingWindowsExcludeBreaks() {
+        rosterDoctorOne(1);
+
+        assertEquals(List.of(new Window(MONDAY.atTime(9, 0), MONDAY.atTime(11, 0)),
+                        new Window(MONDAY.atTime(11, 30), MONDAY.atTime(13, 0))),
+                calendar.workingWindows(1L, MONDAY));
+        assertEquals(List.of(), calendar.workingWindows(1L, MONDAY.plusDays(1)));
+    }
+
+    @Test
+    void testRefreshRebuildsOnlyChangedRosters() {
+        rosterDoctorOne(1);
+        when(doctorRosterRepository.findAll()).thenReturn(List.of(roster(1L, 15, 1)));
+        calendar.refresh();
+        verify(rosterPeriodRepository, times(1)).findByDoctorId(1L);
+
+        // Another node changed the roster: version moved
+        when(doctorRosterRepository.findAll()).thenReturn(List.of(roster(1L, 15, 2)));
+        when(doctorRosterRepository.findByDoctorId(1L)).thenReturn(Optional.of(roster(1L, 15, 2)));
+        calendar.refresh();
+        verify(rosterPeriodRepository, times(2)).findByDoctorId(1L);
+
+        // Roster deleted: the doctor is unrestricted again
+        when(doctorRosterRepository.findAll()).thenReturn(List.of());
+        calendar.refresh();
+        assertFalse(calendar.isRostered(1L));
+        assertTrue(calendar.isWorking(new Booking(1L, MONDAY.atTime(3, 7), 10)));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.clinicapp.invoiceTest;
+
+import com.example.clinicapp.entity.InvoiceStatus;
+import com.example.clinicapp.exception.InvalidStatusTransitionException;
+import org.junit.jupiter.api.Test;
+
+import static com.example.clinicapp.entity.InvoiceStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvoiceStatusTest {
+
+    @Test
+    void testTransitionTable() {
+        assertTrue(GENERATED.canTransitionTo(VOID));
+        assertFalse(VOID.canTransitionTo(GENERATED));
+        for (InvoiceStatus status : InvoiceStatus.values()) {
+            assertEquals(status, status.transitionTo(status));
+        }
+        assertEquals(VOID, GENERATED.transitionTo(VOID));
+        assertThrows(InvalidStatusTransitionException.class, () -> VOID.transitionTo(GENERATED));
+    }
+}
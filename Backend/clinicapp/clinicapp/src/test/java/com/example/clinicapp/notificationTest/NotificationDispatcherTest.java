@@ -0,0 +1,117 @@
+package com.example.clinicapp.notificationTest;
+
+import com.example.clinicapp.config.NotificationProperties;
+import com.example.clinicapp.service.EmailService;
+import com.example.clinicapp.service.MobileService;
+import com.example.clinicapp.service.NotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private MobileService mobileService;
+
+    private final NotificationProperties properties = new NotificationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dispatcher = new NotificationDispatcher(jdbcTemplate, transactionManager, emailService, mobileService,
+                properties, meterRegistry);
+    }
+
+    /**
+     * The claim query returns one EMAIL row with the given number of earlier attempts
+     */
+    private void claimOneEmail(long id, int attempts) {
+        when(jdbcTemplate.query(contains("FOR UPDATE SKIP LOCKED"), any(RowMapper.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getLong("id")).thenReturn(id);
+                    when(rs.getString("channel")).thenReturn("EMAIL");
+                    when(rs.getString("recipient")).thenReturn("patient@example.com");
+                    when(rs.getString("subject")).thenReturn("Appointment Confirmation");
+                    when(rs.getString("body")).thenReturn("Booked");
+                    when(rs.getInt("attempts")).thenReturn(attempts);
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    return List.of(mapper.mapRow(rs, 0));
+                });
+    }
+
+    private double dispatched(String outcome) {
+        return meterRegistry.get("notifications.dispatched").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testDeliveredRowIsMarkedSent() {
+        claimOneEmail(7L, 0);
+
+        dispatcher.dispatch();
+
+        verify(emailService).sendEmail("patient@example.com", "Appointment Confirmation", "Booked");
+        verify(jdbcTemplate).update(contains("status = 'SENT'"), any(), eq(7L));
+        assertEquals(1.0, dispatched("sent"));
+    }
+
+    @Test
+    void testFailedSendIsRescheduledWithBackoff() {
+        claimOneEmail(7L, 2);
+        doThrow(new MailSendException("SMTP timeout")).when(emailService).sendEmail(any(), any(), any());
+
+        dispatcher.dispatch();
+
+        verify(jdbcTemplate).update(contains("next_attempt_at = ?, last_error"), any(), contains("SMTP timeout"), eq(7L));
+        verify(jdbcTemplate, never()).update(contains("status = 'SENT'"), any(), any());
+        assertEquals(1.0, dispatched("retried"));
+    }
+
+    @Test
+    void testLastAttemptMarksRowFailed() {
+        claimOneEmail(7L, properties.getMaxAttempts() - 1);
+        doThrow(new MailSendException("mailbox unavailable")).when(emailService).sendEmail(any(), any(), any());
+
+        dispatcher.dispatch();
+
+        verify(jdbcTemplate).update(contains("status = 'FAILED'"), contains("mailbox unavailable"), eq(7L));
+        assertEquals(1.0, dispatched("failed"));
+    }
+
+    @Test
+    void testBackoffDoublesUpToMax() {
+        properties.setInitialBackoff(Duration.ofSeconds(30));
+        properties.setMaxBackoff(Duration.ofMinutes(10));
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoffAfter(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoffAfter(2));
+        assertEquals(Duration.ofSeconds(240), dispatcher.backoffAfter(4));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoffAfter(6));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoffAfter(1000));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.clinicapp.notificationTest;
+
+import com.example.clinicapp.config.AppointmentProperties;
+import com.example.clinicapp.dto.ReminderTarget;
+import com.example.clinicapp.entity.Appointment;
+import com.example.clinicapp.entity.AppointmentReminder;
+import com.example.clinicapp.entity.AppointmentStatus;
+import com.example.clinicapp.repository.AppointmentReminderRepository;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.service.NotificationOutbox;
+import com.example.clinicapp.service.ReminderScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReminderSchedulerTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentReminderRepository appointmentReminderRepository;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        scheduler = new ReminderScheduler(appointmentRepository, appointmentReminderRepository, notificationOutbox,
+                transactionManager, new AppointmentProperties(), meterRegistry);
+        when(appointmentReminderRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static Appointment appointment(long id, LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(AppointmentStatus.BOOKED);
+        appointment.setPatientEmail("patient" + id + "@example.com");
+        return appointment;
+    }
+
+    private static ReminderTarget target(Appointment appointment) {
+        return new ReminderTarget(appointment.getId(), appointment.getAppointmentTime(),
+                appointment.getStatus(), appointment.getPatientEmail());
+    }
+
+    private void inDatabase(Appointment... appointments) {
+        List<ReminderTarget> targets = Arrays.stream(appointments).map(ReminderSchedulerTest::target).toList();
+        when(appointmentRepository.findReminderTargetsByIds(anyCollection())).thenReturn(targets);
+        when(appointmentRepository.findReminderTargets(anyCollection(), any(), any())).thenReturn(targets);
+    }
+
+    @Test
+    void testBookedAppointmentIsRemindedWhenDue() {
+        LocalDateTime time = LocalDateTime.now().plusHours(3);
+        Appointment appointment = appointment(1L, time);
+        inDatabase(appointment);
+
+        scheduler.onScheduled(appointment);
+
+        // The 24h reminder has already passed; only the 2h one is scheduled
+        assertEquals(1, scheduler.pendingTimers());
+        assertEquals(0, scheduler.fireDue(time.minusHours(2).minusMinutes(1)));
+        assertEquals(1, scheduler.fireDue(time.minusHours(2).plusSeconds(1)));
+        verify(appointmentReminderRepository).saveAllAndFlush(anyList());
+        verify(notificationOutbox).email(eq("patient1@example.com"), eq("Appointment Reminder"),
+                contains("Reminder: your appointment is scheduled for"), eq(1L));
+        assertEquals(1.0, meterRegistry.get("appointments.reminders.queued").counter().count());
+    }
+
+    @Test
+    void testLoadCatchesUpRecentlyMissedReminders() {
+        LocalDateTime now = LocalDateTime.now();
+        // 2h reminder due five minutes ago, inside the default 15 minute catch-up
+        inDatabase(appointment(1L, now.plusHours(2).minusMinutes(5)));
+
+        scheduler.load();
+
+        assertEquals(1, scheduler.fireDue(now.plusSeconds(2)));
+    }
+
+    @Test
+    void testCancelledAppointmentIsNotReminded() {
+        LocalDateTime time = LocalDateTime.now().plusHours(3);
+        scheduler.onScheduled(appointment(1L, time));
+        scheduler.onRemoved(1L);
+
+        assertEquals(0, scheduler.fireDue(time.minusHours(2).plusSeconds(1)));
+        verifyNoInteractions(appointmentReminderRepository, notificationOutbox);
+    }
+
+    @Test
+    void testRescheduledAppointmentIsRemindedForItsNewTime() {
+        LocalDateTime time = LocalDateTime.now().plusHours(3);
+        Appointment moved = appointment(1L, time.plusHours(1));
+        inDatabase(moved);
+        scheduler.onScheduled(appointment(1L, time));
+        scheduler.onScheduled(moved);
+
+        assertEquals(0, scheduler.fireDue(time.minusHours(2).plusSeconds(1)));
+        assertEquals(1, scheduler.fireDue(moved.getAppointmentTime().minusHours(2).plusSeconds(1)));
+    }
+
+    @Test
+    void testReminderClaimedByAnotherNodeIsNotResent() {
+        LocalDateTime time = LocalDateTime.now().plusHours(3);
+        Appointment appointment = appointment(1L, time);
+        inDatabase(appointment);
+        when(appointmentReminderRepository.findByAppointmentIdIn(anyCollection()))
+                .thenReturn(List.of(new AppointmentReminder(1L, 120, time, LocalDateTime.now())));
+        scheduler.onScheduled(appointment);
+
+        assertEquals(0, scheduler.fireDue(time.minusHours(2).plusSeconds(1)));
+        verify(appointmentReminderRepository, never()).saveAllAndFlush(anyList());
+        verifyNoInteractions(notificationOutbox);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConflictingBatchFallsBackToOneClaimAtATime() {
+        LocalDateTime time = LocalDateTime.now().plusHours(3);
+        Appointment first = appointment(1L, time);
+        Appointment second = appointment(2L, time);
+        inDatabase(first, second);
+        // Another node claimed appointment 2's reminder between our check and insert
+        when(appointmentReminderRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<AppointmentReminder> claims = invocation.getArgument(0);
+            if (claims.stream().anyMatch(claim -> claim.getAppointmentId() == 2L)) {
+                throw new DataIntegrityViolationException("duplicate key uk_appointment_reminders_claim");
+            }
+            return claims;
+        });
+        scheduler.onScheduled(first);
+        scheduler.onScheduled(second);
+
+        assertEquals(1, scheduler.fireDue(time.minusHours(2).plusSeconds(1)));
+        verify(notificationOutbox).email(eq("patient1@example.com"), any(), any(), eq(1L));
+        verify(notificationOutbox, never()).email(eq("patient2@example.com"), any(), any(), any());
+    }
+}
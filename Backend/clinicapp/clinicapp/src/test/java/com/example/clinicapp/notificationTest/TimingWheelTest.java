@@ -0,0 +1,69 @@
+package com.example.clinicapp.notificationTest;
+
+import com.example.clinicapp.util.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testItemsComeDueInExpiryOrder() {
+        // 1ms ticks, 4 buckets per level, 3 levels: level 0 spans 4 ticks, the wheel 64
+        TimingWheel<String> wheel = new TimingWheel<>(1, 2, 3, 0);
+        wheel.add(50, "c");
+        wheel.add(3, "a");
+        wheel.add(17, "b");
+
+        assertEquals(List.of("a"), wheel.advanceTo(3));
+        assertEquals(List.of(), wheel.advanceTo(16));
+        assertEquals(List.of("b"), wheel.advanceTo(17));
+        assertEquals(List.of("c"), wheel.advanceTo(64));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testNothingFiresEarlyOrIsLostAcrossCascades() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 2, 3, 0);
+        Random random = new Random(42);
+        List<Long> expirations = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long expiration = 1 + random.nextInt(500);
+            expirations.add(expiration);
+            wheel.add(expiration, expiration);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 1; now <= 500; now++) {
+            for (Long expiration : wheel.advanceTo(now)) {
+                assertEquals(now, expiration);
+                fired.add(expiration);
+            }
+        }
+        assertEquals(expirations.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testItemsBeyondTheWheelAreRePlaced() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 2, 3, 0);
+        wheel.add(1000, "far");
+
+        assertEquals(List.of(), wheel.advanceTo(999));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("far"), wheel.advanceTo(1000));
+    }
+
+    @Test
+    void testPastExpirationFiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 6, 4, 10_000);
+        wheel.add(2_000, "late");
+
+        assertEquals(List.of(), wheel.advanceTo(10_999));
+        assertEquals(List.of("late"), wheel.advanceTo(11_000));
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.clinicapp.patientTest;
 
 
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.CursorPage;
 import com.example.clinicapp.entity.Patient;
 import com.example.clinicapp.repository.PatientRepository;
 import com.example.clinicapp.service.PatientService;
+import com.example.clinicapp.util.CursorCodec;
+import com.example.clinicapp.util.KeysetCursors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +31,9 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
     private Patient patient;
 
     @BeforeEach
@@ -75,6 +84,27 @@ class PatientServiceTest {
         verify(patientRepository, times(1)).findByNameAndPhoneNumber("John Doe", "1234567890");
     }
 
+    @Test
+    void testGetPatientsPagesByIdWithClampedLimit() {
+        Patient second = new Patient();
+        second.setId(2L);
+        when(patientRepository.findPageAfter(anyLong(), any())).thenReturn(List.of(patient, second));
+
+        CursorPage<Patient> page = patientService.getPatients(null, 1);
+
+        assertEquals(List.of(patient), page.getItems());
+        assertEquals(CursorCodec.encode(1L), page.getNextCursor());
+
+        patientService.getPatients(page.getNextCursor(), 10_000);
+        verify(patientRepository).findPageAfter(0L, KeysetCursors.rows(1));
+        verify(patientRepository).findPageAfter(1L, KeysetCursors.rows(paginationProperties.getMaxPageSize()));
+    }
+
+    @Test
+    void testGetPatientsRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> patientService.getPatients("not a cursor!", 10));
+    }
+
     @Test
     void testUpdatePatient() {
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
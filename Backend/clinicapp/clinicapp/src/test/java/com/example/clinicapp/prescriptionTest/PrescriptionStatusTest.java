@@ -0,0 +1,103 @@
+package com.example.clinicapp.prescriptionTest;
+
+import com.example.clinicapp.config.PaginationProperties;
+import com.example.clinicapp.dto.PrescriptionDto;
+import com.example.clinicapp.entity.Prescription;
+import com.example.clinicapp.entity.PrescriptionStatus;
+import com.example.clinicapp.exception.InvalidStatusTransitionException;
+import com.example.clinicapp.repository.AppointmentRepository;
+import com.example.clinicapp.repository.DoctorRepository;
+import com.example.clinicapp.repository.PatientRepository;
+import com.example.clinicapp.repository.PrescriptionRepository;
+import com.example.clinicapp.service.AppointmentBoardStream;
+import com.example.clinicapp.service.PrescriptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static com.example.clinicapp.entity.PrescriptionStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PrescriptionStatusTest {
+
+    @Mock
+    private PrescriptionRepository prescriptionRepository;
+
+    private PrescriptionService prescriptionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        prescriptionService = new PrescriptionService(mock(DoctorRepository.class), mock(PatientRepository.class),
+                prescriptionRepository, mock(AppointmentRepository.class), new ObjectMapper(),
+                new PaginationProperties(), mock(AppointmentBoardStream.class));
+        when(prescriptionRepository.save(any(Prescription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private Prescription stored(PrescriptionStatus status) {
+        Prescription prescription = new Prescription();
+        prescription.setStatus(status);
+        prescription.setMedicines(new ArrayList<>());
+        prescription.setReferrals(new ArrayList<>());
+        when(prescriptionRepository.findById(1L)).thenReturn(Optional.of(prescription));
+        return prescription;
+    }
+
+    private static PrescriptionDto update(PrescriptionStatus status) {
+        PrescriptionDto dto = new PrescriptionDto();
+        dto.setStatus(status);
+        return dto;
+    }
+
+    @Test
+    void testTransitionTable() {
+        assertTrue(DRAFT.canTransitionTo(FINALIZED));
+        assertTrue(DRAFT.canTransitionTo(CANCELLED));
+        assertTrue(FINALIZED.canTransitionTo(CANCELLED));
+        assertFalse(FINALIZED.canTransitionTo(DRAFT));
+        assertFalse(CANCELLED.canTransitionTo(DRAFT));
+        assertFalse(CANCELLED.canTransitionTo(FINALIZED));
+        for (PrescriptionStatus status : PrescriptionStatus.values()) {
+            assertEquals(status, status.transitionTo(status));
+        }
+        assertThrows(InvalidStatusTransitionException.class, () -> CANCELLED.transitionTo(FINALIZED));
+    }
+
+    @Test
+    void testUpdateFinalizesDraft() {
+        Prescription prescription = stored(DRAFT);
+
+        prescriptionService.updatePrescription(1L, update(FINALIZED));
+
+        assertEquals(FINALIZED, prescription.getStatus());
+    }
+
+    @Test
+    void testUpdateRejectsReopeningFinalizedPrescription() {
+        Prescription prescription = stored(FINALIZED);
+        PrescriptionDto dto = update(DRAFT);
+        dto.setComplaints("edited");
+
+        assertThrows(InvalidStatusTransitionException.class, () -> prescriptionService.updatePrescription(1L, dto));
+
+        assertEquals(FINALIZED, prescription.getStatus());
+        assertNull(prescription.getComplaints());
+        verify(prescriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateWithoutStatusKeepsIt() {
+        Prescription prescription = stored(FINALIZED);
+
+        prescriptionService.updatePrescription(1L, update(null));
+
+        assertEquals(FINALIZED, prescription.getStatus());
+    }
+}
@@ -16,6 +16,8 @@ const AppointmentTable = () => {
   const [isModalOpen, setIsModalOpen] = useState(false);
   const [openMenuId, setOpenMenuId] = useState(null);
   const [menuOpen, setMenuOpen] = useState(false);
+  // Day currently shown in the table, which live updates are subscribed to
+  const [boardDate, setBoardDate] = useState(selectedDate);
 
   const fetchAppointmentsByDate = (date) => {
     // Security Remediation: Using API config and cookie-based auth
@@ -28,6 +30,7 @@ const AppointmentTable = () => {
         logger.log('Fetched appointments count:', data?.length);
         setAppointments(data);
         setFilteredAppointments(data);
+        setBoardDate(date);
       })
       .catch(error => logger.error('Error loading appointments:', error.message));
   };
@@ -36,6 +39,53 @@ const AppointmentTable = () => {
     fetchAppointmentsByDate(selectedDate);
   }, []);
 
+  // Keep the search applied as live updates change the day's appointments
+  useEffect(() => {
+    setFilteredAppointments(searchTerm
+      ? appointments.filter((appointment) =>
+          appointment.patientName.toLowerCase().includes(searchTerm))
+      : appointments);
+  }, [appointments]);
+
+  // Apply one board change to the day's appointments, kept in time order like /appointments/day
+  const applyBoardEvent = (current, event) => {
+    switch (event.type) {
+      case 'CREATED':
+      case 'UPDATED': {
+        const others = current.filter((appointment) => appointment.id !== event.appointmentId);
+        return [...others, event.appointment].sort((a, b) =>
+          a.appointmentTime < b.appointmentTime ? -1 : a.appointmentTime > b.appointmentTime ? 1 : 0);
+      }
+      case 'REMOVED':
+        return current.filter((appointment) => appointment.id !== event.appointmentId);
+      case 'PRESCRIPTION':
+        return current.map((appointment) => appointment.id === event.appointmentId
+          ? { ...appointment, prescriptionId: event.prescriptionId }
+          : appointment);
+      default:
+        return current;
+    }
+  };
+
+  // Live board: apply each change to the shown day instead of polling, and reload the day only
+  // on RESYNC. EventSource reconnects on its own and resumes from the last event it saw.
+  useEffect(() => {
+    const source = new EventSource(
+      `${API_CONFIG.BASE_URL}${API_ENDPOINTS.APPOINTMENTS.BOARD_STREAM}?date=${boardDate}`,
+      { withCredentials: true }
+    );
+    source.onmessage = (message) => {
+      const event = JSON.parse(message.data);
+      if (event.type === 'RESYNC') {
+        fetchAppointmentsByDate(boardDate);
+      } else {
+        setAppointments((current) => applyBoardEvent(current, event));
+      }
+    };
+    source.onerror = () => logger.log('Board stream interrupted; reconnecting');
+    return () => source.close();
+  }, [boardDate]);
+
   const handleSearchChange = (event) => {
     const searchValue = event.target.value.toLowerCase();
     setSearchTerm(searchValue);
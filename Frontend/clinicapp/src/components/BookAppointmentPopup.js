@@ -47,6 +47,7 @@ const BookAppointmentPopup = ({ patientData, onClose }) => {
     const appointmentData = {
       patientName, // data coming from parent
       appointmentTime,
+      durationMinutes: parseInt(selectedDuration, 10),
       details,
       status,
       doctor: { id: 1 },  // TODO: Make this dynamic with doctor selection
@@ -10,13 +10,15 @@ const Consults = () => {
   const [searchTerm, setSearchTerm] = useState("");
   const [filteredConsults, setFilteredConsults] = useState([]);
   const [isLoading, setIsLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
 
-  // Fetch all completed appointments (consults)
-  const fetchConsults = async () => {
+  // Fetch completed appointments (consults) one page at a time; a cursor appends the next page
+  const fetchConsults = async (cursor = null) => {
     setIsLoading(true);
     try {
+      const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
       const response = await fetch(
-        `${API_CONFIG.BASE_URL}${API_ENDPOINTS.CONSULTS.ALL}`,
+        `${API_CONFIG.BASE_URL}${API_ENDPOINTS.CONSULTS.ALL}${query}`,
         {
           credentials: API_CONFIG.CREDENTIALS,
           headers: API_CONFIG.HEADERS,
@@ -24,10 +26,12 @@ const Consults = () => {
       );
 
       if (response.ok) {
-        const data = await response.json();
-        logger.log('Fetched consults count:', data?.length);
+        const page = await response.json();
+        const data = cursor ? [...consults, ...page.items] : page.items;
+        logger.log('Fetched consults count:', data.length);
         setConsults(data);
         setFilteredConsults(data);
+        setNextCursor(page.nextCursor);
       } else {
         logger.error('Failed to fetch consults');
         setConsults([]);
@@ -80,9 +84,10 @@ const Consults = () => {
       );
 
       if (response.ok) {
-        const data = await response.json();
-        logger.log('Search results:', data?.length);
-        setFilteredConsults(Array.isArray(data) ? data : [data]);
+        const page = await response.json();
+        logger.log('Search results:', page.items.length);
+        setFilteredConsults(page.items);
+        setNextCursor(null);
       } else {
         logger.log('No consults found for patient ID:', searchTerm);
         setFilteredConsults([]);
@@ -233,6 +238,14 @@ const Consults = () => {
           </tbody>
         </table>
       )}
+
+      {!isLoading && nextCursor && !searchTerm.trim() && (
+        <div className="consults-footer">
+          <button className="refresh-btn" onClick={() => fetchConsults(nextCursor)}>
+            More
+          </button>
+        </div>
+      )}
     </div>
   );
 };
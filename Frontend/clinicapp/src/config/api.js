@@ -24,11 +24,16 @@ export const API_ENDPOINTS = {
     },
     APPOINTMENTS: {
         BOOK: '/appointments/bookAppointment',
+        BOOK_SERIES: '/appointments/series',
+        HOLDS: '/appointments/holds',
+        RELEASE_HOLD: (token) => `/appointments/holds/${token}`,
         BY_ID: (id) => `/appointments/${id}`,
         BY_DAY: '/appointments/day',
+        BOARD_STREAM: '/appointments/board/stream',
         UPDATE: (id) => `/appointments/update/${id}`,
         CANCEL: (id) => `/appointments/cancel/${id}`,
         AVAILABILITY: '/appointments/availability',
+        NEXT_FREE: '/appointments/next-free',
         BY_STATUS: '/appointments/status',
     },
     PRESCRIPTIONS: {